@@ -4,15 +4,24 @@ package com.example.AccountManagement.controller;
 import com.example.AccountManagement.dto.AccountBalanceDto;
 import com.example.AccountManagement.dto.AccountCreateDto;
 import com.example.AccountManagement.dto.AccountDto;
+import com.example.AccountManagement.dto.AccountPageDto;
+import com.example.AccountManagement.dto.AccountTransferDto;
 import com.example.AccountManagement.dto.AccountUpdateDto;
 import com.example.AccountManagement.enums.AccountStatus;
 import com.example.AccountManagement.service.IAccountService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.List;
 
 @RestController
@@ -23,10 +32,15 @@ import java.util.List;
         content = @io.swagger.v3.oas.annotations.media.Content
 )
 public class AccountController {
+    public static final String INTERNAL_TOKEN_HEADER = "X-Internal-Token";
 
     @Autowired
     private IAccountService accountService;
 
+    // shared with the transactions service, the only caller allowed to move money; blank rejects every transfer
+    @Value("${accounts.internal-token:}")
+    private String internalToken;
+
 
     @PostMapping("/create_account")
     @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN')")
@@ -79,6 +93,25 @@ public class AccountController {
                 .body(account);
     }
 
+    @GetMapping("/fetch_general_data_batch")
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN')")
+    public ResponseEntity<List<AccountDto>> fetchAccounts(@RequestParam List<String> accountNumbers) {
+        List<AccountDto> accounts = accountService.fetchAccounts(accountNumbers);
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(accounts);
+    }
+
+
+    @PostMapping("/transfer")
+    public ResponseEntity<String> transfer(@RequestHeader(name = INTERNAL_TOKEN_HEADER, required = false) String callerToken,
+                                           @RequestBody AccountTransferDto accountTransferDto) {
+        requireInternalCaller(callerToken);
+        String result = accountService.transfer(accountTransferDto);
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(result);
+    }
 
     @PatchMapping("/block_account")
     @PreAuthorize("hasRole('ADMIN')")
@@ -126,13 +159,33 @@ public class AccountController {
                 .body(accounts);
     }
 
+    @GetMapping("/export_by_status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportAccountsByStatus(@RequestParam AccountStatus status, @RequestParam(defaultValue = "ndjson") String format) {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        StreamingResponseBody body = outputStream -> accountService.exportAccountsByStatus(status, format, outputStream);
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .contentType(csv ? MediaType.parseMediaType("text/csv") : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=accounts-" + status.name().toLowerCase() + (csv ? ".csv" : ".ndjson"))
+                .body(body);
+    }
+
     @GetMapping("/sort_by")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<AccountDto>> getAllAccountsSorted(@RequestParam(defaultValue = "id") String sortBy, @RequestParam(defaultValue = "asc") String sortOrder) {
-        List<AccountDto> accounts = accountService.getAllAccountsSorted(sortBy, sortOrder);
+    public ResponseEntity<AccountPageDto> getAllAccountsSorted(@RequestParam(defaultValue = "id") String sortBy, @RequestParam(defaultValue = "asc") String sortOrder,
+                                                               @RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "50") int size) {
+        AccountPageDto accounts = accountService.getAllAccountsSorted(sortBy, sortOrder, page, size);
         return ResponseEntity
                 .status(HttpStatus.OK)
                 .body(accounts);
     }
 
+    // transfers skip the spending limits and fraud checks of the transactions service, nobody else may call them
+    private void requireInternalCaller(String callerToken) {
+        if (internalToken.isBlank() || callerToken == null
+                || !MessageDigest.isEqual(internalToken.getBytes(StandardCharsets.UTF_8), callerToken.getBytes(StandardCharsets.UTF_8))) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Transfers are only accepted from the transactions service");
+        }
+    }
 }
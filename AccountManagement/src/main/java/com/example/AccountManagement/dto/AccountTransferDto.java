@@ -0,0 +1,68 @@
+package com.example.AccountManagement.dto;
+
+import com.example.AccountManagement.enums.Currency;
+
+import java.math.BigDecimal;
+//transfer request
+public class AccountTransferDto {
+
+    private String transferId;
+    private String fromAccountNumber;
+    private String toAccountNumber;
+    private BigDecimal amount;
+    private Currency currency;
+
+
+    public AccountTransferDto() {
+    }
+
+    public AccountTransferDto(String transferId, String fromAccountNumber, String toAccountNumber,
+                              BigDecimal amount, Currency currency) {
+        this.transferId = transferId;
+        this.fromAccountNumber = fromAccountNumber;
+        this.toAccountNumber = toAccountNumber;
+        this.amount = amount;
+        this.currency = currency;
+    }
+
+
+    public String getTransferId() {
+        return transferId;
+    }
+
+    public void setTransferId(String transferId) {
+        this.transferId = transferId;
+    }
+
+    public String getFromAccountNumber() {
+        return fromAccountNumber;
+    }
+
+    public void setFromAccountNumber(String fromAccountNumber) {
+        this.fromAccountNumber = fromAccountNumber;
+    }
+
+    public String getToAccountNumber() {
+        return toAccountNumber;
+    }
+
+    public void setToAccountNumber(String toAccountNumber) {
+        this.toAccountNumber = toAccountNumber;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(Currency currency) {
+        this.currency = currency;
+    }
+}
@@ -7,7 +7,13 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name="accounts")
+@Table(name="accounts", indexes = {
+        // back the admin listing sorted by balance or customer name, id breaks ties
+        @Index(name = "idx_accounts_balance_id", columnList = "balance, id"),
+        @Index(name = "idx_accounts_customer_name_id", columnList = "customer_name, id"),
+        // status export walks one status in id order
+        @Index(name = "idx_accounts_status_id", columnList = "status, id")
+})
 public class Account {
 
     @Id
@@ -0,0 +1,54 @@
+package com.example.AccountManagement.event;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.client.RestClient;
+
+@Component
+public class AccountCacheInvalidationListener {
+    private static final Logger log = LoggerFactory.getLogger(AccountCacheInvalidationListener.class);
+    private static final String TRANSACTIONS_SERVICE = "transactions";
+    private static final String EVICT_PATH = "/api/transactions/account-cache/{accountNumber}";
+
+    @Autowired
+    private DiscoveryClient discoveryClient;
+
+    @Autowired
+    private RestClient.Builder restClientBuilder;
+
+    private RestClient restClient;
+
+    @PostConstruct
+    void initRestClient() {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(1000);
+        requestFactory.setReadTimeout(2000);
+        restClient = restClientBuilder.requestFactory(requestFactory).build();
+    }
+
+    // runs after commit so the transactions service cannot re-cache the old state;
+    // every replica keeps its own cache, a call through the load balancer would reach only one of them
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAccountChanged(AccountChangedEvent event) {
+        for (ServiceInstance instance : discoveryClient.getInstances(TRANSACTIONS_SERVICE)) {
+            try {
+                restClient.delete()
+                        .uri(instance.getUri() + EVICT_PATH, event.getAccountNumber())
+                        .retrieve()
+                        .toBodilessEntity();
+            } catch (Exception e) {
+                // the cache entry still expires on its own, the account change must not fail because of it
+                log.warn("Failed to evict account {} from the cache of transactions instance {}: {}",
+                        event.getAccountNumber(), instance.getInstanceId(), e.getMessage());
+            }
+        }
+    }
+}
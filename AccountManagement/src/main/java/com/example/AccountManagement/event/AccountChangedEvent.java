@@ -0,0 +1,22 @@
+package com.example.AccountManagement.event;
+
+import com.example.AccountManagement.enums.AccountStatus;
+
+// published when account data that other services cache (status, contact details) changes
+public class AccountChangedEvent {
+    private final String accountNumber;
+    private final AccountStatus status;
+
+    public AccountChangedEvent(String accountNumber, AccountStatus status) {
+        this.accountNumber = accountNumber;
+        this.status = status;
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    public AccountStatus getStatus() {
+        return status;
+    }
+}
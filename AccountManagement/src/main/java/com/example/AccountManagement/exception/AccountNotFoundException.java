@@ -0,0 +1,9 @@
+package com.example.AccountManagement.exception;
+
+// answered with 404
+public class AccountNotFoundException extends RuntimeException {
+
+    public AccountNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.AccountManagement.exception;
+
+// the request does not fit the current state (a transfer id already used, an account that is not blocked), answered with 409
+public class OperationConflictException extends RuntimeException {
+
+    public OperationConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.AccountManagement.exception;
+
+// a valid request the business rules refuse (insufficient funds, blocked account, other currency), answered with 422
+public class OperationRejectedException extends RuntimeException {
+
+    public OperationRejectedException(String message) {
+        super(message);
+    }
+}
@@ -28,7 +28,7 @@ public class AccountMapper {
     }
 
     public static AccountDto toDto(Account account) {
-        return new AccountDto(
+        AccountDto accountDto = new AccountDto(
                 account.getId(),
                 account.getAccountNumber(),
                 account.getCustomerId(),
@@ -43,6 +43,9 @@ public class AccountMapper {
                 account.getCreatedAt(),
                 account.getUpdatedAt()
         );
+        accountDto.setDailyLimit(account.getDailyLimit());
+        accountDto.setMonthlyLimit(account.getMonthlyLimit());
+        return accountDto;
     }
 
     public static AccountBalanceDto toBalanceDto(Account account) {
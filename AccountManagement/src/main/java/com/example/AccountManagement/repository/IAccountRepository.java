@@ -3,22 +3,56 @@ package com.example.AccountManagement.repository;
 
 import com.example.AccountManagement.entity.Account;
 import com.example.AccountManagement.enums.AccountStatus;
+import com.example.AccountManagement.enums.Currency;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface IAccountRepository extends JpaRepository<Account, Long> {
 
     Optional<Account> findByAccountNumber(String accountNumber);
 
+    List<Account> findByAccountNumberIn(Collection<String> accountNumbers);
+
     List<Account> findByCustomerId(Long customerId);
 
     List<Account> findByStatus(AccountStatus status);
 
+    // locks the accounts of a transfer always in id order, so two opposite transfers cannot deadlock
+    @Query(value = "SELECT id FROM accounts WHERE account_number IN (:accountNumbers) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockByAccountNumbers(@Param("accountNumbers") Collection<String> accountNumbers);
+
+    // conditional updates, the balance check and the write happen in one statement
+    @Modifying
+    @Query("UPDATE Account a SET a.balance = a.balance - :amount, a.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE a.accountNumber = :accountNumber AND a.status = com.example.AccountManagement.enums.AccountStatus.ACTIVE " +
+            "AND a.currency = :currency AND a.balance >= :amount")
+    int debit(@Param("accountNumber") String accountNumber, @Param("amount") BigDecimal amount,
+              @Param("currency") Currency currency);
+
+    @Modifying
+    @Query("UPDATE Account a SET a.balance = a.balance + :amount, a.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE a.accountNumber = :accountNumber AND a.status = com.example.AccountManagement.enums.AccountStatus.ACTIVE " +
+            "AND a.currency = :currency")
+    int credit(@Param("accountNumber") String accountNumber, @Param("amount") BigDecimal amount,
+               @Param("currency") Currency currency);
+
+    // read lazily in chunks of fetch size rows, the caller must consume it inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT a FROM Account a WHERE a.status = :status ORDER BY a.id")
+    Stream<Account> streamByStatus(@Param("status") AccountStatus status);
+
 
 }
\ No newline at end of file
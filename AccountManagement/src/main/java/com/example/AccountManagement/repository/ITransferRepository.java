@@ -0,0 +1,13 @@
+package com.example.AccountManagement.repository;
+
+import com.example.AccountManagement.entity.Transfer;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ITransferRepository extends JpaRepository<Transfer, Long> {
+
+    Optional<Transfer> findByTransferId(String transferId);
+}
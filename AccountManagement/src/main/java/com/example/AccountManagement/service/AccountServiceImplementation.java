@@ -4,27 +4,70 @@ package com.example.AccountManagement.service;
 import com.example.AccountManagement.dto.AccountBalanceDto;
 import com.example.AccountManagement.dto.AccountCreateDto;
 import com.example.AccountManagement.dto.AccountDto;
+import com.example.AccountManagement.dto.AccountPageDto;
+import com.example.AccountManagement.dto.AccountTransferDto;
 import com.example.AccountManagement.dto.AccountUpdateDto;
 import com.example.AccountManagement.entity.Account;
+import com.example.AccountManagement.entity.Transfer;
 import com.example.AccountManagement.enums.AccountStatus;
+import com.example.AccountManagement.enums.Currency;
+import com.example.AccountManagement.event.AccountChangedEvent;
+import com.example.AccountManagement.exception.AccountNotFoundException;
+import com.example.AccountManagement.exception.OperationConflictException;
+import com.example.AccountManagement.exception.OperationRejectedException;
 import com.example.AccountManagement.mapper.AccountMapper;
 import com.example.AccountManagement.repository.IAccountRepository;
+import com.example.AccountManagement.repository.ITransferRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.Collections;
-import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class AccountServiceImplementation implements IAccountService {
 
+private static final int MAX_PAGE_SIZE = 200;
+private static final String CSV_HEADER = "id,accountNumber,customerId,customerName,customerEmail,customerPhone," +
+        "accountType,balance,currency,status,isVerified,createdAt,updatedAt\n";
+
 @Autowired
 private IAccountRepository accountRepository;
 
+@Autowired
+private ITransferRepository transferRepository;
+
+@Autowired
+private ApplicationEventPublisher eventPublisher;
+
+@Autowired
+private ObjectMapper objectMapper;
+
+@PersistenceContext
+private EntityManager entityManager;
+
     @Override
     @Transactional
     public AccountDto createAccount(AccountCreateDto accountCreateDto){
@@ -38,19 +81,35 @@ private IAccountRepository accountRepository;
     @Override
     public AccountDto fetchAccount(String accountNumber) {
         Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new RuntimeException("Account not found: " + accountNumber));
+                .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountNumber));
         return AccountMapper.toDto(account);
     }
 
+    @Override
+    public List<AccountDto> fetchAccounts(List<String> accountNumbers) {
+        Set<String> requested = new LinkedHashSet<>(accountNumbers);
+        List<Account> accounts = accountRepository.findByAccountNumberIn(requested);
+
+        if (accounts.size() != requested.size()) {
+            accounts.forEach(account -> requested.remove(account.getAccountNumber()));
+            throw new AccountNotFoundException("Account not found: " + String.join(", ", requested));
+        }
+
+        return accounts.stream()
+                .map(AccountMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
     @Override
     @Transactional
     public AccountDto updateAccount(AccountUpdateDto accountUpdateDto) {
         Account account = accountRepository.findByAccountNumber(accountUpdateDto.getAccountNumber())
-                .orElseThrow(() -> new RuntimeException("Account not found: " + accountUpdateDto.getAccountNumber()));
+                .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountUpdateDto.getAccountNumber()));
 
         AccountMapper.updateEntityFromDto(account, accountUpdateDto);
 
         Account updatedAccount = accountRepository.save(account);
+        eventPublisher.publishEvent(new AccountChangedEvent(updatedAccount.getAccountNumber(), updatedAccount.getStatus()));
 
         return AccountMapper.toDto(updatedAccount);
     }
@@ -59,10 +118,11 @@ private IAccountRepository accountRepository;
     @Transactional
     public boolean closeAccount(String accountNumber) {
         Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new RuntimeException("Account not found: " + accountNumber));
+                .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountNumber));
 
         account.setStatus(AccountStatus.CLOSED);
         accountRepository.save(account);
+        eventPublisher.publishEvent(new AccountChangedEvent(accountNumber, AccountStatus.CLOSED));
 
         return true;
     }
@@ -70,22 +130,91 @@ private IAccountRepository accountRepository;
     @Override
     public AccountBalanceDto checkBalance(String accountNumber) {
         Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new RuntimeException("Account not found: " + accountNumber));
+                .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountNumber));
 
 
         return AccountMapper.toBalanceDto(account);
     }
 
+    @Override
+    @Transactional
+    public String transfer(AccountTransferDto accountTransferDto) {
+        String transferId = accountTransferDto.getTransferId();
+        String from = accountTransferDto.getFromAccountNumber();
+        String to = accountTransferDto.getToAccountNumber();
+        BigDecimal amount = accountTransferDto.getAmount();
+
+        if (transferId == null || transferId.isBlank()) {
+            throw new OperationRejectedException("Transfer needs a transferId");
+        }
+        if (from == null || to == null || from.equals(to)) {
+            throw new OperationRejectedException("Transfer needs two different accounts");
+        }
+        if (amount == null || amount.signum() <= 0) {
+            throw new OperationRejectedException("Transfer amount must be positive");
+        }
+
+        List<Long> locked = accountRepository.lockByAccountNumbers(List.of(from, to));
+        if (locked.size() != 2) {
+            throw new AccountNotFoundException("Account not found: " + from + " or " + to);
+        }
+
+        // checked under the account locks: a concurrent retry waits for the first one and then sees its row
+        Optional<Transfer> previous = transferRepository.findByTransferId(transferId);
+        if (previous.isPresent()) {
+            if (!isSameTransfer(previous.get(), accountTransferDto)) {
+                throw new OperationConflictException("Transfer " + transferId + " was already used for a different transfer");
+            }
+            return completedMessage(previous.get());
+        }
+
+        if (accountRepository.debit(from, amount, accountTransferDto.getCurrency()) == 0) {
+            throw new OperationRejectedException("Transfer rejected for account " + from + ": " + rejectionReason(from, accountTransferDto.getCurrency()));
+        }
+        if (accountRepository.credit(to, amount, accountTransferDto.getCurrency()) == 0) {
+            throw new OperationRejectedException("Transfer rejected for account " + to + ": " + rejectionReason(to, accountTransferDto.getCurrency()));
+        }
+
+        Transfer transfer = transferRepository.save(new Transfer(transferId, from, to, amount, accountTransferDto.getCurrency()));
+        return completedMessage(transfer);
+    }
+
+    private static boolean isSameTransfer(Transfer transfer, AccountTransferDto accountTransferDto) {
+        return transfer.getFromAccountNumber().equals(accountTransferDto.getFromAccountNumber())
+                && transfer.getToAccountNumber().equals(accountTransferDto.getToAccountNumber())
+                && transfer.getAmount().compareTo(accountTransferDto.getAmount()) == 0
+                && transfer.getCurrency() == accountTransferDto.getCurrency();
+    }
+
+    private static String completedMessage(Transfer transfer) {
+        return "Transfer " + transfer.getTransferId() + " completed: " + transfer.getAmount() + " " + transfer.getCurrency()
+                + " from " + transfer.getFromAccountNumber() + " to " + transfer.getToAccountNumber();
+    }
+
+    // the row is already locked, so reading it here only explains why the conditional update did not match
+    private String rejectionReason(String accountNumber, Currency currency) {
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountNumber));
+        if (account.getStatus() != AccountStatus.ACTIVE) {
+            return "account is " + account.getStatus();
+        }
+        if (account.getCurrency() != currency) {
+            return "account currency is " + account.getCurrency();
+        }
+        return "insufficient funds";
+    }
+
     @Override
     @Transactional
     public String blockAccount(String accountNumber, String reason) {
         Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new RuntimeException("Account not found: " + accountNumber));
+                .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountNumber));
 
         account.setStatus(AccountStatus.BLOCKED);
         account.setBlockedAt(LocalDateTime.now());
         account.setBlockedReason(reason);
         accountRepository.save(account);
+        eventPublisher.publishEvent(new AccountChangedEvent(accountNumber, AccountStatus.BLOCKED));
 
         return "Account blocked successfully. Reason: " + reason;
     }
@@ -94,10 +223,10 @@ private IAccountRepository accountRepository;
     @Transactional
     public String unblockAccount(String accountNumber) {
         Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new RuntimeException("Account not found: " + accountNumber));
+                .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountNumber));
 
         if (account.getStatus() != AccountStatus.BLOCKED) {
-            throw new RuntimeException("Account is not blocked");
+            throw new OperationConflictException("Account is not blocked");
         }
 
         account.setStatus(AccountStatus.ACTIVE);
@@ -112,7 +241,7 @@ private IAccountRepository accountRepository;
     @Transactional
     public String verifyAccount(String accountNumber) {
         Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new RuntimeException("Account not found: " + accountNumber));
+                .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountNumber));
 
         account.setIsVerified(true);
         account.setStatus(AccountStatus.ACTIVE);
@@ -126,7 +255,7 @@ private IAccountRepository accountRepository;
     @Override
     public String generateAccountHistory(String accountNumber) {
         Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new RuntimeException("Account not found: " + accountNumber));
+                .orElseThrow(() -> new AccountNotFoundException("Account not found: " + accountNumber));
 
 
 
@@ -156,31 +285,81 @@ private IAccountRepository accountRepository;
                 .collect(Collectors.toList());
     }
 
-
     @Override
-    public List<AccountDto> getAllAccountsSorted(String sortBy, String sortOrder) {
-        List<Account> accounts = accountRepository.findAll();
-
-
-        switch (sortBy.toLowerCase()) {
-            case "balance":
-                accounts.sort(Comparator.comparing(Account::getBalance));
-                break;
-            case "customername":
-                accounts.sort(Comparator.comparing(Account::getCustomerName));
-                break;
-            default:
-                accounts.sort(Comparator.comparing(Account::getId));
+    @Transactional
+    public void exportAccountsByStatus(AccountStatus status, String format, OutputStream outputStream) {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+
+        try (Stream<Account> accounts = accountRepository.streamByStatus(status)) {
+            if (csv) {
+                writer.write(CSV_HEADER);
+            }
+            Iterator<Account> iterator = accounts.iterator();
+            while (iterator.hasNext()) {
+                Account account = iterator.next();
+                AccountDto accountDto = AccountMapper.toDto(account);
+                writer.write(csv ? toCsvLine(accountDto) : objectMapper.writeValueAsString(accountDto) + "\n");
+                // detach rows already written so memory stays flat for large exports
+                entityManager.detach(account);
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new RuntimeException("Account export failed: " + e.getMessage());
         }
+    }
 
+    private static String toCsvLine(AccountDto account) {
+        return String.join(",",
+                csvValue(account.getId()),
+                csvValue(account.getAccountNumber()),
+                csvValue(account.getCustomerId()),
+                csvValue(account.getCustomerName()),
+                csvValue(account.getCustomerEmail()),
+                csvValue(account.getCustomerPhone()),
+                csvValue(account.getAccountType()),
+                csvValue(account.getBalance()),
+                csvValue(account.getCurrency()),
+                csvValue(account.getStatus()),
+                csvValue(account.getIsVerified()),
+                csvValue(account.getCreatedAt()),
+                csvValue(account.getUpdatedAt())) + "\n";
+    }
 
-        if ("desc".equalsIgnoreCase(sortOrder)) {
-            Collections.reverse(accounts);
+    private static String csvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
         }
+        return text;
+    }
 
-        return accounts.stream()
-                .map(AccountMapper::toDto)
-                .collect(Collectors.toList());
+    @Override
+    public AccountPageDto getAllAccountsSorted(String sortBy, String sortOrder, int page, int size) {
+        String property = switch (sortBy.toLowerCase()) {
+            case "balance" -> "balance";
+            case "customername" -> "customerName";
+            default -> "id";
+        };
+        Sort.Direction direction = "desc".equalsIgnoreCase(sortOrder) ? Sort.Direction.DESC : Sort.Direction.ASC;
+
+        // sorting and paging run in Postgres, id keeps the order stable between pages
+        Sort sort = Sort.by(direction, property);
+        if (!"id".equals(property)) {
+            sort = sort.and(Sort.by(direction, "id"));
+        }
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, MAX_PAGE_SIZE)), sort);
+
+        Page<Account> accounts = accountRepository.findAll(pageable);
+        return new AccountPageDto(
+                accounts.getContent().stream().map(AccountMapper::toDto).collect(Collectors.toList()),
+                accounts.getNumber(),
+                accounts.getSize(),
+                accounts.getTotalElements(),
+                accounts.getTotalPages());
     }
 
 
@@ -3,9 +3,12 @@ package com.example.AccountManagement.service;
 import com.example.AccountManagement.dto.AccountBalanceDto;
 import com.example.AccountManagement.dto.AccountCreateDto;
 import com.example.AccountManagement.dto.AccountDto;
+import com.example.AccountManagement.dto.AccountPageDto;
+import com.example.AccountManagement.dto.AccountTransferDto;
 import com.example.AccountManagement.dto.AccountUpdateDto;
 import com.example.AccountManagement.enums.AccountStatus;
 
+import java.io.OutputStream;
 import java.util.List;
 
 public interface IAccountService {
@@ -21,6 +24,10 @@ public interface IAccountService {
 
     AccountDto fetchAccount(String accountNumber);
 
+    List<AccountDto> fetchAccounts(List<String> accountNumbers);
+
+    String transfer(AccountTransferDto accountTransferDto);
+
     String blockAccount(String accountNumber, String reason);
 
     String unblockAccount(String accountNumber);
@@ -31,7 +38,9 @@ public interface IAccountService {
 
     List<AccountDto> getAccountsByStatus(AccountStatus status);
 
-    List<AccountDto> getAllAccountsSorted(String sortBy, String sortOrder);
+    void exportAccountsByStatus(AccountStatus status, String format, OutputStream outputStream);
+
+    AccountPageDto getAllAccountsSorted(String sortBy, String sortOrder, int page, int size);
 
 
 }
@@ -0,0 +1,99 @@
+package com.example.AccountManagement.benchmark;
+
+import com.example.AccountManagement.AccountManagementApplication;
+import com.example.AccountManagement.dto.AccountTransferDto;
+import com.example.AccountManagement.entity.Account;
+import com.example.AccountManagement.enums.AccountStatus;
+import com.example.AccountManagement.enums.AccountType;
+import com.example.AccountManagement.enums.Currency;
+import com.example.AccountManagement.repository.IAccountRepository;
+import com.example.AccountManagement.service.IAccountService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Throughput of concurrent transfers between a few hot accounts, against the real service and a real Postgres.
+// Not a unit test, run it by hand with the usual SPRING_DATASOURCE_* variables set:
+//   mvn test-compile exec:java -Dexec.classpathScope=test \
+//       -Dexec.mainClass=com.example.AccountManagement.benchmark.TransferThroughputBenchmark \
+//       -Dexec.args="<threads> <hotAccounts> <seconds>"
+// It prints transfers per second, rejected transfers and checks that money was neither created nor lost.
+public class TransferThroughputBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int hotAccounts = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(AccountManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("eureka.client.enabled=false", "spring.jpa.show-sql=false",
+                        "spring.datasource.hikari.maximum-pool-size=" + (threads + 2))
+                .run();
+
+        IAccountRepository accountRepository = context.getBean(IAccountRepository.class);
+        IAccountService accountService = context.getBean(IAccountService.class);
+
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < hotAccounts; i++) {
+            Account account = new Account("BENCH" + UUID.randomUUID().toString().substring(0, 20), 0L, "Benchmark " + i,
+                    "bench" + i + "@example.com", null, AccountType.CHECKING, Currency.RON,
+                    new BigDecimal("1000000.00"), null, null);
+            account.setStatus(AccountStatus.ACTIVE);
+            accounts.add(accountRepository.save(account));
+        }
+        BigDecimal totalBefore = total(accountRepository, accounts);
+
+        AtomicLong completed = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            pool.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    int from = random.nextInt(hotAccounts);
+                    int to = (from + 1 + random.nextInt(hotAccounts - 1)) % hotAccounts;
+                    AccountTransferDto transfer = new AccountTransferDto(UUID.randomUUID().toString(),
+                            accounts.get(from).getAccountNumber(), accounts.get(to).getAccountNumber(),
+                            BigDecimal.valueOf(random.nextInt(1, 100)), Currency.RON);
+                    try {
+                        accountService.transfer(transfer);
+                        completed.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+
+        BigDecimal totalAfter = total(accountRepository, accounts);
+        System.out.printf("threads=%d hotAccounts=%d seconds=%d%n", threads, hotAccounts, seconds);
+        System.out.printf("completed=%d rejected=%d throughput=%.1f transfers/s%n",
+                completed.get(), rejected.get(), completed.get() / (double) seconds);
+        System.out.printf("balance conserved: %s (%s -> %s)%n",
+                totalBefore.compareTo(totalAfter) == 0, totalBefore, totalAfter);
+
+        accountRepository.deleteAll(accounts);
+        context.close();
+    }
+
+    private static BigDecimal total(IAccountRepository accountRepository, List<Account> accounts) {
+        return accountRepository.findAllById(accounts.stream().map(Account::getId).toList()).stream()
+                .map(Account::getBalance)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
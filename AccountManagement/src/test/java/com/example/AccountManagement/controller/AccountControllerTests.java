@@ -0,0 +1,157 @@
+package com.example.AccountManagement.controller;
+
+import com.example.AccountManagement.dto.AccountTransferDto;
+import com.example.AccountManagement.enums.AccountStatus;
+import com.example.AccountManagement.exception.AccountNotFoundException;
+import com.example.AccountManagement.exception.ApiExceptionHandler;
+import com.example.AccountManagement.exception.OperationConflictException;
+import com.example.AccountManagement.exception.OperationRejectedException;
+import com.example.AccountManagement.service.IAccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class AccountControllerTests {
+
+    private static final String TRANSFER_BODY = "{\"transferId\":\"TRX123\",\"fromAccountNumber\":\"RO01\"," +
+            "\"toAccountNumber\":\"RO02\",\"amount\":100.00,\"currency\":\"RON\"}";
+
+    @Mock
+    private IAccountService accountService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        AccountController controller = new AccountController();
+        ReflectionTestUtils.setField(controller, "accountService", accountService);
+        ReflectionTestUtils.setField(controller, "internalToken", "internal-secret");
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new ApiExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void exportAccountsByStatus_CsvIsStreamedAsAnAttachment() throws Exception {
+        writesExport("csv", "id,accountNumber\n1,RO01\n");
+
+        MvcResult result = mockMvc.perform(get("/api/accounts/export_by_status").param("status", "ACTIVE").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=accounts-active.csv"))
+                .andExpect(content().string("id,accountNumber\n1,RO01\n"));
+    }
+
+    @Test
+    void exportAccountsByStatus_NdjsonIsTheDefault() throws Exception {
+        writesExport("ndjson", "");
+
+        MvcResult result = mockMvc.perform(get("/api/accounts/export_by_status").param("status", "ACTIVE"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=accounts-active.ndjson"))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void transfer_InsufficientFundsIsUnprocessableNotAServerError() throws Exception {
+        when(accountService.transfer(any(AccountTransferDto.class)))
+                .thenThrow(new OperationRejectedException("Transfer rejected for account RO01: insufficient funds"));
+
+        mockMvc.perform(post("/api/accounts/transfer").header(AccountController.INTERNAL_TOKEN_HEADER, "internal-secret").contentType(MediaType.APPLICATION_JSON).content(TRANSFER_BODY))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(content().string("Transfer rejected for account RO01: insufficient funds"));
+    }
+
+    @Test
+    void transfer_ReusedTransferIdIsAConflict() throws Exception {
+        when(accountService.transfer(any(AccountTransferDto.class)))
+                .thenThrow(new OperationConflictException("Transfer TRX123 was already used for a different transfer"));
+
+        mockMvc.perform(post("/api/accounts/transfer").header(AccountController.INTERNAL_TOKEN_HEADER, "internal-secret").contentType(MediaType.APPLICATION_JSON).content(TRANSFER_BODY))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void transfer_WithoutTheInternalTokenIsForbidden() throws Exception {
+        mockMvc.perform(post("/api/accounts/transfer").contentType(MediaType.APPLICATION_JSON).content(TRANSFER_BODY))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/accounts/transfer").header(AccountController.INTERNAL_TOKEN_HEADER, "guessed")
+                        .contentType(MediaType.APPLICATION_JSON).content(TRANSFER_BODY))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(accountService);
+    }
+
+    @Test
+    void transfer_NoTokenConfiguredRejectsEveryCaller() throws Exception {
+        AccountController controller = new AccountController();
+        ReflectionTestUtils.setField(controller, "accountService", accountService);
+        ReflectionTestUtils.setField(controller, "internalToken", "");
+        MockMvc unconfigured = MockMvcBuilders.standaloneSetup(controller).build();
+
+        unconfigured.perform(post("/api/accounts/transfer").header(AccountController.INTERNAL_TOKEN_HEADER, "")
+                        .contentType(MediaType.APPLICATION_JSON).content(TRANSFER_BODY))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(accountService);
+    }
+
+    @Test
+    void fetchAccount_UnknownAccountIsNotFound() throws Exception {
+        when(accountService.fetchAccount("RO99")).thenThrow(new AccountNotFoundException("Account not found: RO99"));
+
+        mockMvc.perform(get("/api/accounts/fetch_general_data").param("accountNumber", "RO99"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string("Account not found: RO99"));
+    }
+
+    @Test
+    void unblockAccount_AccountNotBlockedIsAConflict() throws Exception {
+        when(accountService.unblockAccount("RO01")).thenThrow(new OperationConflictException("Account is not blocked"));
+
+        mockMvc.perform(patch("/api/accounts/unblock_account").param("accountNumber", "RO01"))
+                .andExpect(status().isConflict());
+    }
+
+    private void writesExport(String format, String content) {
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(2);
+            outputStream.write(content.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(accountService).exportAccountsByStatus(eq(AccountStatus.ACTIVE), eq(format), any(OutputStream.class));
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.AccountManagement.event;
+
+import com.example.AccountManagement.enums.AccountStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+@ExtendWith(MockitoExtension.class)
+class AccountCacheInvalidationListenerTests {
+
+    private final ServiceInstance first = new DefaultServiceInstance("transactions-1", "transactions", "10.0.0.1", 8080, false);
+    private final ServiceInstance second = new DefaultServiceInstance("transactions-2", "transactions", "10.0.0.2", 8080, false);
+
+    @Mock
+    private DiscoveryClient discoveryClient;
+
+    @InjectMocks
+    private AccountCacheInvalidationListener listener;
+
+    private MockRestServiceServer server;
+
+    @BeforeEach
+    void setUp() {
+        RestClient.Builder builder = RestClient.builder();
+        server = MockRestServiceServer.bindTo(builder).build();
+        ReflectionTestUtils.setField(listener, "restClient", builder.build());
+    }
+
+    @Test
+    void onAccountChanged_EvictsTheAccountOnEveryTransactionsInstance() {
+        when(discoveryClient.getInstances("transactions")).thenReturn(List.of(first, second));
+        server.expect(requestTo("http://10.0.0.1:8080/api/transactions/account-cache/RO01"))
+                .andExpect(method(HttpMethod.DELETE))
+                .andRespond(withSuccess());
+        server.expect(requestTo("http://10.0.0.2:8080/api/transactions/account-cache/RO01"))
+                .andExpect(method(HttpMethod.DELETE))
+                .andRespond(withSuccess());
+
+        listener.onAccountChanged(new AccountChangedEvent("RO01", AccountStatus.BLOCKED));
+
+        server.verify();
+    }
+
+    @Test
+    void onAccountChanged_AFailingInstanceDoesNotStopTheOthers() {
+        when(discoveryClient.getInstances("transactions")).thenReturn(List.of(first, second));
+        server.expect(requestTo("http://10.0.0.1:8080/api/transactions/account-cache/RO01"))
+                .andRespond(withServerError());
+        server.expect(requestTo("http://10.0.0.2:8080/api/transactions/account-cache/RO01"))
+                .andRespond(withSuccess());
+
+        listener.onAccountChanged(new AccountChangedEvent("RO01", AccountStatus.CLOSED));
+
+        server.verify();
+    }
+}
@@ -0,0 +1,300 @@
+package com.example.AccountManagement.service;
+
+import com.example.AccountManagement.dto.AccountPageDto;
+import com.example.AccountManagement.dto.AccountTransferDto;
+import com.example.AccountManagement.entity.Account;
+import com.example.AccountManagement.entity.Transfer;
+import com.example.AccountManagement.enums.AccountStatus;
+import com.example.AccountManagement.enums.Currency;
+import com.example.AccountManagement.exception.AccountNotFoundException;
+import com.example.AccountManagement.exception.OperationConflictException;
+import com.example.AccountManagement.exception.OperationRejectedException;
+import com.example.AccountManagement.repository.IAccountRepository;
+import com.example.AccountManagement.repository.ITransferRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountServiceImplementationTests {
+
+    @Mock
+    private IAccountRepository accountRepository;
+
+    @Mock
+    private ITransferRepository transferRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @InjectMocks
+    private AccountServiceImplementation accountService;
+
+    private final AccountTransferDto transfer = new AccountTransferDto("TRX123", "RO01", "RO02",
+            new BigDecimal("100.00"), Currency.RON);
+
+    @Test
+    void transfer_MovesMoneyAndRecordsTheTransferId() {
+        when(accountRepository.lockByAccountNumbers(List.of("RO01", "RO02"))).thenReturn(List.of(1L, 2L));
+        when(transferRepository.findByTransferId("TRX123")).thenReturn(Optional.empty());
+        when(accountRepository.debit("RO01", new BigDecimal("100.00"), Currency.RON)).thenReturn(1);
+        when(accountRepository.credit("RO02", new BigDecimal("100.00"), Currency.RON)).thenReturn(1);
+        when(transferRepository.save(any(Transfer.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        String result = accountService.transfer(transfer);
+
+        assertTrue(result.startsWith("Transfer TRX123 completed"));
+        ArgumentCaptor<Transfer> saved = ArgumentCaptor.forClass(Transfer.class);
+        verify(transferRepository).save(saved.capture());
+        assertEquals("TRX123", saved.getValue().getTransferId());
+        assertEquals("RO01", saved.getValue().getFromAccountNumber());
+    }
+
+    @Test
+    void transfer_RepeatedTransferIdReturnsTheFirstResultWithoutMovingMoney() {
+        when(accountRepository.lockByAccountNumbers(List.of("RO01", "RO02"))).thenReturn(List.of(1L, 2L));
+        when(transferRepository.findByTransferId("TRX123"))
+                .thenReturn(Optional.of(new Transfer("TRX123", "RO01", "RO02", new BigDecimal("100.0"), Currency.RON)));
+
+        String result = accountService.transfer(transfer);
+
+        assertTrue(result.startsWith("Transfer TRX123 completed"));
+        verify(accountRepository, never()).debit(any(), any(), any());
+        verify(accountRepository, never()).credit(any(), any(), any());
+        verify(transferRepository, never()).save(any());
+    }
+
+    @Test
+    void transfer_TransferIdReusedForOtherDetailsIsRejected() {
+        when(accountRepository.lockByAccountNumbers(List.of("RO01", "RO02"))).thenReturn(List.of(1L, 2L));
+        when(transferRepository.findByTransferId("TRX123"))
+                .thenReturn(Optional.of(new Transfer("TRX123", "RO01", "RO02", new BigDecimal("250.00"), Currency.RON)));
+
+        OperationConflictException exception = assertThrows(OperationConflictException.class, () -> accountService.transfer(transfer));
+
+        assertTrue(exception.getMessage().contains("already used"));
+        verify(accountRepository, never()).debit(any(), any(), any());
+    }
+
+    @Test
+    void transfer_MissingTransferIdIsRejected() {
+        transfer.setTransferId(null);
+
+        assertThrows(OperationRejectedException.class, () -> accountService.transfer(transfer));
+
+        verifyNoInteractions(accountRepository, transferRepository);
+    }
+
+    @Test
+    void transfer_SameAccountOrNonPositiveAmountIsRejected() {
+        AccountTransferDto toItself = new AccountTransferDto("TRX1", "RO01", "RO01", new BigDecimal("10.00"), Currency.RON);
+        AccountTransferDto zero = new AccountTransferDto("TRX2", "RO01", "RO02", BigDecimal.ZERO, Currency.RON);
+
+        assertThrows(OperationRejectedException.class, () -> accountService.transfer(toItself));
+        assertThrows(OperationRejectedException.class, () -> accountService.transfer(zero));
+
+        verifyNoInteractions(accountRepository, transferRepository);
+    }
+
+    @Test
+    void transfer_UnknownAccountIsNotFound() {
+        when(accountRepository.lockByAccountNumbers(List.of("RO01", "RO02"))).thenReturn(List.of(1L));
+
+        assertThrows(AccountNotFoundException.class, () -> accountService.transfer(transfer));
+
+        verify(accountRepository, never()).debit(any(), any(), any());
+    }
+
+    @Test
+    void transfer_InsufficientFundsIsRejected() {
+        when(accountRepository.lockByAccountNumbers(List.of("RO01", "RO02"))).thenReturn(List.of(1L, 2L));
+        when(transferRepository.findByTransferId("TRX123")).thenReturn(Optional.empty());
+        when(accountRepository.debit("RO01", new BigDecimal("100.00"), Currency.RON)).thenReturn(0);
+        when(accountRepository.findByAccountNumber("RO01")).thenReturn(Optional.of(account(AccountStatus.ACTIVE, Currency.RON)));
+
+        OperationRejectedException exception = assertThrows(OperationRejectedException.class, () -> accountService.transfer(transfer));
+
+        assertTrue(exception.getMessage().endsWith("insufficient funds"));
+        verify(accountRepository, never()).credit(any(), any(), any());
+        verify(transferRepository, never()).save(any());
+    }
+
+    @Test
+    void transfer_BlockedSourceIsRejected() {
+        when(accountRepository.lockByAccountNumbers(List.of("RO01", "RO02"))).thenReturn(List.of(1L, 2L));
+        when(transferRepository.findByTransferId("TRX123")).thenReturn(Optional.empty());
+        when(accountRepository.debit("RO01", new BigDecimal("100.00"), Currency.RON)).thenReturn(0);
+        when(accountRepository.findByAccountNumber("RO01")).thenReturn(Optional.of(account(AccountStatus.BLOCKED, Currency.RON)));
+
+        OperationRejectedException exception = assertThrows(OperationRejectedException.class, () -> accountService.transfer(transfer));
+
+        assertTrue(exception.getMessage().endsWith("account is BLOCKED"));
+    }
+
+    @Test
+    void transfer_DestinationInOtherCurrencyIsRejected() {
+        when(accountRepository.lockByAccountNumbers(List.of("RO01", "RO02"))).thenReturn(List.of(1L, 2L));
+        when(transferRepository.findByTransferId("TRX123")).thenReturn(Optional.empty());
+        when(accountRepository.debit("RO01", new BigDecimal("100.00"), Currency.RON)).thenReturn(1);
+        when(accountRepository.credit("RO02", new BigDecimal("100.00"), Currency.RON)).thenReturn(0);
+        when(accountRepository.findByAccountNumber("RO02")).thenReturn(Optional.of(account(AccountStatus.ACTIVE, Currency.EUR)));
+
+        OperationRejectedException exception = assertThrows(OperationRejectedException.class, () -> accountService.transfer(transfer));
+
+        assertTrue(exception.getMessage().contains("RO02"));
+        assertTrue(exception.getMessage().endsWith("account currency is EUR"));
+        verify(transferRepository, never()).save(any());
+    }
+
+    @Test
+    void exportAccountsByStatus_EmptyCsvHasOnlyTheHeader() {
+        when(accountRepository.streamByStatus(AccountStatus.CLOSED)).thenReturn(Stream.empty());
+
+        String[] lines = export(AccountStatus.CLOSED, "csv");
+
+        assertEquals(1, lines.length);
+        assertTrue(lines[0].startsWith("id,accountNumber,"));
+    }
+
+    @Test
+    void exportAccountsByStatus_EmptyNdjsonIsEmpty() {
+        when(accountRepository.streamByStatus(AccountStatus.CLOSED)).thenReturn(Stream.empty());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        accountService.exportAccountsByStatus(AccountStatus.CLOSED, "ndjson", out);
+
+        assertEquals(0, out.size());
+        verifyNoInteractions(entityManager);
+    }
+
+    @Test
+    void exportAccountsByStatus_LargeCsvWritesEveryRowAndDetachesIt() {
+        when(accountRepository.streamByStatus(AccountStatus.ACTIVE)).thenReturn(exportedAccounts(10_000));
+
+        String[] lines = export(AccountStatus.ACTIVE, "CSV");
+
+        assertEquals(10_001, lines.length);
+        assertTrue(lines[1].startsWith("1,RO0000001,"));
+        assertTrue(lines[10_000].startsWith("10000,RO0010000,"));
+        // a name with a comma is quoted, the column count stays the same
+        assertTrue(lines[1].contains("\"Popescu, Ion\""));
+        verify(entityManager, times(10_000)).detach(any(Account.class));
+    }
+
+    @Test
+    void exportAccountsByStatus_LargeNdjsonWritesOneObjectPerLine() throws Exception {
+        when(accountRepository.streamByStatus(AccountStatus.ACTIVE)).thenReturn(exportedAccounts(10_000));
+
+        String[] lines = export(AccountStatus.ACTIVE, "ndjson");
+
+        assertEquals(10_000, lines.length);
+        JsonNode last = objectMapper.readTree(lines[9_999]);
+        assertEquals("RO0010000", last.get("accountNumber").asText());
+        assertEquals("Popescu, Ion", last.get("customerName").asText());
+        verify(entityManager, times(10_000)).detach(any(Account.class));
+    }
+
+    @Test
+    void getAllAccountsSorted_UnknownPropertyFallsBackToId() {
+        Pageable pageable = sortedPage("password; DROP TABLE accounts", "asc", 0, 50);
+
+        assertEquals(Sort.by(Sort.Direction.ASC, "id"), pageable.getSort());
+    }
+
+    @Test
+    void getAllAccountsSorted_WhitelistedPropertyIsCaseInsensitiveAndBreaksTiesOnId() {
+        Pageable byName = sortedPage("CustomerName", "DESC", 0, 50);
+        Pageable byBalance = sortedPage("balance", "sideways", 0, 50);
+
+        assertEquals(Sort.by(Sort.Direction.DESC, "customerName").and(Sort.by(Sort.Direction.DESC, "id")), byName.getSort());
+        assertEquals(Sort.by(Sort.Direction.ASC, "balance").and(Sort.by(Sort.Direction.ASC, "id")), byBalance.getSort());
+    }
+
+    @Test
+    void getAllAccountsSorted_PageAndSizeAreClamped() {
+        Pageable tooLarge = sortedPage("id", "asc", -3, 1000);
+        Pageable empty = sortedPage("id", "asc", 2, 0);
+
+        assertEquals(0, tooLarge.getPageNumber());
+        assertEquals(200, tooLarge.getPageSize());
+        assertEquals(2, empty.getPageNumber());
+        assertEquals(1, empty.getPageSize());
+    }
+
+    @Test
+    void getAllAccountsSorted_ReturnsThePageAndItsPosition() {
+        when(accountRepository.findAll(any(Pageable.class))).thenAnswer(invocation -> new PageImpl<>(
+                List.of(account(AccountStatus.ACTIVE, Currency.RON), account(AccountStatus.BLOCKED, Currency.EUR)),
+                invocation.getArgument(0), 450));
+
+        AccountPageDto result = accountService.getAllAccountsSorted("balance", "desc", 1, 100);
+
+        assertEquals(2, result.getContent().size());
+        assertEquals(AccountStatus.BLOCKED, result.getContent().get(1).getStatus());
+        assertEquals(1, result.getPage());
+        assertEquals(100, result.getSize());
+        assertEquals(450, result.getTotalElements());
+        assertEquals(5, result.getTotalPages());
+    }
+
+    // the pageable handed to the repository, which runs the sort and the paging in Postgres
+    private Pageable sortedPage(String sortBy, String sortOrder, int page, int size) {
+        when(accountRepository.findAll(any(Pageable.class)))
+                .thenAnswer(invocation -> new PageImpl<Account>(List.of(), invocation.getArgument(0), 0));
+        accountService.getAllAccountsSorted(sortBy, sortOrder, page, size);
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(accountRepository, atLeastOnce()).findAll(pageable.capture());
+        return pageable.getValue();
+    }
+
+    private String[] export(AccountStatus status, String format) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        accountService.exportAccountsByStatus(status, format, out);
+        return out.toString(StandardCharsets.UTF_8).split("\n");
+    }
+
+    private static Stream<Account> exportedAccounts(int count) {
+        return IntStream.rangeClosed(1, count).mapToObj(i -> {
+            Account account = account(AccountStatus.ACTIVE, Currency.RON);
+            account.setId((long) i);
+            account.setAccountNumber(String.format("RO%07d", i));
+            account.setCustomerName("Popescu, Ion");
+            account.setBalance(new BigDecimal("100.00"));
+            account.setCreatedAt(LocalDateTime.of(2024, 6, 1, 9, 0));
+            return account;
+        });
+    }
+
+    private static Account account(AccountStatus status, Currency currency) {
+        Account account = new Account();
+        account.setStatus(status);
+        account.setCurrency(currency);
+        return account;
+    }
+}
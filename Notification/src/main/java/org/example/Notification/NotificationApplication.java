@@ -1,9 +1,14 @@
 package org.example.Notification;
 
 import org.springframework.boot.SpringApplication;
+import org.example.Notification.config.NotificationQueueProperties;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@EnableConfigurationProperties(NotificationQueueProperties.class)
 public class NotificationApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,61 @@
+package org.example.Notification.config;
+
+import org.example.Notification.enums.NotificationPriority;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "notification.queue")
+public class NotificationQueueProperties {
+
+    private int workers = 8;
+
+    private int capacity = 10000;
+
+    // max notifications of one priority being sent at the same time
+    private Map<NotificationPriority, Integer> concurrency = new EnumMap<>(Map.of(
+            NotificationPriority.URGENT, 8,
+            NotificationPriority.HIGH, 6,
+            NotificationPriority.MEDIUM, 4,
+            NotificationPriority.LOW, 2));
+
+    // how long a notification may wait before it is served ahead of newer, higher priority ones
+    private Map<NotificationPriority, Long> maxWaitMs = new EnumMap<>(Map.of(
+            NotificationPriority.URGENT, 0L,
+            NotificationPriority.HIGH, 500L,
+            NotificationPriority.MEDIUM, 2000L,
+            NotificationPriority.LOW, 10000L));
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public Map<NotificationPriority, Integer> getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(Map<NotificationPriority, Integer> concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    public Map<NotificationPriority, Long> getMaxWaitMs() {
+        return maxWaitMs;
+    }
+
+    public void setMaxWaitMs(Map<NotificationPriority, Long> maxWaitMs) {
+        this.maxWaitMs = maxWaitMs;
+    }
+}
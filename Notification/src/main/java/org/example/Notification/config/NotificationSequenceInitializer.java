@@ -0,0 +1,24 @@
+package org.example.Notification.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// notifications.id used to be an IDENTITY column, so on databases created before the switch
+// to notifications_seq the sequence must first be moved past the ids that already exist
+@Component
+public class NotificationSequenceInitializer implements ApplicationRunner {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        jdbcTemplate.execute(
+                "SELECT setval('notifications_seq', max_id) " +
+                "FROM (SELECT COALESCE(MAX(id), 0) AS max_id FROM notifications) existing " +
+                "WHERE existing.max_id > (SELECT last_value FROM notifications_seq)");
+    }
+}
@@ -3,8 +3,10 @@ package org.example.Notification.controller;
 import org.example.Notification.dto.request.NotificationCreateDto;
 import org.example.Notification.dto.request.NotificationUpdateDto;
 import org.example.Notification.dto.response.NotificationDto;
+import org.example.Notification.dto.response.NotificationPageDto;
 import org.example.Notification.dto.response.NotificationStatusDto;
-import org.example.Notification.entity.Notification;
+import org.example.Notification.enums.NotificationStatus;
+import org.example.Notification.enums.NotificationType;
 import org.example.Notification.repository.NotificationRepository;
 import org.example.Notification.service.INotificationService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -52,12 +54,6 @@ public class NotificationController {
         return ResponseEntity.ok(response);
     }
 
-    @GetMapping("/all")
-    public ResponseEntity<List<Notification>> getAllNotifications() {
-        List<Notification> notifications = notificationRepository.findAll();
-        return ResponseEntity.ok(notifications);
-    }
-
     @GetMapping("/test-db")
     public ResponseEntity<String> testDatabase() {
         try {
@@ -79,6 +75,15 @@ public class NotificationController {
                 .body(createdNotification);
     }
 
+    @PostMapping("/create-bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<String>> createNotifications(@RequestBody List<NotificationCreateDto> notificationCreateDtos) {
+        List<String> notificationIds = notificationService.createNotifications(notificationCreateDtos);
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(notificationIds);
+    }
+
     @GetMapping("/get/{notificationId}")
     @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN')")
     public ResponseEntity<NotificationDto> fetchNotification(@PathVariable("notificationId") String notificationId) {
@@ -168,8 +173,12 @@ public class NotificationController {
 
     @GetMapping("/history/{recipientId}")
     @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN')")
-    public ResponseEntity<List<NotificationDto>> getNotificationHistory(@PathVariable("recipientId") Long recipientId) {
-        List<NotificationDto> history = notificationService.getNotificationHistory(recipientId);
+    public ResponseEntity<NotificationPageDto> getNotificationHistory(@PathVariable("recipientId") Long recipientId,
+                                                                      @RequestParam(required = false) String cursor,
+                                                                      @RequestParam(defaultValue = "50") int limit,
+                                                                      @RequestParam(required = false) NotificationStatus status,
+                                                                      @RequestParam(required = false) NotificationType type) {
+        NotificationPageDto history = notificationService.getNotificationHistory(recipientId, cursor, limit, status, type);
         return ResponseEntity
                 .status(HttpStatus.OK)
                 .body(history);
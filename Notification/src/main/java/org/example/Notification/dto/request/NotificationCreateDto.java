@@ -19,6 +19,8 @@ public class NotificationCreateDto {
     private LocalDateTime scheduledAt;
     private Long relatedAccountId;
     private Long relatedTransactionId;
+    // a request carrying a key that was already stored returns the existing notification instead of a new one
+    private String deduplicationKey;
 
 
     public NotificationCreateDto() {
@@ -133,4 +135,12 @@ public class NotificationCreateDto {
     public void setRelatedTransactionId(Long relatedTransactionId) {
         this.relatedTransactionId = relatedTransactionId;
     }
-}
\ No newline at end of file
+
+    public String getDeduplicationKey() {
+        return deduplicationKey;
+    }
+
+    public void setDeduplicationKey(String deduplicationKey) {
+        this.deduplicationKey = deduplicationKey;
+    }
+}
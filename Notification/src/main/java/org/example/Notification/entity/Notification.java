@@ -8,11 +8,24 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        // the scheduled dispatcher scans due rows by status and scheduled time
+        @Index(name = "idx_notifications_status_scheduled_at", columnList = "status, scheduled_at"),
+        // the retry job scans failed rows whose next attempt is due
+        @Index(name = "idx_notifications_status_next_attempt_at", columnList = "status, next_attempt_at"),
+        // the requeue sweep looks for pending rows left out of the send queue
+        @Index(name = "idx_notifications_status_created_at", columnList = "status, created_at"),
+        // the retention purge walks expired rows by creation time
+        @Index(name = "idx_notifications_created_at", columnList = "created_at"),
+        // keyset pagination of a recipient's history, newest first
+        @Index(name = "idx_notifications_recipient_created_at_id", columnList = "recipient_id, created_at, id")
+})
 public class Notification {
 
+    // pooled sequence instead of IDENTITY so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notifications_seq")
+    @SequenceGenerator(name = "notifications_seq", sequenceName = "notifications_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "notification_id", unique = true, nullable = false, length = 50)
@@ -75,12 +88,23 @@ public class Notification {
     @Column(name = "max_retries", nullable = false)
     private Integer maxRetries = 3;
 
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    // set when a queue worker claims the row for sending
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
     @Column(name = "related_account_id")
     private Long relatedAccountId;
 
     @Column(name = "related_transaction_id")
     private Long relatedTransactionId;
 
+    // set by callers that may resend the same notification, at most one row exists per key
+    @Column(name = "deduplication_key", unique = true, length = 100)
+    private String deduplicationKey;
+
     public Notification() {
     }
 
@@ -264,6 +288,14 @@ public class Notification {
         this.maxRetries = maxRetries;
     }
 
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
     public Long getRelatedAccountId() {
         return relatedAccountId;
     }
@@ -279,4 +311,20 @@ public class Notification {
     public void setRelatedTransactionId(Long relatedTransactionId) {
         this.relatedTransactionId = relatedTransactionId;
     }
-}
\ No newline at end of file
+
+    public LocalDateTime getClaimedAt() {
+        return claimedAt;
+    }
+
+    public void setClaimedAt(LocalDateTime claimedAt) {
+        this.claimedAt = claimedAt;
+    }
+
+    public String getDeduplicationKey() {
+        return deduplicationKey;
+    }
+
+    public void setDeduplicationKey(String deduplicationKey) {
+        this.deduplicationKey = deduplicationKey;
+    }
+}
@@ -6,5 +6,7 @@ public enum NotificationStatus {
     SENT,
     FAILED,
     READ,
-    EXPIRED
+    EXPIRED,
+    // claimed by a queue worker, the send is in flight
+    SENDING
 }
\ No newline at end of file
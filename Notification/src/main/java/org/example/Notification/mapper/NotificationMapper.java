@@ -27,6 +27,7 @@ public class NotificationMapper {
         notification.setScheduledAt(dto.getScheduledAt());
         notification.setRelatedAccountId(dto.getRelatedAccountId());
         notification.setRelatedTransactionId(dto.getRelatedTransactionId());
+        notification.setDeduplicationKey(dto.getDeduplicationKey());
 
         return notification;
     }
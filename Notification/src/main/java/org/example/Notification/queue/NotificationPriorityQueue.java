@@ -0,0 +1,212 @@
+package org.example.Notification.queue;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.Notification.config.NotificationQueueProperties;
+import org.example.Notification.enums.NotificationPriority;
+import org.example.Notification.service.NotificationDeliveryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// In-process send queue with one lane per priority, served by a fixed worker pool.
+// Workers always take the lane whose head has the earliest deadline (enqueue time + max wait of its priority),
+// so URGENT goes first during bursts but a LOW notification is never starved forever.
+// Each priority is also capped to a number of concurrent sends. The queue only holds ids: a notification
+// rejected here or lost with a restart stays PENDING and is queued again by the requeue sweep.
+@Component
+public class NotificationPriorityQueue {
+    private static final Logger log = LoggerFactory.getLogger(NotificationPriorityQueue.class);
+
+    @Autowired
+    private NotificationQueueProperties properties;
+
+    @Autowired
+    private NotificationDeliveryService deliveryService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private Environment environment;
+
+    private final Map<NotificationPriority, ArrayDeque<QueuedNotification>> lanes = new EnumMap<>(NotificationPriority.class);
+    private final Map<NotificationPriority, Integer> inFlight = new EnumMap<>(NotificationPriority.class);
+    // ids waiting in a lane, so the sweep does not queue a notification a second time
+    private final Set<String> queuedIds = new HashSet<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+
+    private ExecutorService workers;
+    private int queued;
+    private volatile boolean running = true;
+
+    @PostConstruct
+    void start() {
+        for (NotificationPriority priority : NotificationPriority.values()) {
+            ArrayDeque<QueuedNotification> lane = new ArrayDeque<>();
+            lanes.put(priority, lane);
+            inFlight.put(priority, 0);
+            Gauge.builder("notification.queue.depth", lane, ArrayDeque::size)
+                    .tag("priority", priority.name())
+                    .register(meterRegistry);
+        }
+
+        // the worker count stays the concurrency limit, virtual workers just do not hold a platform thread while sending
+        ThreadFactory threadFactory = Threading.VIRTUAL.isActive(environment)
+                ? Thread.ofVirtual().name("notification-worker-", 0).factory()
+                : Thread.ofPlatform().name("notification-worker-", 0).factory();
+        workers = Executors.newFixedThreadPool(properties.getWorkers(), threadFactory);
+        for (int i = 0; i < properties.getWorkers(); i++) {
+            workers.submit(this::work);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        lock.lock();
+        try {
+            workAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        workers.shutdownNow();
+        workers.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNotificationQueued(NotificationQueuedEvent event) {
+        enqueue(event.getNotificationId(), event.getPriority());
+    }
+
+    // returns false when the queue is full, the notification then stays PENDING
+    public boolean enqueue(String notificationId, NotificationPriority priority) {
+        NotificationPriority lanePriority = priority != null ? priority : NotificationPriority.MEDIUM;
+        lock.lock();
+        try {
+            if (queuedIds.contains(notificationId)) {
+                return true;
+            }
+            if (queued >= properties.getCapacity()) {
+                meterRegistry.counter("notification.queue.rejected", "priority", lanePriority.name()).increment();
+                log.warn("Notification queue is full, {} stays pending", notificationId);
+                return false;
+            }
+            lanes.get(lanePriority).addLast(new QueuedNotification(notificationId, lanePriority, System.nanoTime()));
+            queuedIds.add(notificationId);
+            queued++;
+            workAvailable.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void work() {
+        while (running) {
+            QueuedNotification next;
+            try {
+                next = take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            meterRegistry.timer("notification.queue.wait", "priority", next.priority().name())
+                    .record(System.nanoTime() - next.enqueuedAt(), TimeUnit.NANOSECONDS);
+            try {
+                boolean sent = deliveryService.deliver(next.notificationId());
+                meterRegistry.counter("notification.queue.processed",
+                        "priority", next.priority().name(), "result", sent ? "sent" : "skipped").increment();
+            } catch (Exception e) {
+                log.warn("Queued notification {} could not be delivered: {}", next.notificationId(), e.getMessage());
+            } finally {
+                release(next.priority());
+            }
+        }
+    }
+
+    private QueuedNotification take() throws InterruptedException {
+        lock.lock();
+        try {
+            while (running) {
+                QueuedNotification next = pollEligible();
+                if (next != null) {
+                    return next;
+                }
+                workAvailable.await();
+            }
+            throw new InterruptedException("Notification queue stopped");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // picks the lane head with the earliest deadline among priorities that are under their concurrency limit
+    private QueuedNotification pollEligible() {
+        NotificationPriority chosen = null;
+        long chosenDeadline = Long.MAX_VALUE;
+
+        for (NotificationPriority priority : NotificationPriority.values()) {
+            QueuedNotification head = lanes.get(priority).peekFirst();
+            if (head == null || inFlight.get(priority) >= concurrencyLimit(priority)) {
+                continue;
+            }
+            long deadline = head.enqueuedAt() + TimeUnit.MILLISECONDS.toNanos(maxWaitMs(priority));
+            if (chosen == null || deadline - chosenDeadline < 0) {
+                chosen = priority;
+                chosenDeadline = deadline;
+            }
+        }
+
+        if (chosen == null) {
+            return null;
+        }
+        inFlight.merge(chosen, 1, Integer::sum);
+        queued--;
+        QueuedNotification next = lanes.get(chosen).pollFirst();
+        queuedIds.remove(next.notificationId());
+        return next;
+    }
+
+    private void release(NotificationPriority priority) {
+        lock.lock();
+        try {
+            inFlight.merge(priority, -1, Integer::sum);
+            workAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int concurrencyLimit(NotificationPriority priority) {
+        return properties.getConcurrency().getOrDefault(priority, properties.getWorkers());
+    }
+
+    private long maxWaitMs(NotificationPriority priority) {
+        return properties.getMaxWaitMs().getOrDefault(priority, 0L);
+    }
+
+    private record QueuedNotification(String notificationId, NotificationPriority priority, long enqueuedAt) {
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.Notification.queue;
+
+import org.example.Notification.enums.NotificationPriority;
+
+public class NotificationQueuedEvent {
+
+    private final String notificationId;
+    private final NotificationPriority priority;
+
+    public NotificationQueuedEvent(String notificationId, NotificationPriority priority) {
+        this.notificationId = notificationId;
+        this.priority = priority;
+    }
+
+    public String getNotificationId() {
+        return notificationId;
+    }
+
+    public NotificationPriority getPriority() {
+        return priority;
+    }
+}
@@ -2,12 +2,17 @@ package org.example.Notification.repository;
 
 import org.example.Notification.entity.Notification;
 import org.example.Notification.enums.NotificationStatus;
+import org.example.Notification.enums.NotificationType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,11 +21,63 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
 
     Optional<Notification> findByNotificationId(String notificationId);
 
-    List<Notification> findByRecipientId(Long recipientId);
+    Optional<Notification> findByDeduplicationKey(String deduplicationKey);
 
-    List<Notification> findByCreatedAtBefore(LocalDateTime dateTime);
+    List<Notification> findByDeduplicationKeyIn(Collection<String> deduplicationKeys);
 
+    @Query("SELECT n FROM Notification n WHERE n.recipientId = :recipientId " +
+            "AND (:status IS NULL OR n.status = :status) AND (:type IS NULL OR n.notificationType = :type) " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findHistoryFirstPage(@Param("recipientId") Long recipientId,
+                                            @Param("status") NotificationStatus status,
+                                            @Param("type") NotificationType type,
+                                            Limit limit);
+
+    // rows strictly after the cursor in (created_at DESC, id DESC) order
+    @Query("SELECT n FROM Notification n WHERE n.recipientId = :recipientId " +
+            "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+            "AND (:status IS NULL OR n.status = :status) AND (:type IS NULL OR n.notificationType = :type) " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findHistoryAfter(@Param("recipientId") Long recipientId,
+                                        @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id,
+                                        @Param("status") NotificationStatus status,
+                                        @Param("type") NotificationType type,
+                                        Limit limit);
+
+    // SKIP LOCKED lets several instances claim disjoint batches of due notifications
+    @Query(value = "SELECT * FROM notifications WHERE status = 'SCHEDULED' AND scheduled_at <= :now " +
+            "ORDER BY scheduled_at LIMIT :batchSize FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Notification> lockDueScheduled(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+
+    @Query(value = "SELECT * FROM notifications WHERE status = 'FAILED' AND next_attempt_at <= :now " +
+            "AND retry_count < max_retries ORDER BY next_attempt_at LIMIT :batchSize FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Notification> lockDueRetries(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+
+    // only one worker gets 1 back, so a notification queued twice is still sent once
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.status = org.example.Notification.enums.NotificationStatus.SENDING, " +
+            "n.claimedAt = :now WHERE n.notificationId = :notificationId " +
+            "AND n.status = org.example.Notification.enums.NotificationStatus.PENDING")
+    int claimForSending(@Param("notificationId") String notificationId, @Param("now") LocalDateTime now);
+
+    // a worker that died mid-send leaves its row SENDING, after the lease it goes back to PENDING and is sent again
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.status = org.example.Notification.enums.NotificationStatus.PENDING, " +
+            "n.claimedAt = NULL WHERE n.status = org.example.Notification.enums.NotificationStatus.SENDING " +
+            "AND n.claimedAt < :staleBefore")
+    int releaseStaleSending(@Param("staleBefore") LocalDateTime staleBefore);
+
+    @Query("SELECT n FROM Notification n WHERE n.status = org.example.Notification.enums.NotificationStatus.PENDING " +
+            "AND n.createdAt < :createdBefore ORDER BY n.createdAt")
+    List<Notification> findPendingCreatedBefore(@Param("createdBefore") LocalDateTime createdBefore, Limit limit);
+
+    // deletes at most chunkSize expired rows, picked through the created_at index, and returns how many went
     @Modifying
-    @Query("DELETE FROM Notification n WHERE n.createdAt < :dateTime")
-    void deleteOldNotifications(LocalDateTime dateTime);
+    @Transactional
+    @Query(value = "DELETE FROM notifications WHERE id IN (SELECT id FROM notifications WHERE created_at < :cutoff " +
+            "ORDER BY created_at LIMIT :chunkSize)", nativeQuery = true)
+    int deleteExpiredChunk(@Param("cutoff") LocalDateTime cutoff, @Param("chunkSize") int chunkSize);
 }
\ No newline at end of file
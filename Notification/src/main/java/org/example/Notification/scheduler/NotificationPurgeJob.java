@@ -0,0 +1,32 @@
+package org.example.Notification.scheduler;
+
+import org.example.Notification.service.NotificationPurgeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+@Component
+public class NotificationPurgeJob {
+    private static final Logger log = LoggerFactory.getLogger(NotificationPurgeJob.class);
+
+    @Autowired
+    private NotificationPurgeService purgeService;
+
+    @Value("${notification.purge.retention-days:90}")
+    private int retentionDays;
+
+    @Scheduled(cron = "${notification.purge.cron:0 0 3 * * *}")
+    public void purge() {
+        try {
+            long deleted = purgeService.purgeBefore(LocalDateTime.now().minusDays(retentionDays));
+            log.info("Purged {} notifications older than {} days", deleted, retentionDays);
+        } catch (Exception e) {
+            log.warn("Notification purge failed: {}", e.getMessage());
+        }
+    }
+}
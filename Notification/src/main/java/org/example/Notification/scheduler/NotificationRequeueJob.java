@@ -0,0 +1,26 @@
+package org.example.Notification.scheduler;
+
+import org.example.Notification.service.NotificationRequeueService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class NotificationRequeueJob {
+    private static final Logger log = LoggerFactory.getLogger(NotificationRequeueJob.class);
+
+    @Autowired
+    private NotificationRequeueService requeueService;
+
+    // one batch per tick, rows already waiting in the queue are not added twice
+    @Scheduled(fixedDelayString = "${notification.requeue.interval-ms:5000}")
+    public void requeue() {
+        try {
+            requeueService.requeueBatch();
+        } catch (Exception e) {
+            log.warn("Notification requeue failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.Notification.scheduler;
+
+import org.example.Notification.service.NotificationRetryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class NotificationRetryJob {
+    private static final Logger log = LoggerFactory.getLogger(NotificationRetryJob.class);
+
+    @Autowired
+    private NotificationRetryService retryService;
+
+    @Scheduled(fixedDelayString = "${notification.retry.interval-ms:1000}")
+    public void retry() {
+        try {
+            int requeued;
+            do {
+                requeued = retryService.retryDueBatch();
+            } while (requeued == retryService.getBatchSize());
+        } catch (Exception e) {
+            log.warn("Notification retry failed: {}", e.getMessage());
+        }
+    }
+}
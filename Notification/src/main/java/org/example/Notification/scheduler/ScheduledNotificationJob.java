@@ -0,0 +1,29 @@
+package org.example.Notification.scheduler;
+
+import org.example.Notification.service.ScheduledNotificationDispatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ScheduledNotificationJob {
+    private static final Logger log = LoggerFactory.getLogger(ScheduledNotificationJob.class);
+
+    @Autowired
+    private ScheduledNotificationDispatcher dispatcher;
+
+    // keeps draining while batches come back full, so a backlog is cleared without waiting for the next tick
+    @Scheduled(fixedDelayString = "${notification.dispatcher.interval-ms:1000}")
+    public void dispatch() {
+        try {
+            int claimed;
+            do {
+                claimed = dispatcher.dispatchDueBatch();
+            } while (claimed == dispatcher.getBatchSize());
+        } catch (Exception e) {
+            log.warn("Scheduled notification dispatch failed: {}", e.getMessage());
+        }
+    }
+}
@@ -3,7 +3,10 @@ package org.example.Notification.service;
 import org.example.Notification.dto.request.NotificationCreateDto;
 import org.example.Notification.dto.request.NotificationUpdateDto;
 import org.example.Notification.dto.response.NotificationDto;
+import org.example.Notification.dto.response.NotificationPageDto;
 import org.example.Notification.dto.response.NotificationStatusDto;
+import org.example.Notification.enums.NotificationStatus;
+import org.example.Notification.enums.NotificationType;
 
 import java.util.List;
 
@@ -13,6 +16,8 @@ public interface INotificationService {
 
     NotificationDto createNotification(NotificationCreateDto notificationCreateDto);
 
+    List<String> createNotifications(List<NotificationCreateDto> notificationCreateDtos);
+
     NotificationDto fetchNotification(String notificationId);
 
     NotificationDto updateNotificationSettings(NotificationUpdateDto notificationUpdateDto);
@@ -31,5 +36,6 @@ public interface INotificationService {
 
     NotificationStatusDto getNotificationStatus(String notificationId);
 
-    List<NotificationDto> getNotificationHistory(Long recipientId);
+    NotificationPageDto getNotificationHistory(Long recipientId, String cursor, int limit,
+                                               NotificationStatus status, NotificationType type);
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package org.example.Notification.service;
+
+import org.example.Notification.entity.Notification;
+import org.example.Notification.enums.NotificationStatus;
+import org.example.Notification.repository.NotificationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+@Service
+public class NotificationDeliveryService {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationSender notificationSender;
+
+    @Autowired
+    private NotificationRetryPolicy retryPolicy;
+
+    // sends a queued notification, skipping it if another worker claimed it or it was already handled;
+    // the claim commits on its own, so no transaction or connection is held while sending
+    public boolean deliver(String notificationId) {
+        if (notificationRepository.claimForSending(notificationId, LocalDateTime.now()) == 0) {
+            return false;
+        }
+        Notification notification = notificationRepository.findByNotificationId(notificationId)
+                .orElseThrow(() -> new RuntimeException("Notification not found: " + notificationId));
+
+        try {
+            notificationSender.send(notification);
+            notification.setStatus(NotificationStatus.SENT);
+            notification.setSentAt(LocalDateTime.now());
+            notification.setDeliveredAt(LocalDateTime.now());
+            return true;
+        } catch (Exception e) {
+            retryPolicy.markFailed(notification, "Sending failed: " + e.getMessage());
+            return false;
+        } finally {
+            notification.setClaimedAt(null);
+            notificationRepository.save(notification);
+        }
+    }
+}
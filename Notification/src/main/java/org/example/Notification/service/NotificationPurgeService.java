@@ -0,0 +1,68 @@
+package org.example.Notification.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.example.Notification.repository.NotificationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class NotificationPurgeService {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${notification.purge.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${notification.purge.pause-ms:50}")
+    private long pauseMs;
+
+    private final AtomicLong deletedInCurrentRun = new AtomicLong();
+
+    @PostConstruct
+    void registerMetrics() {
+        meterRegistry.gauge("notification.purge.run.deleted", deletedInCurrentRun);
+    }
+
+    // deletes every notification created before the cutoff in bounded chunks,
+    // each chunk is its own transaction so locks are held only briefly and nothing is loaded in memory
+    public long purgeBefore(LocalDateTime cutoff) {
+        long started = System.nanoTime();
+        long total = 0;
+        deletedInCurrentRun.set(0);
+
+        int deleted;
+        do {
+            deleted = notificationRepository.deleteExpiredChunk(cutoff, chunkSize);
+            total += deleted;
+            deletedInCurrentRun.set(total);
+            meterRegistry.counter("notification.purge.deleted").increment(deleted);
+        } while (deleted == chunkSize && pause());
+
+        meterRegistry.timer("notification.purge.duration").record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return total;
+    }
+
+    // gives live traffic room between chunks, returns false if the purge should stop
+    private boolean pause() {
+        if (pauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
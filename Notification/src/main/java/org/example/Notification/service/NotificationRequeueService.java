@@ -0,0 +1,58 @@
+package org.example.Notification.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.Notification.entity.Notification;
+import org.example.Notification.queue.NotificationPriorityQueue;
+import org.example.Notification.repository.NotificationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+public class NotificationRequeueService {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationPriorityQueue priorityQueue;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${notification.requeue.pending-age-ms:5000}")
+    private long pendingAgeMs;
+
+    @Value("${notification.requeue.sending-lease-ms:300000}")
+    private long sendingLeaseMs;
+
+    @Value("${notification.requeue.batch-size:500}")
+    private int batchSize;
+
+    // queues PENDING rows that never reached the send queue (full lane, restart, lost event) and
+    // returns rows stuck in SENDING by a dead worker to PENDING; returns how many rows were queued again
+    public int requeueBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        int released = notificationRepository.releaseStaleSending(now.minusNanos(sendingLeaseMs * 1_000_000));
+        if (released > 0) {
+            meterRegistry.counter("notification.requeue.released").increment(released);
+        }
+
+        List<Notification> pending = notificationRepository.findPendingCreatedBefore(
+                now.minusNanos(pendingAgeMs * 1_000_000), Limit.of(batchSize));
+        int requeued = 0;
+        for (Notification notification : pending) {
+            // a full queue rejects the rest as well, the next sweep tries again
+            if (!priorityQueue.enqueue(notification.getNotificationId(), notification.getPriority())) {
+                break;
+            }
+            requeued++;
+        }
+        meterRegistry.counter("notification.requeue.requeued").increment(requeued);
+        return requeued;
+    }
+}
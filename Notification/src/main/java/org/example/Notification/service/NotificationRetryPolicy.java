@@ -0,0 +1,42 @@
+package org.example.Notification.service;
+
+import org.example.Notification.entity.Notification;
+import org.example.Notification.enums.NotificationStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Component
+public class NotificationRetryPolicy {
+
+    @Value("${notification.retry.base-delay-ms:1000}")
+    private long baseDelayMs;
+
+    @Value("${notification.retry.max-delay-ms:300000}")
+    private long maxDelayMs;
+
+    // marks the notification FAILED and, while retries are left, plans the next automatic attempt
+    public void markFailed(Notification notification, String reason) {
+        LocalDateTime now = LocalDateTime.now();
+        notification.setStatus(NotificationStatus.FAILED);
+        notification.setFailedAt(now);
+        notification.setFailureReason(reason);
+
+        if (notification.getRetryCount() < notification.getMaxRetries()) {
+            notification.setNextAttemptAt(now.plusNanos(backoffMs(notification.getRetryCount()) * 1_000_000));
+        } else {
+            notification.setNextAttemptAt(null);
+        }
+    }
+
+    // exponential backoff with equal jitter: half of the delay is fixed, the other half random,
+    // so notifications that failed together do not all come back at the same moment
+    public long backoffMs(int retryCount) {
+        long delay = baseDelayMs << Math.min(retryCount, 20);
+        delay = Math.min(delay, maxDelayMs);
+        long half = delay / 2;
+        return half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+}
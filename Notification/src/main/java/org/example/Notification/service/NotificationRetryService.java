@@ -0,0 +1,54 @@
+package org.example.Notification.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.transaction.Transactional;
+import org.example.Notification.entity.Notification;
+import org.example.Notification.enums.NotificationStatus;
+import org.example.Notification.queue.NotificationQueuedEvent;
+import org.example.Notification.repository.NotificationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+public class NotificationRetryService {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${notification.retry.batch-size:100}")
+    private int batchSize;
+
+    // moves one batch of due retries back to PENDING and hands them to the send queue after commit
+    @Transactional
+    public int retryDueBatch() {
+        List<Notification> due = notificationRepository.lockDueRetries(LocalDateTime.now(), batchSize);
+
+        for (Notification notification : due) {
+            notification.setRetryCount(notification.getRetryCount() + 1);
+            notification.setStatus(NotificationStatus.PENDING);
+            notification.setNextAttemptAt(null);
+            eventPublisher.publishEvent(new NotificationQueuedEvent(notification.getNotificationId(), notification.getPriority()));
+        }
+
+        if (!due.isEmpty()) {
+            notificationRepository.saveAll(due);
+            meterRegistry.counter("notification.retry.requeued").increment(due.size());
+        }
+        return due.size();
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.Notification.service;
+
+import org.example.Notification.entity.Notification;
+import org.example.Notification.enums.NotificationType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+@Component
+public class NotificationSender {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationSender.class);
+
+    public void send(Notification notification) {
+        if (notification.getNotificationType() == NotificationType.SMS) {
+            if (notification.getRecipientPhone() == null || notification.getRecipientPhone().isEmpty()) {
+                throw new RuntimeException("Recipient phone number is missing");
+            }
+            log.info("Sending SMS {} to: {}", notification.getNotificationId(), notification.getRecipientPhone());
+        } else if (notification.getNotificationType() == NotificationType.EMAIL) {
+            if (notification.getRecipientEmail() == null || notification.getRecipientEmail().isEmpty()) {
+                throw new RuntimeException("Recipient email is missing");
+            }
+            log.info("Sending Email {} to: {}, subject: {}", notification.getNotificationId(),
+                    notification.getRecipientEmail(), notification.getSubject());
+        } else {
+            log.info("Sending Push notification {} to recipient: {}", notification.getNotificationId(),
+                    notification.getRecipientId());
+        }
+        log.debug("Message: {}", notification.getMessage());
+    }
+}
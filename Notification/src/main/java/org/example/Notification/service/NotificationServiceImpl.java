@@ -3,17 +3,33 @@ package org.example.Notification.service;
 import org.example.Notification.dto.request.NotificationCreateDto;
 import org.example.Notification.dto.request.NotificationUpdateDto;
 import org.example.Notification.dto.response.NotificationDto;
+import org.example.Notification.dto.response.NotificationPageDto;
 import org.example.Notification.dto.response.NotificationStatusDto;
 import org.example.Notification.entity.Notification;
 import org.example.Notification.enums.NotificationStatus;
+import org.example.Notification.enums.NotificationType;
 import org.example.Notification.mapper.NotificationMapper;
+import org.example.Notification.queue.NotificationQueuedEvent;
 import org.example.Notification.repository.NotificationRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,17 +38,107 @@ public class NotificationServiceImpl implements INotificationService {
     @Autowired
     private NotificationRepository notificationRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private NotificationPurgeService purgeService;
+
+    @Autowired
+    private NotificationSender notificationSender;
+
+    @Autowired
+    private NotificationRetryPolicy retryPolicy;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int insertBatchSize;
+
+    @Value("${notification.bulk.max-size:5000}")
+    private int bulkMaxSize;
+
+    @Value("${notification.history.max-page-size:200}")
+    private int historyMaxPageSize;
 
 
     @Override
     @Transactional
     public NotificationDto createNotification(NotificationCreateDto notificationCreateDto) {
+        if (notificationCreateDto.getDeduplicationKey() != null) {
+            Optional<Notification> existing = notificationRepository.findByDeduplicationKey(notificationCreateDto.getDeduplicationKey());
+            if (existing.isPresent()) {
+                return NotificationMapper.toDto(existing.get());
+            }
+        }
         Notification notification = NotificationMapper.toEntity(notificationCreateDto);
         notification.setStatus(NotificationStatus.PENDING);
         Notification savedNotification = notificationRepository.save(notification);
+        eventPublisher.publishEvent(new NotificationQueuedEvent(savedNotification.getNotificationId(), savedNotification.getPriority()));
         return NotificationMapper.toDto(savedNotification);
     }
 
+    @Override
+    @Transactional
+    public List<String> createNotifications(List<NotificationCreateDto> notificationCreateDtos) {
+        if (notificationCreateDtos.size() > bulkMaxSize) {
+            throw new RuntimeException("Bulk request exceeds the maximum of " + bulkMaxSize + " notifications");
+        }
+
+        Map<String, String> idsByKey = storedIdsByKey(notificationCreateDtos);
+        List<String> notificationIds = new ArrayList<>(notificationCreateDtos.size());
+        List<Notification> chunk = new ArrayList<>(insertBatchSize);
+
+        for (NotificationCreateDto notificationCreateDto : notificationCreateDtos) {
+            String key = notificationCreateDto.getDeduplicationKey();
+            if (key != null && idsByKey.containsKey(key)) {
+                notificationIds.add(idsByKey.get(key));
+                continue;
+            }
+            Notification notification = NotificationMapper.toEntity(notificationCreateDto);
+            notification.setStatus(NotificationStatus.PENDING);
+            chunk.add(notification);
+            notificationIds.add(notification.getNotificationId());
+            if (key != null) {
+                idsByKey.put(key, notification.getNotificationId());
+            }
+            eventPublisher.publishEvent(new NotificationQueuedEvent(notification.getNotificationId(), notification.getPriority()));
+
+            if (chunk.size() == insertBatchSize) {
+                saveChunk(chunk);
+            }
+        }
+        saveChunk(chunk);
+
+        return notificationIds;
+    }
+
+    // notifications already stored under a key of this request, a resent batch only inserts what is missing
+    private Map<String, String> storedIdsByKey(List<NotificationCreateDto> notificationCreateDtos) {
+        Set<String> keys = notificationCreateDtos.stream()
+                .map(NotificationCreateDto::getDeduplicationKey)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<String, String> idsByKey = new HashMap<>();
+        if (!keys.isEmpty()) {
+            notificationRepository.findByDeduplicationKeyIn(keys)
+                    .forEach(notification -> idsByKey.put(notification.getDeduplicationKey(), notification.getNotificationId()));
+        }
+        return idsByKey;
+    }
+
+    // flush one JDBC batch and detach it so the persistence context stays small
+    private void saveChunk(List<Notification> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        notificationRepository.saveAll(chunk);
+        notificationRepository.flush();
+        entityManager.clear();
+        chunk.clear();
+    }
+
     @Override
     public NotificationDto fetchNotification(String notificationId) {
         Notification notification = notificationRepository.findByNotificationId(notificationId)
@@ -50,16 +156,11 @@ public class NotificationServiceImpl implements INotificationService {
         return NotificationMapper.toDto(updatedNotification);
     }
 
+    // no surrounding transaction here, the purge commits chunk by chunk
     @Override
-    @Transactional
     public boolean deleteExpiredNotifications(int retentionDays) {
         LocalDateTime cutoffDate = LocalDateTime.now().minusDays(retentionDays);
-        List<Notification> oldNotifications = notificationRepository.findByCreatedAtBefore(cutoffDate);
-        if (oldNotifications.isEmpty()) {
-            return false;
-        }
-        notificationRepository.deleteOldNotifications(cutoffDate);
-        return true;
+        return purgeService.purgeBefore(cutoffDate) > 0;
     }
 
     @Override
@@ -80,8 +181,10 @@ public class NotificationServiceImpl implements INotificationService {
         notification.setStatus(NotificationStatus.PENDING);
         notification.setFailureReason(null);
         notification.setFailedAt(null);
+        notification.setNextAttemptAt(null);
 
         notificationRepository.save(notification);
+        eventPublisher.publishEvent(new NotificationQueuedEvent(notification.getNotificationId(), notification.getPriority()));
 
         return "Notification resent successfully. Retry count: " + notification.getRetryCount();
     }
@@ -104,75 +207,44 @@ public class NotificationServiceImpl implements INotificationService {
     }
 
     @Override
-    @Transactional
     public String sendSmsNotification(String notificationId) {
-        Notification notification = notificationRepository.findByNotificationId(notificationId)
-                .orElseThrow(() -> new RuntimeException("Notification not found: " + notificationId));
-
-        if (notification.getNotificationType() != org.example.Notification.enums.NotificationType.SMS) {
-            throw new RuntimeException("Notification is not of type SMS");
-        }
-
-        if (notification.getRecipientPhone() == null || notification.getRecipientPhone().isEmpty()) {
-            throw new RuntimeException("Recipient phone number is missing");
-        }
-
-        try {
-            System.out.println("Sending SMS to: " + notification.getRecipientPhone());
-            System.out.println("Message: " + notification.getMessage());
-
-            notification.setStatus(NotificationStatus.SENT);
-            notification.setSentAt(LocalDateTime.now());
-            notification.setDeliveredAt(LocalDateTime.now());
-
-            notificationRepository.save(notification);
-
-            return "SMS sent successfully to " + notification.getRecipientPhone();
-
-        } catch (Exception e) {
-            notification.setStatus(NotificationStatus.FAILED);
-            notification.setFailedAt(LocalDateTime.now());
-            notification.setFailureReason("SMS sending failed: " + e.getMessage());
-            notificationRepository.save(notification);
-
-            throw new RuntimeException("Failed to send SMS: " + e.getMessage());
-        }
+        Notification notification = sendNow(notificationId, NotificationType.SMS);
+        return "SMS sent successfully to " + notification.getRecipientPhone();
     }
 
     @Override
-    @Transactional
     public String sendEmailNotification(String notificationId) {
+        Notification notification = sendNow(notificationId, NotificationType.EMAIL);
+        return "Email sent successfully to " + notification.getRecipientEmail();
+    }
+
+    // sends one notification on request through the same sender as the queue workers; a PENDING one is claimed
+    // first so a worker cannot send it too, and no transaction is held while sending, so a failure is kept
+    private Notification sendNow(String notificationId, NotificationType type) {
         Notification notification = notificationRepository.findByNotificationId(notificationId)
                 .orElseThrow(() -> new RuntimeException("Notification not found: " + notificationId));
 
-        if (notification.getNotificationType() != org.example.Notification.enums.NotificationType.EMAIL) {
-            throw new RuntimeException("Notification is not of type EMAIL");
+        if (notification.getNotificationType() != type) {
+            throw new RuntimeException("Notification is not of type " + type);
         }
-
-        if (notification.getRecipientEmail() == null || notification.getRecipientEmail().isEmpty()) {
-            throw new RuntimeException("Recipient email is missing");
+        if (notification.getStatus() == NotificationStatus.SENDING
+                || (notification.getStatus() == NotificationStatus.PENDING
+                && notificationRepository.claimForSending(notificationId, LocalDateTime.now()) == 0)) {
+            throw new RuntimeException("Notification is already being sent: " + notificationId);
         }
 
         try {
-            System.out.println("Sending Email to: " + notification.getRecipientEmail());
-            System.out.println("Subject: " + notification.getSubject());
-            System.out.println("Message: " + notification.getMessage());
-
+            notificationSender.send(notification);
             notification.setStatus(NotificationStatus.SENT);
             notification.setSentAt(LocalDateTime.now());
             notification.setDeliveredAt(LocalDateTime.now());
-
-            notificationRepository.save(notification);
-
-            return "Email sent successfully to " + notification.getRecipientEmail();
-
+            return notification;
         } catch (Exception e) {
-            notification.setStatus(NotificationStatus.FAILED);
-            notification.setFailedAt(LocalDateTime.now());
-            notification.setFailureReason("Email sending failed: " + e.getMessage());
+            retryPolicy.markFailed(notification, type + " sending failed: " + e.getMessage());
+            throw new RuntimeException("Failed to send " + type + ": " + e.getMessage());
+        } finally {
+            notification.setClaimedAt(null);
             notificationRepository.save(notification);
-
-            throw new RuntimeException("Failed to send Email: " + e.getMessage());
         }
     }
 
@@ -200,10 +272,51 @@ public class NotificationServiceImpl implements INotificationService {
     }
 
     @Override
-    public List<NotificationDto> getNotificationHistory(Long recipientId) {
-        List<Notification> notifications = notificationRepository.findByRecipientId(recipientId);
-        return notifications.stream()
+    public NotificationPageDto getNotificationHistory(Long recipientId, String cursor, int limit,
+                                                      NotificationStatus status, NotificationType type) {
+        int pageSize = Math.max(1, Math.min(limit, historyMaxPageSize));
+        // fetch one extra row to know whether another page exists
+        Limit fetchLimit = Limit.of(pageSize + 1);
+
+        List<Notification> notifications;
+        if (cursor == null || cursor.isBlank()) {
+            notifications = notificationRepository.findHistoryFirstPage(recipientId, status, type, fetchLimit);
+        } else {
+            HistoryCursor after = HistoryCursor.decode(cursor);
+            notifications = notificationRepository.findHistoryAfter(
+                    recipientId, after.createdAt(), after.id(), status, type, fetchLimit);
+        }
+
+        String nextCursor = null;
+        if (notifications.size() > pageSize) {
+            notifications = notifications.subList(0, pageSize);
+            Notification last = notifications.get(pageSize - 1);
+            nextCursor = new HistoryCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        List<NotificationDto> items = notifications.stream()
                 .map(NotificationMapper::toDto)
                 .collect(Collectors.toList());
+        return new NotificationPageDto(items, nextCursor);
+    }
+
+    // opaque cursor holding the (createdAt, id) of the last row of the previous page
+    private record HistoryCursor(LocalDateTime createdAt, Long id) {
+
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static HistoryCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('|');
+                return new HistoryCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                        Long.parseLong(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Invalid history cursor");
+            }
+        }
     }
 }
\ No newline at end of file
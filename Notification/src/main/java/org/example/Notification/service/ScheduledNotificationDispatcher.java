@@ -0,0 +1,64 @@
+package org.example.Notification.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.transaction.Transactional;
+import org.example.Notification.entity.Notification;
+import org.example.Notification.enums.NotificationStatus;
+import org.example.Notification.repository.NotificationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+public class ScheduledNotificationDispatcher {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationSender notificationSender;
+
+    @Autowired
+    private NotificationRetryPolicy retryPolicy;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${notification.dispatcher.batch-size:100}")
+    private int batchSize;
+
+    // claims one batch of due notifications and sends them, returns how many rows were claimed
+    @Transactional
+    public int dispatchDueBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> due = notificationRepository.lockDueScheduled(now, batchSize);
+
+        for (Notification notification : due) {
+            meterRegistry.timer("notification.dispatcher.lag")
+                    .record(Duration.between(notification.getScheduledAt(), now));
+            try {
+                notificationSender.send(notification);
+                notification.setStatus(NotificationStatus.SENT);
+                notification.setSentAt(LocalDateTime.now());
+                notification.setDeliveredAt(LocalDateTime.now());
+                meterRegistry.counter("notification.dispatcher.dispatched", "result", "sent").increment();
+            } catch (Exception e) {
+                retryPolicy.markFailed(notification, "Scheduled sending failed: " + e.getMessage());
+                meterRegistry.counter("notification.dispatcher.dispatched", "result", "failed").increment();
+            }
+        }
+
+        if (!due.isEmpty()) {
+            notificationRepository.saveAll(due);
+        }
+        return due.size();
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+}
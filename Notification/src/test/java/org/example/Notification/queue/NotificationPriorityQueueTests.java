@@ -0,0 +1,167 @@
+package org.example.Notification.queue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.Notification.config.NotificationQueueProperties;
+import org.example.Notification.enums.NotificationPriority;
+import org.example.Notification.service.NotificationDeliveryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NotificationPriorityQueueTests {
+
+    private final NotificationQueueProperties properties = new NotificationQueueProperties();
+    private final NotificationDeliveryService deliveryService = mock(NotificationDeliveryService.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // ids whose delivery blocks until the gate opens
+    private final Map<String, CountDownLatch> started = new ConcurrentHashMap<>();
+    private final CountDownLatch gate = new CountDownLatch(1);
+    private final List<String> delivered = new CopyOnWriteArrayList<>();
+    private final AtomicInteger lowInFlight = new AtomicInteger();
+    private final AtomicInteger maxLowInFlight = new AtomicInteger();
+
+    private NotificationPriorityQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        when(deliveryService.deliver(anyString())).thenAnswer(invocation -> {
+            String id = invocation.getArgument(0);
+            boolean low = id.startsWith("low");
+            if (low) {
+                maxLowInFlight.accumulateAndGet(lowInFlight.incrementAndGet(), Math::max);
+            }
+            try {
+                CountDownLatch blocker = started.get(id);
+                if (blocker != null) {
+                    blocker.countDown();
+                    gate.await(5, TimeUnit.SECONDS);
+                }
+                delivered.add(id);
+                return true;
+            } finally {
+                if (low) {
+                    lowInFlight.decrementAndGet();
+                }
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        gate.countDown();
+        if (queue != null) {
+            queue.stop();
+        }
+    }
+
+    @Test
+    void workers_ServeTheEarliestDeadlineFirst() throws Exception {
+        properties.setWorkers(1);
+        start();
+        occupyWorker("blocker");
+
+        queue.enqueue("low-1", NotificationPriority.LOW);
+        queue.enqueue("medium-1", NotificationPriority.MEDIUM);
+        queue.enqueue("urgent-1", NotificationPriority.URGENT);
+        queue.enqueue("high-1", NotificationPriority.HIGH);
+        gate.countDown();
+
+        awaitDelivered(5);
+        assertEquals(List.of("blocker", "urgent-1", "high-1", "medium-1", "low-1"), delivered);
+    }
+
+    @Test
+    void workers_RespectThePerPriorityConcurrencyCap() throws Exception {
+        properties.setWorkers(4);
+        properties.setConcurrency(new EnumMap<>(Map.of(NotificationPriority.LOW, 1)));
+        start();
+
+        started.put("low-1", new CountDownLatch(1));
+        started.put("low-2", new CountDownLatch(1));
+        queue.enqueue("low-1", NotificationPriority.LOW);
+        queue.enqueue("low-2", NotificationPriority.LOW);
+        assertTrue(started.get("low-1").await(5, TimeUnit.SECONDS));
+
+        // the LOW lane is at its cap, an URGENT one still goes out on a free worker
+        queue.enqueue("urgent-1", NotificationPriority.URGENT);
+        awaitDelivered(1);
+        assertEquals(List.of("urgent-1"), delivered);
+        assertEquals(1, started.get("low-2").getCount());
+
+        gate.countDown();
+        awaitDelivered(3);
+        assertEquals(1, maxLowInFlight.get());
+    }
+
+    @Test
+    void enqueue_FullQueueRejects() throws Exception {
+        properties.setWorkers(1);
+        properties.setCapacity(2);
+        start();
+        occupyWorker("blocker");
+
+        assertTrue(queue.enqueue("medium-1", NotificationPriority.MEDIUM));
+        assertTrue(queue.enqueue("medium-2", NotificationPriority.MEDIUM));
+        assertFalse(queue.enqueue("medium-3", NotificationPriority.MEDIUM));
+
+        assertEquals(1, meterRegistry.get("notification.queue.rejected").tag("priority", "MEDIUM").counter().count());
+    }
+
+    @Test
+    void enqueue_SameIdIsQueuedOnce() throws Exception {
+        properties.setWorkers(1);
+        properties.setCapacity(2);
+        start();
+        occupyWorker("blocker");
+
+        assertTrue(queue.enqueue("medium-1", NotificationPriority.MEDIUM));
+        assertTrue(queue.enqueue("medium-1", NotificationPriority.MEDIUM));
+        assertTrue(queue.enqueue("medium-2", NotificationPriority.MEDIUM));
+        gate.countDown();
+
+        awaitDelivered(3);
+        assertEquals(List.of("blocker", "medium-1", "medium-2"), delivered);
+    }
+
+    private void start() {
+        queue = new NotificationPriorityQueue();
+        ReflectionTestUtils.setField(queue, "properties", properties);
+        ReflectionTestUtils.setField(queue, "deliveryService", deliveryService);
+        ReflectionTestUtils.setField(queue, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(queue, "environment", new MockEnvironment());
+        queue.start();
+    }
+
+    // keeps the only worker busy so the next notifications pile up in their lanes
+    private void occupyWorker(String id) throws InterruptedException {
+        started.put(id, new CountDownLatch(1));
+        queue.enqueue(id, NotificationPriority.LOW);
+        assertTrue(started.get(id).await(5, TimeUnit.SECONDS));
+    }
+
+    private void awaitDelivered(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (delivered.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, delivered.size());
+    }
+}
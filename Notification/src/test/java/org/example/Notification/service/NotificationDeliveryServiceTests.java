@@ -0,0 +1,80 @@
+package org.example.Notification.service;
+
+import org.example.Notification.entity.Notification;
+import org.example.Notification.enums.NotificationStatus;
+import org.example.Notification.repository.NotificationRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationDeliveryServiceTests {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationSender notificationSender;
+
+    @Mock
+    private NotificationRetryPolicy retryPolicy;
+
+    @InjectMocks
+    private NotificationDeliveryService deliveryService;
+
+    @Test
+    void deliver_SendsAClaimedNotification() {
+        Notification notification = claimed();
+        when(notificationRepository.claimForSending(eq("NOTIF-1"), any())).thenReturn(1);
+        when(notificationRepository.findByNotificationId("NOTIF-1")).thenReturn(Optional.of(notification));
+
+        assertTrue(deliveryService.deliver("NOTIF-1"));
+
+        verify(notificationSender).send(notification);
+        assertEquals(NotificationStatus.SENT, notification.getStatus());
+        assertNull(notification.getClaimedAt());
+        verify(notificationRepository).save(notification);
+    }
+
+    @Test
+    void deliver_SkipsWhenAnotherWorkerHasTheClaim() {
+        when(notificationRepository.claimForSending(eq("NOTIF-1"), any())).thenReturn(0);
+
+        assertFalse(deliveryService.deliver("NOTIF-1"));
+
+        verifyNoInteractions(notificationSender);
+        verify(notificationRepository, never()).save(any());
+    }
+
+    @Test
+    void deliver_FailedSendGoesToTheRetryPolicy() {
+        Notification notification = claimed();
+        when(notificationRepository.claimForSending(eq("NOTIF-1"), any())).thenReturn(1);
+        when(notificationRepository.findByNotificationId("NOTIF-1")).thenReturn(Optional.of(notification));
+        doThrow(new RuntimeException("Recipient phone number is missing")).when(notificationSender).send(notification);
+
+        assertFalse(deliveryService.deliver("NOTIF-1"));
+
+        verify(retryPolicy).markFailed(notification, "Sending failed: Recipient phone number is missing");
+        assertNull(notification.getClaimedAt());
+        verify(notificationRepository).save(notification);
+    }
+
+    private static Notification claimed() {
+        Notification notification = new Notification();
+        notification.setNotificationId("NOTIF-1");
+        notification.setStatus(NotificationStatus.SENDING);
+        notification.setClaimedAt(LocalDateTime.now());
+        return notification;
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.Notification.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.Notification.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationPurgeServiceTests {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private NotificationPurgeService purgeService;
+
+    private final LocalDateTime cutoff = LocalDateTime.of(2024, 6, 1, 0, 0);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(purgeService, "chunkSize", 3);
+        ReflectionTestUtils.setField(purgeService, "pauseMs", 0L);
+        purgeService.registerMetrics();
+    }
+
+    @Test
+    void purgeBefore_DeletesChunkByChunkUntilAShortOne() {
+        when(notificationRepository.deleteExpiredChunk(cutoff, 3)).thenReturn(3, 3, 1);
+
+        assertEquals(7, purgeService.purgeBefore(cutoff));
+
+        verify(notificationRepository, times(3)).deleteExpiredChunk(cutoff, 3);
+        assertEquals(7, meterRegistry.get("notification.purge.deleted").counter().count());
+        assertEquals(7, meterRegistry.get("notification.purge.run.deleted").gauge().value());
+        assertEquals(1, meterRegistry.get("notification.purge.duration").timer().count());
+    }
+
+    @Test
+    void purgeBefore_ExactMultipleEndsOnAnEmptyChunk() {
+        when(notificationRepository.deleteExpiredChunk(cutoff, 3)).thenReturn(3, 0);
+
+        assertEquals(3, purgeService.purgeBefore(cutoff));
+
+        verify(notificationRepository, times(2)).deleteExpiredChunk(cutoff, 3);
+    }
+
+    @Test
+    void purgeBefore_InterruptedPauseStopsTheRun() {
+        ReflectionTestUtils.setField(purgeService, "pauseMs", 1000L);
+        when(notificationRepository.deleteExpiredChunk(cutoff, 3)).thenReturn(3);
+
+        Thread.currentThread().interrupt();
+        try {
+            assertEquals(3, purgeService.purgeBefore(cutoff));
+        } finally {
+            assertTrue(Thread.interrupted());
+        }
+
+        verify(notificationRepository, times(1)).deleteExpiredChunk(cutoff, 3);
+    }
+}
@@ -0,0 +1,95 @@
+package org.example.Notification.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.Notification.entity.Notification;
+import org.example.Notification.enums.NotificationPriority;
+import org.example.Notification.queue.NotificationPriorityQueue;
+import org.example.Notification.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationRequeueServiceTests {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationPriorityQueue priorityQueue;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private NotificationRequeueService requeueService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(requeueService, "pendingAgeMs", 5000L);
+        ReflectionTestUtils.setField(requeueService, "sendingLeaseMs", 300000L);
+        ReflectionTestUtils.setField(requeueService, "batchSize", 500);
+    }
+
+    @Test
+    void requeueBatch_QueuesOldPendingRowsAgain() {
+        when(notificationRepository.findPendingCreatedBefore(any(), any()))
+                .thenReturn(List.of(pending("NOTIF-1", NotificationPriority.HIGH), pending("NOTIF-2", NotificationPriority.LOW)));
+        when(priorityQueue.enqueue(any(), any())).thenReturn(true);
+
+        int requeued = requeueService.requeueBatch();
+
+        assertEquals(2, requeued);
+        verify(priorityQueue).enqueue("NOTIF-1", NotificationPriority.HIGH);
+        verify(priorityQueue).enqueue("NOTIF-2", NotificationPriority.LOW);
+
+        ArgumentCaptor<LocalDateTime> createdBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(notificationRepository).findPendingCreatedBefore(createdBefore.capture(), eq(Limit.of(500)));
+        assertTrue(createdBefore.getValue().isBefore(LocalDateTime.now().minusSeconds(4)));
+    }
+
+    @Test
+    void requeueBatch_StopsAtAFullQueue() {
+        when(notificationRepository.findPendingCreatedBefore(any(), any()))
+                .thenReturn(List.of(pending("NOTIF-1", NotificationPriority.HIGH), pending("NOTIF-2", NotificationPriority.LOW)));
+        when(priorityQueue.enqueue("NOTIF-1", NotificationPriority.HIGH)).thenReturn(false);
+
+        assertEquals(0, requeueService.requeueBatch());
+        verify(priorityQueue, never()).enqueue("NOTIF-2", NotificationPriority.LOW);
+    }
+
+    @Test
+    void requeueBatch_ReleasesStaleClaimsFirst() {
+        when(notificationRepository.releaseStaleSending(any())).thenReturn(3);
+        when(notificationRepository.findPendingCreatedBefore(any(), any())).thenReturn(List.of());
+
+        requeueService.requeueBatch();
+
+        ArgumentCaptor<LocalDateTime> staleBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(notificationRepository).releaseStaleSending(staleBefore.capture());
+        assertTrue(staleBefore.getValue().isBefore(LocalDateTime.now().minusMinutes(4)));
+        assertEquals(3, meterRegistry.get("notification.requeue.released").counter().count());
+    }
+
+    private static Notification pending(String notificationId, NotificationPriority priority) {
+        Notification notification = new Notification();
+        notification.setNotificationId(notificationId);
+        notification.setPriority(priority);
+        return notification;
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.Notification.service;
+
+import org.example.Notification.entity.Notification;
+import org.example.Notification.enums.NotificationStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationRetryPolicyTests {
+
+    private final NotificationRetryPolicy retryPolicy = new NotificationRetryPolicy();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(retryPolicy, "baseDelayMs", 1000L);
+        ReflectionTestUtils.setField(retryPolicy, "maxDelayMs", 300000L);
+    }
+
+    @Test
+    void backoffMs_DoublesWithEqualJitter() {
+        for (int retryCount = 0; retryCount < 8; retryCount++) {
+            long delay = 1000L << retryCount;
+            for (int i = 0; i < 200; i++) {
+                long backoff = retryPolicy.backoffMs(retryCount);
+                assertTrue(backoff >= delay / 2 && backoff <= delay, "retry " + retryCount + " waited " + backoff);
+            }
+        }
+    }
+
+    @Test
+    void backoffMs_IsCappedAndNeverOverflows() {
+        for (int retryCount : new int[]{9, 20, 63, 1000}) {
+            long backoff = retryPolicy.backoffMs(retryCount);
+            assertTrue(backoff >= 150000 && backoff <= 300000, "retry " + retryCount + " waited " + backoff);
+        }
+    }
+
+    @Test
+    void backoffMs_SpreadsNotificationsThatFailedTogether() {
+        Set<Long> delays = new HashSet<>();
+        for (int i = 0; i < 50; i++) {
+            delays.add(retryPolicy.backoffMs(5));
+        }
+
+        assertTrue(delays.size() > 1);
+    }
+
+    @Test
+    void markFailed_PlansTheNextAttemptWhileRetriesAreLeft() {
+        Notification notification = notification(1, 3);
+        LocalDateTime before = LocalDateTime.now();
+
+        retryPolicy.markFailed(notification, "Sending failed: timeout");
+
+        assertEquals(NotificationStatus.FAILED, notification.getStatus());
+        assertEquals("Sending failed: timeout", notification.getFailureReason());
+        assertNotNull(notification.getFailedAt());
+        assertFalse(notification.getNextAttemptAt().isBefore(before.plusSeconds(1)));
+        assertFalse(notification.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(2)));
+    }
+
+    @Test
+    void markFailed_NoNextAttemptOnceRetriesAreUsedUp() {
+        Notification notification = notification(3, 3);
+        notification.setNextAttemptAt(LocalDateTime.now());
+
+        retryPolicy.markFailed(notification, "Sending failed: timeout");
+
+        assertEquals(NotificationStatus.FAILED, notification.getStatus());
+        assertNull(notification.getNextAttemptAt());
+    }
+
+    private static Notification notification(int retryCount, int maxRetries) {
+        Notification notification = new Notification();
+        notification.setRetryCount(retryCount);
+        notification.setMaxRetries(maxRetries);
+        return notification;
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.Notification.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.Notification.entity.Notification;
+import org.example.Notification.enums.NotificationPriority;
+import org.example.Notification.enums.NotificationStatus;
+import org.example.Notification.queue.NotificationQueuedEvent;
+import org.example.Notification.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationRetryServiceTests {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private NotificationRetryService retryService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(retryService, "batchSize", 100);
+    }
+
+    @Test
+    void retryDueBatch_MovesDueRetriesBackToPendingAndQueuesThem() {
+        Notification notification = new Notification();
+        notification.setNotificationId("NOTIF-1");
+        notification.setPriority(NotificationPriority.HIGH);
+        notification.setStatus(NotificationStatus.FAILED);
+        notification.setRetryCount(1);
+        notification.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        when(notificationRepository.lockDueRetries(any(), eq(100))).thenReturn(List.of(notification));
+
+        assertEquals(1, retryService.retryDueBatch());
+
+        assertEquals(NotificationStatus.PENDING, notification.getStatus());
+        assertEquals(2, notification.getRetryCount());
+        assertNull(notification.getNextAttemptAt());
+        verify(notificationRepository).saveAll(List.of(notification));
+        ArgumentCaptor<NotificationQueuedEvent> event = ArgumentCaptor.forClass(NotificationQueuedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals("NOTIF-1", event.getValue().getNotificationId());
+        assertEquals(NotificationPriority.HIGH, event.getValue().getPriority());
+        assertEquals(1, meterRegistry.get("notification.retry.requeued").counter().count());
+    }
+
+    @Test
+    void retryDueBatch_NothingDueSavesNothing() {
+        when(notificationRepository.lockDueRetries(any(), eq(100))).thenReturn(List.of());
+
+        assertEquals(0, retryService.retryDueBatch());
+
+        verify(notificationRepository, never()).saveAll(any());
+        verifyNoInteractions(eventPublisher);
+    }
+}
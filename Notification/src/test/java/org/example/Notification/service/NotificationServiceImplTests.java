@@ -0,0 +1,284 @@
+package org.example.Notification.service;
+
+import jakarta.persistence.EntityManager;
+import org.example.Notification.dto.request.NotificationCreateDto;
+import org.example.Notification.dto.response.NotificationPageDto;
+import org.example.Notification.entity.Notification;
+import org.example.Notification.enums.NotificationStatus;
+import org.example.Notification.enums.NotificationType;
+import org.example.Notification.queue.NotificationQueuedEvent;
+import org.example.Notification.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationServiceImplTests {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationSender notificationSender;
+
+    @Mock
+    private NotificationRetryPolicy retryPolicy;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private NotificationServiceImpl notificationService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(notificationService, "insertBatchSize", 2);
+        ReflectionTestUtils.setField(notificationService, "bulkMaxSize", 5);
+        ReflectionTestUtils.setField(notificationService, "historyMaxPageSize", 200);
+    }
+
+    @Test
+    void createNotifications_SavesInChunksOfTheBatchSize() {
+        List<Integer> chunkSizes = new ArrayList<>();
+        when(notificationRepository.saveAll(any())).thenAnswer(invocation -> {
+            chunkSizes.add(((List<?>) invocation.getArgument(0)).size());
+            return invocation.getArgument(0);
+        });
+
+        List<String> ids = notificationService.createNotifications(createDtos(5));
+
+        assertEquals(List.of(2, 2, 1), chunkSizes);
+        verify(notificationRepository, times(3)).flush();
+        // every chunk is detached after its flush, the persistence context never holds more than one
+        verify(entityManager, times(3)).clear();
+        assertEquals(5, new HashSet<>(ids).size());
+        verify(eventPublisher, times(5)).publishEvent(any(NotificationQueuedEvent.class));
+    }
+
+    @Test
+    void createNotifications_ExactMultipleDoesNotSaveAnEmptyChunk() {
+        notificationService.createNotifications(createDtos(4));
+
+        verify(notificationRepository, times(2)).saveAll(any());
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void createNotifications_OverTheMaxSizeIsRejected() {
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> notificationService.createNotifications(createDtos(6)));
+
+        assertEquals("Bulk request exceeds the maximum of 5 notifications", e.getMessage());
+        verifyNoInteractions(notificationRepository, eventPublisher, entityManager);
+    }
+
+    @Test
+    void createNotifications_KeysAlreadyStoredAreNotInsertedAgain() {
+        List<NotificationCreateDto> dtos = createDtos(3);
+        for (int i = 0; i < dtos.size(); i++) {
+            dtos.get(i).setDeduplicationKey("transactions-outbox-" + i);
+        }
+        Notification stored = notification(NotificationType.EMAIL, NotificationStatus.PENDING);
+        stored.setDeduplicationKey("transactions-outbox-1");
+        when(notificationRepository.findByDeduplicationKeyIn(any())).thenReturn(List.of(stored));
+        List<Notification> saved = new ArrayList<>();
+        when(notificationRepository.saveAll(any())).thenAnswer(invocation -> {
+            saved.addAll(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+
+        List<String> ids = notificationService.createNotifications(dtos);
+
+        assertEquals(3, ids.size());
+        assertEquals("NOTIF-1", ids.get(1));
+        assertEquals(List.of("transactions-outbox-0", "transactions-outbox-2"),
+                saved.stream().map(Notification::getDeduplicationKey).toList());
+        verify(eventPublisher, times(2)).publishEvent(any(NotificationQueuedEvent.class));
+    }
+
+    @Test
+    void createNotifications_SameKeyTwiceInOneRequestIsInsertedOnce() {
+        List<NotificationCreateDto> dtos = createDtos(2);
+        dtos.forEach(dto -> dto.setDeduplicationKey("transactions-outbox-7"));
+        when(notificationRepository.findByDeduplicationKeyIn(any())).thenReturn(List.of());
+        List<Integer> chunkSizes = new ArrayList<>();
+        when(notificationRepository.saveAll(any())).thenAnswer(invocation -> {
+            chunkSizes.add(((List<?>) invocation.getArgument(0)).size());
+            return invocation.getArgument(0);
+        });
+
+        List<String> ids = notificationService.createNotifications(dtos);
+
+        assertEquals(ids.get(0), ids.get(1));
+        assertEquals(List.of(1), chunkSizes);
+    }
+
+    @Test
+    void createNotification_StoredKeyReturnsTheExistingNotification() {
+        NotificationCreateDto dto = createDtos(1).get(0);
+        dto.setDeduplicationKey("transactions-outbox-1");
+        Notification stored = notification(NotificationType.EMAIL, NotificationStatus.SENT);
+        when(notificationRepository.findByDeduplicationKey("transactions-outbox-1")).thenReturn(Optional.of(stored));
+
+        assertEquals("NOTIF-1", notificationService.createNotification(dto).getNotificationId());
+
+        verify(notificationRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void getNotificationHistory_NextPageStartsAfterTheLastRowOfThePrevious() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 6, 1, 9, 0);
+        when(notificationRepository.findHistoryFirstPage(7L, null, null, Limit.of(3)))
+                .thenReturn(List.of(history(30L, createdAt), history(20L, createdAt), history(10L, createdAt.minusMinutes(1))));
+
+        NotificationPageDto first = notificationService.getNotificationHistory(7L, null, 2, null, null);
+
+        assertEquals(2, first.getItems().size());
+        assertNotNull(first.getNextCursor());
+
+        when(notificationRepository.findHistoryAfter(7L, createdAt, 20L, NotificationStatus.SENT, null, Limit.of(3)))
+                .thenReturn(List.of(history(10L, createdAt.minusMinutes(1))));
+
+        NotificationPageDto second = notificationService.getNotificationHistory(7L, first.getNextCursor(), 2,
+                NotificationStatus.SENT, null);
+
+        assertEquals(1, second.getItems().size());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void getNotificationHistory_PageSizeIsClamped() {
+        notificationService.getNotificationHistory(7L, "", 1000, null, null);
+        notificationService.getNotificationHistory(7L, null, 0, null, null);
+
+        verify(notificationRepository).findHistoryFirstPage(7L, null, null, Limit.of(201));
+        verify(notificationRepository).findHistoryFirstPage(7L, null, null, Limit.of(2));
+    }
+
+    @Test
+    void getNotificationHistory_TamperedCursorIsRejected() {
+        String notBase64 = "***";
+        String noSeparator = Base64.getUrlEncoder().encodeToString("2024-06-01T09:00".getBytes(StandardCharsets.UTF_8));
+        String badId = Base64.getUrlEncoder().encodeToString("2024-06-01T09:00|abc".getBytes(StandardCharsets.UTF_8));
+
+        for (String cursor : List.of(notBase64, noSeparator, badId)) {
+            RuntimeException e = assertThrows(RuntimeException.class,
+                    () -> notificationService.getNotificationHistory(7L, cursor, 20, null, null));
+            assertEquals("Invalid history cursor", e.getMessage());
+        }
+        verifyNoInteractions(notificationRepository);
+    }
+
+    @Test
+    void sendSmsNotification_ClaimsAPendingNotificationAndSendsItThroughTheSender() {
+        Notification notification = notification(NotificationType.SMS, NotificationStatus.PENDING);
+        when(notificationRepository.findByNotificationId("NOTIF-1")).thenReturn(Optional.of(notification));
+        when(notificationRepository.claimForSending(eq("NOTIF-1"), any())).thenReturn(1);
+
+        String result = notificationService.sendSmsNotification("NOTIF-1");
+
+        assertEquals("SMS sent successfully to 0712345678", result);
+        verify(notificationSender).send(notification);
+        assertEquals(NotificationStatus.SENT, notification.getStatus());
+        verify(notificationRepository).save(notification);
+    }
+
+    @Test
+    void sendSmsNotification_NotificationClaimedByAWorkerIsNotSentTwice() {
+        Notification notification = notification(NotificationType.SMS, NotificationStatus.PENDING);
+        when(notificationRepository.findByNotificationId("NOTIF-1")).thenReturn(Optional.of(notification));
+        when(notificationRepository.claimForSending(eq("NOTIF-1"), any())).thenReturn(0);
+
+        assertThrows(RuntimeException.class, () -> notificationService.sendSmsNotification("NOTIF-1"));
+
+        verifyNoInteractions(notificationSender);
+        verify(notificationRepository, never()).save(any());
+    }
+
+    @Test
+    void sendEmailNotification_ResendsAFailedNotificationWithoutAClaim() {
+        Notification notification = notification(NotificationType.EMAIL, NotificationStatus.FAILED);
+        when(notificationRepository.findByNotificationId("NOTIF-1")).thenReturn(Optional.of(notification));
+
+        String result = notificationService.sendEmailNotification("NOTIF-1");
+
+        assertEquals("Email sent successfully to client@example.com", result);
+        verify(notificationRepository, never()).claimForSending(any(), any());
+        assertEquals(NotificationStatus.SENT, notification.getStatus());
+    }
+
+    @Test
+    void sendEmailNotification_FailedSendIsKeptAndGoesToTheRetryPolicy() {
+        Notification notification = notification(NotificationType.EMAIL, NotificationStatus.PENDING);
+        when(notificationRepository.findByNotificationId("NOTIF-1")).thenReturn(Optional.of(notification));
+        when(notificationRepository.claimForSending(eq("NOTIF-1"), any())).thenReturn(1);
+        doThrow(new RuntimeException("Recipient email is missing")).when(notificationSender).send(notification);
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> notificationService.sendEmailNotification("NOTIF-1"));
+
+        assertEquals("Failed to send EMAIL: Recipient email is missing", e.getMessage());
+        verify(retryPolicy).markFailed(notification, "EMAIL sending failed: Recipient email is missing");
+        verify(notificationRepository).save(notification);
+    }
+
+    @Test
+    void sendSmsNotification_WrongTypeIsRejected() {
+        when(notificationRepository.findByNotificationId("NOTIF-1"))
+                .thenReturn(Optional.of(notification(NotificationType.EMAIL, NotificationStatus.PENDING)));
+
+        assertThrows(RuntimeException.class, () -> notificationService.sendSmsNotification("NOTIF-1"));
+
+        verifyNoInteractions(notificationSender);
+    }
+
+    private static List<NotificationCreateDto> createDtos(int count) {
+        return IntStream.range(0, count).mapToObj(i -> {
+            NotificationCreateDto dto = new NotificationCreateDto();
+            dto.setRecipientId((long) i);
+            dto.setRecipientEmail("client" + i + "@example.com");
+            dto.setNotificationType(NotificationType.EMAIL);
+            return dto;
+        }).toList();
+    }
+
+    private static Notification history(Long id, LocalDateTime createdAt) {
+        Notification notification = new Notification();
+        notification.setId(id);
+        notification.setCreatedAt(createdAt);
+        return notification;
+    }
+
+    private static Notification notification(NotificationType type, NotificationStatus status) {
+        Notification notification = new Notification();
+        notification.setNotificationId("NOTIF-1");
+        notification.setNotificationType(type);
+        notification.setStatus(status);
+        notification.setRecipientPhone("0712345678");
+        notification.setRecipientEmail("client@example.com");
+        return notification;
+    }
+}
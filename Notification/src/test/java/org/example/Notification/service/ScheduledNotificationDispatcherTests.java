@@ -0,0 +1,94 @@
+package org.example.Notification.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.Notification.entity.Notification;
+import org.example.Notification.enums.NotificationStatus;
+import org.example.Notification.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScheduledNotificationDispatcherTests {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationSender notificationSender;
+
+    @Mock
+    private NotificationRetryPolicy retryPolicy;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private ScheduledNotificationDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 100);
+    }
+
+    @Test
+    void dispatchDueBatch_SendsEveryDueNotificationAndSavesTheBatchOnce() {
+        Notification first = scheduled("NOTIF-1");
+        Notification second = scheduled("NOTIF-2");
+        when(notificationRepository.lockDueScheduled(any(), eq(100))).thenReturn(List.of(first, second));
+
+        assertEquals(2, dispatcher.dispatchDueBatch());
+
+        assertEquals(NotificationStatus.SENT, first.getStatus());
+        assertNotNull(second.getSentAt());
+        verify(notificationRepository).saveAll(List.of(first, second));
+        assertEquals(2, meterRegistry.get("notification.dispatcher.dispatched").tag("result", "sent").counter().count());
+        assertEquals(2, meterRegistry.get("notification.dispatcher.lag").timer().count());
+    }
+
+    @Test
+    void dispatchDueBatch_FailedSendGoesToTheRetryPolicyAndTheRestStillGoOut() {
+        Notification failing = scheduled("NOTIF-1");
+        Notification working = scheduled("NOTIF-2");
+        when(notificationRepository.lockDueScheduled(any(), eq(100))).thenReturn(List.of(failing, working));
+        doThrow(new RuntimeException("Recipient email is missing")).when(notificationSender).send(failing);
+
+        dispatcher.dispatchDueBatch();
+
+        verify(retryPolicy).markFailed(failing, "Scheduled sending failed: Recipient email is missing");
+        assertEquals(NotificationStatus.SENT, working.getStatus());
+        assertEquals(1, meterRegistry.get("notification.dispatcher.dispatched").tag("result", "failed").counter().count());
+    }
+
+    @Test
+    void dispatchDueBatch_NothingDueSavesNothing() {
+        when(notificationRepository.lockDueScheduled(any(), eq(100))).thenReturn(List.of());
+
+        assertEquals(0, dispatcher.dispatchDueBatch());
+
+        verify(notificationRepository, never()).saveAll(any());
+        verifyNoInteractions(notificationSender);
+    }
+
+    private static Notification scheduled(String notificationId) {
+        Notification notification = new Notification();
+        notification.setNotificationId(notificationId);
+        notification.setStatus(NotificationStatus.SCHEDULED);
+        notification.setScheduledAt(LocalDateTime.now().minusSeconds(5));
+        return notification;
+    }
+}
@@ -1,11 +1,24 @@
 package com.example.transactions;
 
 import org.springframework.boot.SpringApplication;
+import com.example.transactions.config.HedgingProperties;
+import com.example.transactions.config.HttpClientPoolProperties;
+import com.example.transactions.config.LatencyAwareLoadBalancerConfiguration;
+import com.example.transactions.config.PooledFeignClientConfiguration;
+import com.example.transactions.config.ResilienceProperties;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-@EnableFeignClients
+@EnableFeignClients(defaultConfiguration = PooledFeignClientConfiguration.class)
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
+@EnableCaching
+@EnableScheduling
+@EnableConfigurationProperties({HttpClientPoolProperties.class, ResilienceProperties.class, HedgingProperties.class})
 public class TransactionsApplication {
 
 	public static void main(String[] args) {
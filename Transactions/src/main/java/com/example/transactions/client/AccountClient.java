@@ -1,14 +1,32 @@
 package com.example.transactions.client;
 
+import com.example.transactions.dto.request.AccountTransferDto;
 import com.example.transactions.dto.response.AccountDto;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.List;
+
 @FeignClient(name = "accountmanagement", path = "/api/accounts")
 public interface AccountClient {
+    String INTERNAL_TOKEN_HEADER = "X-Internal-Token";
 
     @GetMapping("/fetch_general_data")
     ResponseEntity<AccountDto> fetchAccount(@RequestParam String accountNumber);
+
+    @GetMapping("/fetch_general_data_batch")
+    ResponseEntity<List<AccountDto>> fetchAccounts(@RequestParam List<String> accountNumbers);
+
+    @PostMapping("/transfer")
+    ResponseEntity<String> transfer(@RequestHeader(INTERNAL_TOKEN_HEADER) String internalToken,
+                                    @RequestBody AccountTransferDto accountTransferDto);
+
+    @PatchMapping("/block_account")
+    ResponseEntity<String> blockAccount(@RequestParam String accountNumber, @RequestParam String reason);
 }
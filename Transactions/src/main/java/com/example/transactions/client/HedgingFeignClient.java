@@ -0,0 +1,314 @@
+package com.example.transactions.client;
+
+import com.example.transactions.config.HedgingProperties;
+import com.example.transactions.loadbalancer.HedgedCallRegistry;
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Hedged reads: when a configured GET method has not answered within its recent delay percentile, a second copy
+// goes out (the balancer sends it to another replica) and the first usable answer wins. The other copy is left
+// to finish and its response is closed, which gives its pooled connection back.
+// Each call earns budgetPercent of a hedge, so hedges stay a fixed share of the traffic even when everything is slow.
+// The call as a whole holds one bulkhead permit (taken by ResilientFeignClient); a hedge takes a second one and keeps it
+// until both copies are done, so the bulkhead bounds the requests really in flight and a full one means no hedge.
+// The X-Hedge-* headers only steer the balancer, withoutHedgeHeaders drops them before the request leaves the service.
+public class HedgingFeignClient implements Client {
+
+    private final Client delegate;
+    private final String clientName;
+    private final HedgingProperties.Policy policy;
+    private final ExecutorService executor;
+    private final Bulkhead bulkhead;
+    private final HedgedCallRegistry hedgedCallRegistry;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, HedgedMethod> methods = new ConcurrentHashMap<>();
+
+    public HedgingFeignClient(Client delegate,
+                              String clientName,
+                              HedgingProperties.Policy policy,
+                              ExecutorService executor,
+                              Bulkhead bulkhead,
+                              HedgedCallRegistry hedgedCallRegistry,
+                              MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.clientName = clientName;
+        this.policy = policy;
+        this.executor = executor;
+        this.bulkhead = bulkhead;
+        this.hedgedCallRegistry = hedgedCallRegistry;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        String method = methodName(request);
+        if (request.httpMethod() != Request.HttpMethod.GET || method == null || !policy.getMethods().contains(method)) {
+            return delegate.execute(request, options);
+        }
+        return methods.computeIfAbsent(method, HedgedMethod::new).execute(request, options);
+    }
+
+    // wraps the client the balancer hands the chosen replica to, so the called service never sees the hedge headers
+    public static Client withoutHedgeHeaders(Client delegate) {
+        return (request, options) -> delegate.execute(stripHedgeHeaders(request), options);
+    }
+
+    private static Request stripHedgeHeaders(Request request) {
+        Map<String, Collection<String>> headers = new LinkedHashMap<>(request.headers());
+        boolean removed = headers.keySet().removeIf(name ->
+                name.equalsIgnoreCase(HedgedCallRegistry.HEDGE_ID_HEADER)
+                        || name.equalsIgnoreCase(HedgedCallRegistry.HEDGE_OF_HEADER));
+        if (!removed) {
+            return request;
+        }
+        return Request.create(request.httpMethod(), request.url(), headers, request.body(), request.charset(),
+                request.requestTemplate());
+    }
+
+    private static String methodName(Request request) {
+        RequestTemplate template = request.requestTemplate();
+        if (template == null || template.methodMetadata() == null || template.methodMetadata().method() == null) {
+            return null;
+        }
+        return template.methodMetadata().method().getName();
+    }
+
+    private static Request withHeader(Request request, String name, String value) {
+        Map<String, Collection<String>> headers = new LinkedHashMap<>(request.headers());
+        headers.put(name, List.of(value));
+        return Request.create(request.httpMethod(), request.url(), headers, request.body(), request.charset(),
+                request.requestTemplate());
+    }
+
+    private static boolean usable(CompletableFuture<Response> copy) {
+        return copy.isDone() && !copy.isCompletedExceptionally() && copy.join().status() < 500;
+    }
+
+    private static Response result(CompletableFuture<Response> copy) throws IOException {
+        try {
+            return copy.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for " + copy);
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    private static IOException rethrow(Throwable cause) {
+        if (cause instanceof UncheckedIOException unchecked) {
+            return unchecked.getCause();
+        }
+        if (cause instanceof IOException io) {
+            return io;
+        }
+        if (cause instanceof RuntimeException runtime) {
+            throw runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IOException(cause);
+    }
+
+    private static void discard(CompletableFuture<Response> copy) {
+        copy.thenAccept(Response::close);
+    }
+
+    // per method state: recent latencies, the hedge budget and the meters
+    private class HedgedMethod {
+
+        private final long[] samples = new long[Math.max(policy.getWindowSize(), 1)];
+        private final ReentrantLock lock = new ReentrantLock();
+        private int next;
+        private int count;
+        private volatile long percentileNanos = -1;
+
+        // in thousandths of a hedge
+        private final long deposit = Math.round(policy.getBudgetPercent() * 10);
+        private final long budgetCap = policy.getBudgetBurst() * 1000L;
+        private final AtomicLong budget = new AtomicLong(budgetCap);
+
+        private final Counter calls;
+        private final Counter hedges;
+        private final Counter wins;
+        private final Counter budgetExhausted;
+        private final Counter bulkheadFull;
+
+        HedgedMethod(String method) {
+            calls = Counter.builder("transactions.hedging.calls")
+                    .tags("client", clientName, "method", method)
+                    .register(meterRegistry);
+            hedges = Counter.builder("transactions.hedging.hedges")
+                    .description("Second copies sent, hedges / calls is the hedge rate")
+                    .tags("client", clientName, "method", method)
+                    .register(meterRegistry);
+            wins = Counter.builder("transactions.hedging.wins")
+                    .description("Calls answered by the second copy, wins / hedges is the win rate")
+                    .tags("client", clientName, "method", method)
+                    .register(meterRegistry);
+            budgetExhausted = Counter.builder("transactions.hedging.budget.exhausted")
+                    .tags("client", clientName, "method", method)
+                    .register(meterRegistry);
+            bulkheadFull = Counter.builder("transactions.hedging.bulkhead.full")
+                    .description("Hedges not sent because the bulkhead had no permit left for the second copy")
+                    .tags("client", clientName, "method", method)
+                    .register(meterRegistry);
+            Gauge.builder("transactions.hedging.delay", this, hedged -> hedged.delayNanos() / 1e6)
+                    .baseUnit("milliseconds")
+                    .tags("client", clientName, "method", method)
+                    .register(meterRegistry);
+        }
+
+        Response execute(Request request, Request.Options options) throws IOException {
+            calls.increment();
+            budget.updateAndGet(current -> Math.min(current + deposit, budgetCap));
+
+            String hedgeId = UUID.randomUUID().toString();
+            long start = System.nanoTime();
+            CompletableFuture<Response> primary =
+                    send(withHeader(request, HedgedCallRegistry.HEDGE_ID_HEADER, hedgeId), options);
+            try {
+                Response response;
+                try {
+                    response = primary.get(delayNanos(), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    response = hedge(request, options, hedgeId, primary);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    discard(primary);
+                    throw new InterruptedIOException("Interrupted while waiting for " + request.url());
+                } catch (ExecutionException e) {
+                    throw rethrow(e.getCause());
+                }
+                if (response.status() < 500) {
+                    record(System.nanoTime() - start);
+                }
+                return response;
+            } finally {
+                hedgedCallRegistry.complete(hedgeId);
+            }
+        }
+
+        private Response hedge(Request request, Request.Options options, String hedgeId,
+                               CompletableFuture<Response> primary) throws IOException {
+            if (!tryWithdraw()) {
+                budgetExhausted.increment();
+                return result(primary);
+            }
+            if (!bulkhead.tryAcquirePermission()) {
+                // the hedge was not sent, give its share of the budget back
+                budget.updateAndGet(current -> Math.min(current + 1000, budgetCap));
+                bulkheadFull.increment();
+                return result(primary);
+            }
+            hedges.increment();
+            CompletableFuture<Response> hedge =
+                    send(withHeader(request, HedgedCallRegistry.HEDGE_OF_HEADER, hedgeId), options);
+            // the losing copy keeps running after the call returns, the permit goes back once both are done
+            CompletableFuture.allOf(primary, hedge).whenComplete((ignored, error) -> bulkhead.onComplete());
+
+            // the first usable answer wins; a failed or 5xx copy only ends the wait once the other one is done too
+            CompletableFuture<Void> decided = new CompletableFuture<>();
+            primary.whenComplete((response, error) -> {
+                if (usable(primary) || hedge.isDone()) {
+                    decided.complete(null);
+                }
+            });
+            hedge.whenComplete((response, error) -> {
+                if (usable(hedge) || primary.isDone()) {
+                    decided.complete(null);
+                }
+            });
+            try {
+                decided.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                discard(primary);
+                discard(hedge);
+                throw new InterruptedIOException("Interrupted while waiting for " + request.url());
+            } catch (ExecutionException e) {
+                throw rethrow(e.getCause());
+            }
+
+            if (!usable(primary) && usable(hedge)) {
+                wins.increment();
+                discard(primary);
+                return hedge.join();
+            }
+            discard(hedge);
+            return result(primary);
+        }
+
+        private CompletableFuture<Response> send(Request request, Request.Options options) {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return delegate.execute(request, options);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, executor);
+        }
+
+        private boolean tryWithdraw() {
+            long current;
+            do {
+                current = budget.get();
+                if (current < 1000) {
+                    return false;
+                }
+            } while (!budget.compareAndSet(current, current - 1000));
+            return true;
+        }
+
+        private long delayNanos() {
+            long percentile = percentileNanos;
+            long delay = percentile < 0 ? TimeUnit.MILLISECONDS.toNanos(policy.getInitialDelayMs()) : percentile;
+            return Math.clamp(delay,
+                    TimeUnit.MILLISECONDS.toNanos(policy.getMinDelayMs()),
+                    TimeUnit.MILLISECONDS.toNanos(policy.getMaxDelayMs()));
+        }
+
+        private void record(long elapsedNanos) {
+            lock.lock();
+            try {
+                samples[next] = elapsedNanos;
+                next = (next + 1) % samples.length;
+                count = Math.min(count + 1, samples.length);
+                // sorting the window on every call is wasted work, the percentile moves slowly
+                if (count >= Math.min(20, samples.length) && next % 16 == 0) {
+                    long[] sorted = Arrays.copyOf(samples, count);
+                    Arrays.sort(sorted);
+                    int index = (int) Math.ceil(policy.getDelayPercentile() / 100 * count) - 1;
+                    percentileNanos = sorted[Math.clamp(index, 0, count - 1)];
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
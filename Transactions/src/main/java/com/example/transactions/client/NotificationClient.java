@@ -6,11 +6,14 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Map;
+import java.util.List;
 
 @FeignClient(name = "notification", path = "/api/notifications")
 public interface NotificationClient {
 
     @PostMapping("/create")
     ResponseEntity<NotificationDto> createNotification(@RequestBody NotificationCreateDto notificationCreateDto);
+
+    @PostMapping("/create-bulk")
+    ResponseEntity<List<String>> createNotifications(@RequestBody List<NotificationCreateDto> notificationCreateDtos);
 }
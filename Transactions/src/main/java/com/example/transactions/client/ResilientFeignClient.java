@@ -0,0 +1,40 @@
+package com.example.transactions.client;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+
+import java.io.IOException;
+
+// Runs every call of a Feign client through the circuit breaker and bulkhead of its service.
+// A call rejected by either never leaves Transactions. It is reported as an IOException, so Feign raises
+// a RetryableException like for an unreachable service and callers take the fallback they already have for that.
+public class ResilientFeignClient implements Client {
+    private final Client delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    public ResilientFeignClient(Client delegate, CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        try {
+            return circuitBreaker.executeCheckedSupplier(
+                    () -> bulkhead.executeCheckedSupplier(() -> delegate.execute(request, options)));
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            throw new IOException(e.getMessage(), e);
+        } catch (IOException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IOException(e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.transactions.config;
+
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class ExecutorConfig {
+
+    // account lookups are blocking Feign calls, one virtual thread per call is enough
+    // the wrapper carries the tracing context over to the worker thread
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService accountLookupExecutor() {
+        ContextSnapshotFactory snapshotFactory = ContextSnapshotFactory.builder().build();
+        return ContextExecutorService.wrap(
+                Executors.newVirtualThreadPerTaskExecutor(),
+                snapshotFactory::captureAll
+        );
+    }
+
+    // both copies of a hedged Feign read run here while the caller waits for the first answer
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService hedgedCallExecutor() {
+        ContextSnapshotFactory snapshotFactory = ContextSnapshotFactory.builder().build();
+        return ContextExecutorService.wrap(
+                Executors.newVirtualThreadPerTaskExecutor(),
+                snapshotFactory::captureAll
+        );
+    }
+}
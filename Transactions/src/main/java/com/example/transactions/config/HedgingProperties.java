@@ -0,0 +1,111 @@
+package com.example.transactions.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Hedged reads of each Feign client, keyed by the client name. Off unless the client lists its methods here.
+@ConfigurationProperties(prefix = "transactions.hedging")
+public class HedgingProperties {
+
+    private Map<String, Policy> clients = new HashMap<>();
+
+    public Map<String, Policy> getClients() {
+        return clients;
+    }
+
+    public void setClients(Map<String, Policy> clients) {
+        this.clients = clients;
+    }
+
+    public static class Policy {
+
+        // client methods that may be sent twice, only idempotent reads belong here; non-GET calls are never hedged
+        private List<String> methods = new ArrayList<>();
+
+        // the second copy goes out once the first one is slower than this percentile of the method's recent calls
+        private double delayPercentile = 95;
+
+        private long minDelayMs = 10;
+
+        private long maxDelayMs = 1000;
+
+        // used until the method has enough samples for the percentile
+        private long initialDelayMs = 200;
+
+        private int windowSize = 200;
+
+        // hedges stay below this share of the method's calls, so a slow service does not get twice the load
+        private double budgetPercent = 10;
+
+        // hedges that can be saved up while the service is fast
+        private int budgetBurst = 10;
+
+        public List<String> getMethods() {
+            return methods;
+        }
+
+        public void setMethods(List<String> methods) {
+            this.methods = methods;
+        }
+
+        public double getDelayPercentile() {
+            return delayPercentile;
+        }
+
+        public void setDelayPercentile(double delayPercentile) {
+            this.delayPercentile = delayPercentile;
+        }
+
+        public long getMinDelayMs() {
+            return minDelayMs;
+        }
+
+        public void setMinDelayMs(long minDelayMs) {
+            this.minDelayMs = minDelayMs;
+        }
+
+        public long getMaxDelayMs() {
+            return maxDelayMs;
+        }
+
+        public void setMaxDelayMs(long maxDelayMs) {
+            this.maxDelayMs = maxDelayMs;
+        }
+
+        public long getInitialDelayMs() {
+            return initialDelayMs;
+        }
+
+        public void setInitialDelayMs(long initialDelayMs) {
+            this.initialDelayMs = initialDelayMs;
+        }
+
+        public int getWindowSize() {
+            return windowSize;
+        }
+
+        public void setWindowSize(int windowSize) {
+            this.windowSize = windowSize;
+        }
+
+        public double getBudgetPercent() {
+            return budgetPercent;
+        }
+
+        public void setBudgetPercent(double budgetPercent) {
+            this.budgetPercent = budgetPercent;
+        }
+
+        public int getBudgetBurst() {
+            return budgetBurst;
+        }
+
+        public void setBudgetBurst(int budgetBurst) {
+            this.budgetBurst = budgetBurst;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.transactions.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Connection pool and timeouts of each Feign client, keyed by the client name (accountmanagement, notification).
+@ConfigurationProperties(prefix = "transactions.http-client")
+public class HttpClientPoolProperties {
+
+    private Map<String, Pool> clients = new HashMap<>();
+
+    public Map<String, Pool> getClients() {
+        return clients;
+    }
+
+    public void setClients(Map<String, Pool> clients) {
+        this.clients = clients;
+    }
+
+    // settings of a client missing from the map
+    public Pool forClient(String name) {
+        return clients.getOrDefault(name, new Pool());
+    }
+
+    public static class Pool {
+
+        private int maxConnections = 50;
+
+        // each replica of the service is a route, so one slow replica cannot take the whole pool
+        private int maxConnectionsPerRoute = 25;
+
+        // how long a call waits for a free pooled connection before failing
+        private long acquireTimeoutMs = 500;
+
+        private long connectTimeoutMs = 1000;
+
+        private long readTimeoutMs = 3000;
+
+        private long timeToLiveMs = 60000;
+
+        private long idleEvictMs = 30000;
+
+        // read timeouts of single client methods, by method name, overriding readTimeoutMs
+        private Map<String, Long> methodReadTimeoutMs = new HashMap<>();
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public int getMaxConnectionsPerRoute() {
+            return maxConnectionsPerRoute;
+        }
+
+        public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+            this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        }
+
+        public long getAcquireTimeoutMs() {
+            return acquireTimeoutMs;
+        }
+
+        public void setAcquireTimeoutMs(long acquireTimeoutMs) {
+            this.acquireTimeoutMs = acquireTimeoutMs;
+        }
+
+        public long getConnectTimeoutMs() {
+            return connectTimeoutMs;
+        }
+
+        public void setConnectTimeoutMs(long connectTimeoutMs) {
+            this.connectTimeoutMs = connectTimeoutMs;
+        }
+
+        public long getReadTimeoutMs() {
+            return readTimeoutMs;
+        }
+
+        public void setReadTimeoutMs(long readTimeoutMs) {
+            this.readTimeoutMs = readTimeoutMs;
+        }
+
+        public long getTimeToLiveMs() {
+            return timeToLiveMs;
+        }
+
+        public void setTimeToLiveMs(long timeToLiveMs) {
+            this.timeToLiveMs = timeToLiveMs;
+        }
+
+        public long getIdleEvictMs() {
+            return idleEvictMs;
+        }
+
+        public void setIdleEvictMs(long idleEvictMs) {
+            this.idleEvictMs = idleEvictMs;
+        }
+
+        public Map<String, Long> getMethodReadTimeoutMs() {
+            return methodReadTimeoutMs;
+        }
+
+        public void setMethodReadTimeoutMs(Map<String, Long> methodReadTimeoutMs) {
+            this.methodReadTimeoutMs = methodReadTimeoutMs;
+        }
+    }
+}
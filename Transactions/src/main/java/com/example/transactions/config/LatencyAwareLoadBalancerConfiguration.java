@@ -0,0 +1,30 @@
+package com.example.transactions.config;
+
+import com.example.transactions.loadbalancer.HedgedCallRegistry;
+import com.example.transactions.loadbalancer.InstanceLatencyTracker;
+import com.example.transactions.loadbalancer.LatencyAwareLoadBalancer;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+// Default load balancer configuration, see @LoadBalancerClients. Like PooledFeignClientConfiguration it is not a
+// @Configuration: Spring Cloud loads it once per service, and it replaces the round robin balancer there.
+// The instance list still comes from the default suppliers (Eureka discovery and caching).
+public class LatencyAwareLoadBalancerConfiguration {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> latencyAwareLoadBalancer(Environment environment,
+                                                                         LoadBalancerClientFactory loadBalancerClientFactory,
+                                                                         InstanceLatencyTracker latencyTracker,
+                                                                         HedgedCallRegistry hedgedCallRegistry) {
+        String serviceId = LoadBalancerClientFactory.getName(environment);
+        return new LatencyAwareLoadBalancer(
+                loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                serviceId,
+                latencyTracker,
+                hedgedCallRegistry);
+    }
+}
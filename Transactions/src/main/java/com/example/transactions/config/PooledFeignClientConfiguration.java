@@ -0,0 +1,109 @@
+package com.example.transactions.config;
+
+import com.example.transactions.client.HedgingFeignClient;
+import com.example.transactions.client.ResilientFeignClient;
+import com.example.transactions.loadbalancer.HedgedCallRegistry;
+import feign.Client;
+import feign.Request;
+import feign.hc5.ApacheHttp5Client;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.cloud.openfeign.loadbalancer.FeignBlockingLoadBalancerClient;
+import org.springframework.context.annotation.Bean;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Default configuration of every Feign client, see @EnableFeignClients.
+// Not a @Configuration on purpose: Spring Cloud loads it once per client, in the client's own context,
+// so each client gets its own keep-alive connection pool and timeouts from transactions.http-client.clients.<name>.
+public class PooledFeignClientConfiguration {
+
+    @Value("${spring.cloud.openfeign.client.name}")
+    private String clientName;
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient pooledHttpClient(HttpClientPoolProperties properties, MeterRegistry meterRegistry) {
+        HttpClientPoolProperties.Pool pool = properties.forClient(clientName);
+
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(pool.getMaxConnections())
+                .setMaxConnPerRoute(pool.getMaxConnectionsPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(pool.getConnectTimeoutMs()))
+                        .setTimeToLive(TimeValue.ofMilliseconds(pool.getTimeToLiveMs()))
+                        // a replica that went away leaves dead sockets in the pool, check them before reuse
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+
+        // httpcomponents.httpclient.pool.* gauges, total.pending > 0 means calls are waiting for a connection
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, clientName).bindTo(meterRegistry);
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(pool.getAcquireTimeoutMs()))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(pool.getIdleEvictMs()))
+                .build();
+    }
+
+    // the pooled client still goes through the load balancer, it resolves the service name to a replica;
+    // the breaker sits outside it so a service with no live replica counts as failing too;
+    // hedging sits between them, both copies are balanced separately but the breaker sees one call;
+    // the bulkhead is shared, the hedge takes its own permit from it;
+    // the hedge headers are dropped below the balancer, once they have steered it
+    @Bean
+    public Client feignClient(CloseableHttpClient pooledHttpClient,
+                              LoadBalancerClient loadBalancerClient,
+                              LoadBalancerClientFactory loadBalancerClientFactory,
+                              CircuitBreakerRegistry circuitBreakerRegistry,
+                              BulkheadRegistry bulkheadRegistry,
+                              HedgingProperties hedgingProperties,
+                              @Qualifier("hedgedCallExecutor") ExecutorService hedgedCallExecutor,
+                              HedgedCallRegistry hedgedCallRegistry,
+                              MeterRegistry meterRegistry) {
+        Client client = new FeignBlockingLoadBalancerClient(
+                HedgingFeignClient.withoutHedgeHeaders(new ApacheHttp5Client(pooledHttpClient)),
+                loadBalancerClient, loadBalancerClientFactory);
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(clientName);
+        HedgingProperties.Policy hedging = hedgingProperties.getClients().get(clientName);
+        if (hedging != null && !hedging.getMethods().isEmpty()) {
+            client = new HedgingFeignClient(client, clientName, hedging, hedgedCallExecutor, bulkhead,
+                    hedgedCallRegistry, meterRegistry);
+        }
+        return new ResilientFeignClient(client, circuitBreakerRegistry.circuitBreaker(clientName), bulkhead);
+    }
+
+    // ApacheHttp5Client applies these per request, so a method can have a longer or shorter read timeout than the client
+    @Bean
+    public Request.Options feignRequestOptions(HttpClientPoolProperties properties) {
+        HttpClientPoolProperties.Pool pool = properties.forClient(clientName);
+
+        Request.Options options = options(pool.getConnectTimeoutMs(), pool.getReadTimeoutMs());
+        pool.getMethodReadTimeoutMs().forEach((method, readTimeoutMs) ->
+                options.setMethodOptions(method, options(pool.getConnectTimeoutMs(), readTimeoutMs)));
+        return options;
+    }
+
+    private static Request.Options options(long connectTimeoutMs, long readTimeoutMs) {
+        return new Request.Options(connectTimeoutMs, TimeUnit.MILLISECONDS, readTimeoutMs, TimeUnit.MILLISECONDS, true);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.transactions.config;
+
+import feign.Response;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.circuitbreaker.event.CircuitBreakerOnStateTransitionEvent;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class ResilienceConfig {
+    private static final Logger log = LoggerFactory.getLogger(ResilienceConfig.class);
+
+    // one breaker per downstream service, created up front so its metrics exist before the first call
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(circuitBreakerConfig(new ResilienceProperties.Policy()));
+        // the state gauges miss a breaker that opened and closed again between two scrapes, the counter does not
+        registry.getEventPublisher().onEntryAdded(added -> added.getAddedEntry().getEventPublisher()
+                .onStateTransition(event -> onStateTransition(event, meterRegistry)));
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+
+        properties.getClients().forEach((name, policy) -> registry.circuitBreaker(name, circuitBreakerConfig(policy)));
+        return registry;
+    }
+
+    @Bean
+    public BulkheadRegistry bulkheadRegistry(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        BulkheadRegistry registry = BulkheadRegistry.of(bulkheadConfig(new ResilienceProperties.Policy()));
+        TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+
+        properties.getClients().forEach((name, policy) -> registry.bulkhead(name, bulkheadConfig(policy)));
+        return registry;
+    }
+
+    private static CircuitBreakerConfig circuitBreakerConfig(ResilienceProperties.Policy policy) {
+        return CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(policy.getSlidingWindowSize())
+                .minimumNumberOfCalls(policy.getMinimumNumberOfCalls())
+                .failureRateThreshold(policy.getFailureRateThreshold())
+                .slowCallDurationThreshold(Duration.ofMillis(policy.getSlowCallMs()))
+                .slowCallRateThreshold(policy.getSlowCallRateThreshold())
+                .waitDurationInOpenState(Duration.ofMillis(policy.getOpenStateMs()))
+                .permittedNumberOfCallsInHalfOpenState(policy.getHalfOpenCalls())
+                // callers such as the outbox relay stop calling while the breaker is open, so it must reopen by itself
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                // a 5xx answer is a sick service as much as a timeout, a 4xx is the caller's fault
+                .recordResult(result -> result instanceof Response response && response.status() >= 500)
+                // a full bulkhead means we are busy, not that the service is failing
+                .ignoreExceptions(BulkheadFullException.class)
+                .build();
+    }
+
+    private static BulkheadConfig bulkheadConfig(ResilienceProperties.Policy policy) {
+        return BulkheadConfig.custom()
+                .maxConcurrentCalls(policy.getMaxConcurrentCalls())
+                .maxWaitDuration(Duration.ofMillis(policy.getMaxWaitMs()))
+                .build();
+    }
+
+    private static void onStateTransition(CircuitBreakerOnStateTransitionEvent event, MeterRegistry meterRegistry) {
+        String from = event.getStateTransition().getFromState().name();
+        String to = event.getStateTransition().getToState().name();
+        meterRegistry.counter("transactions.circuitbreaker.transitions",
+                "name", event.getCircuitBreakerName(), "from", from, "to", to).increment();
+        log.warn("Circuit breaker {} went from {} to {}", event.getCircuitBreakerName(), from, to);
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.transactions.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Circuit breaker and bulkhead of each Feign client, keyed by the client name (accountmanagement, notification).
+@ConfigurationProperties(prefix = "transactions.resilience")
+public class ResilienceProperties {
+
+    private Map<String, Policy> clients = new HashMap<>();
+
+    public Map<String, Policy> getClients() {
+        return clients;
+    }
+
+    public void setClients(Map<String, Policy> clients) {
+        this.clients = clients;
+    }
+
+    public static class Policy {
+
+        // percentage of failed calls in the window that opens the breaker
+        private float failureRateThreshold = 50;
+
+        // calls slower than this count as slow, too many slow calls also open the breaker
+        private long slowCallMs = 2000;
+
+        private float slowCallRateThreshold = 80;
+
+        private int slidingWindowSize = 20;
+
+        private int minimumNumberOfCalls = 10;
+
+        // how long the breaker stays open before letting a few probe calls through
+        private long openStateMs = 10000;
+
+        private int halfOpenCalls = 3;
+
+        // bulkhead: calls in flight to this service at the same time, the rest are rejected
+        private int maxConcurrentCalls = 25;
+
+        private long maxWaitMs = 0;
+
+        public float getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+
+        public void setFailureRateThreshold(float failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+
+        public long getSlowCallMs() {
+            return slowCallMs;
+        }
+
+        public void setSlowCallMs(long slowCallMs) {
+            this.slowCallMs = slowCallMs;
+        }
+
+        public float getSlowCallRateThreshold() {
+            return slowCallRateThreshold;
+        }
+
+        public void setSlowCallRateThreshold(float slowCallRateThreshold) {
+            this.slowCallRateThreshold = slowCallRateThreshold;
+        }
+
+        public int getSlidingWindowSize() {
+            return slidingWindowSize;
+        }
+
+        public void setSlidingWindowSize(int slidingWindowSize) {
+            this.slidingWindowSize = slidingWindowSize;
+        }
+
+        public int getMinimumNumberOfCalls() {
+            return minimumNumberOfCalls;
+        }
+
+        public void setMinimumNumberOfCalls(int minimumNumberOfCalls) {
+            this.minimumNumberOfCalls = minimumNumberOfCalls;
+        }
+
+        public long getOpenStateMs() {
+            return openStateMs;
+        }
+
+        public void setOpenStateMs(long openStateMs) {
+            this.openStateMs = openStateMs;
+        }
+
+        public int getHalfOpenCalls() {
+            return halfOpenCalls;
+        }
+
+        public void setHalfOpenCalls(int halfOpenCalls) {
+            this.halfOpenCalls = halfOpenCalls;
+        }
+
+        public int getMaxConcurrentCalls() {
+            return maxConcurrentCalls;
+        }
+
+        public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+            this.maxConcurrentCalls = maxConcurrentCalls;
+        }
+
+        public long getMaxWaitMs() {
+            return maxWaitMs;
+        }
+
+        public void setMaxWaitMs(long maxWaitMs) {
+            this.maxWaitMs = maxWaitMs;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.transactions.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// transactions.id used to be an IDENTITY column, so on databases created before the switch
+// to transactions_seq the sequence must first be moved past the ids that already exist
+@Component
+public class TransactionSequenceInitializer implements ApplicationRunner {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        jdbcTemplate.execute(
+                "SELECT setval('transactions_seq', max_id) " +
+                "FROM (SELECT COALESCE(MAX(id), 0) AS max_id FROM transactions) existing " +
+                "WHERE existing.max_id > (SELECT last_value FROM transactions_seq)");
+    }
+}
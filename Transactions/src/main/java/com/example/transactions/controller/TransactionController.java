@@ -2,18 +2,29 @@ package com.example.transactions.controller;
 
 import com.example.transactions.dto.request.PutTransactionDto;
 import com.example.transactions.dto.request.PostTransactionDto;
+import com.example.transactions.dto.response.BulkImportResultDto;
 import com.example.transactions.dto.response.ModifyTransactionCurrencyDto;
 import com.example.transactions.dto.response.TransactionDto;
+import com.example.transactions.dto.response.TransactionPageDto;
 import com.example.transactions.enums.Currency;
+import com.example.transactions.enums.TransactionStatus;
 import com.example.transactions.enums.TransactionType;
 import com.example.transactions.service.ITransactionService;
+import com.example.transactions.service.IdempotencyService;
+import com.example.transactions.service.TransactionImportService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping(path = "/api/transactions")
@@ -23,17 +34,40 @@ import java.math.BigDecimal;
         content = @io.swagger.v3.oas.annotations.media.Content
 )
 public class TransactionController {
+    // retried POSTs carrying the same key get the first response back instead of a second transaction
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     @Autowired
     private ITransactionService transactionService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private TransactionImportService transactionImportService;
+
     // CRUD operations
     @PostMapping("/post")
     @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN')")
-    public ResponseEntity<TransactionDto> postTransaction(@RequestBody PostTransactionDto postTransactionDto) {
-        TransactionDto createdTransaction = transactionService.postTransaction(postTransactionDto);
+    public ResponseEntity<TransactionDto> postTransaction(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestBody PostTransactionDto postTransactionDto) {
+        return idempotencyService.execute("post", idempotencyKey, postTransactionDto, TransactionDto.class, () -> {
+            TransactionDto createdTransaction = transactionService.postTransaction(postTransactionDto);
+            return ResponseEntity
+                    .status(HttpStatus.CREATED)
+                    .body(createdTransaction);
+        });
+    }
+
+    // file imports, the body is a JSON array or NDJSON and is read as a stream
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkImportResultDto> importTransactions(InputStream body) {
+        BulkImportResultDto result = transactionImportService.importTransactions(body);
         return ResponseEntity
-                .status(HttpStatus.CREATED)
-                .body(createdTransaction);
+                .status(HttpStatus.OK)
+                .body(result);
     }
 
     @PutMapping("/put/{transactionId}")
@@ -62,6 +96,22 @@ public class TransactionController {
                 .body(transaction);
     }
 
+    @GetMapping("/history")
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN')")
+    public ResponseEntity<TransactionPageDto> getTransactionHistory(
+            @RequestParam("accountNumber") String accountNumber,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) TransactionStatus status,
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        TransactionPageDto history = transactionService.fetchTransactionHistory(accountNumber, cursor, limit, status, type, from, to);
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(history);
+    }
+
     @DeleteMapping("/close/{transactionId}")
     @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN')")
     public ResponseEntity<String> cancelTransaction(@PathVariable("transactionId") String transactionId) {
@@ -137,6 +187,15 @@ public class TransactionController {
                 .body("Calculated fees: " + fees.toString());
     }
 
+    @PostMapping("/calculate-fees")
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN')")
+    public ResponseEntity<Map<String, BigDecimal>> calculateFees(@RequestBody List<String> transactionIds) {
+        Map<String, BigDecimal> fees = transactionService.calculateTransactionAmounts(transactionIds);
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(fees);
+    }
+
     @GetMapping("/anti-fraud-check/{transactionId}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<String> antiFraudCheck(@PathVariable("transactionId") String transactionId) {
@@ -146,14 +205,27 @@ public class TransactionController {
                 .body("Anti fraud score:" + checkResult);
     }
 
+    @PostMapping("/anti-fraud-check")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, BigDecimal>> antiFraudCheck(@RequestBody List<String> transactionIds) {
+        Map<String, BigDecimal> scores = transactionService.antiFraudCheck(transactionIds);
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(scores);
+    }
+
     // extra endpoints with external connection
     @PostMapping("/create_with_account_details")
     @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN')")
-    public ResponseEntity<String> createWithAccountDetails(@RequestBody PostTransactionDto postTransactionDto) {
-        String transactionDetails = transactionService.postTransactionWithAccountDetails(postTransactionDto);
-        return ResponseEntity
-                .status(HttpStatus.CREATED)
-                .body(transactionDetails);
+    public ResponseEntity<String> createWithAccountDetails(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestBody PostTransactionDto postTransactionDto) {
+        return idempotencyService.execute("create_with_account_details", idempotencyKey, postTransactionDto, String.class, () -> {
+            String transactionDetails = transactionService.postTransactionWithAccountDetails(postTransactionDto);
+            return ResponseEntity
+                    .status(HttpStatus.CREATED)
+                    .body(transactionDetails);
+        });
     }
 
     @GetMapping("/get_with_account_details/{transactionId}")
@@ -169,10 +241,24 @@ public class TransactionController {
 
     @PostMapping("/create_with_notification")
     @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN')")
-    public ResponseEntity<String> createWithNotification(@RequestBody PostTransactionDto postTransactionDto) {
-        String transactionDetails = transactionService.postTransactionWithNotification(postTransactionDto);
+    public ResponseEntity<String> createWithNotification(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestBody PostTransactionDto postTransactionDto) {
+        return idempotencyService.execute("create_with_notification", idempotencyKey, postTransactionDto, String.class, () -> {
+            String transactionDetails = transactionService.postTransactionWithNotification(postTransactionDto);
+            return ResponseEntity
+                    .status(HttpStatus.CREATED)
+                    .body(transactionDetails);
+        });
+    }
+
+    // internal endpoint used by the account service to drop stale cached accounts
+    @DeleteMapping("/account-cache/{accountNumber}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<String> evictCachedAccount(@PathVariable("accountNumber") String accountNumber) {
+        transactionService.evictCachedAccount(accountNumber);
         return ResponseEntity
-                .status(HttpStatus.CREATED)
-                .body(transactionDetails);
+                .status(HttpStatus.OK)
+                .body("Account evicted from cache");
     }
 }
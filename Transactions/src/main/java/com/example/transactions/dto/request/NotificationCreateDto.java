@@ -16,6 +16,8 @@ public class NotificationCreateDto {
     private LocalDateTime scheduledAt;
     private Long relatedAccountId;
     private Long relatedTransactionId;
+    // the notification service keeps one notification per key, a resent outbox row is not inserted twice
+    private String deduplicationKey;
 
 
     public NotificationCreateDto() {
@@ -130,4 +132,12 @@ public class NotificationCreateDto {
     public void setRelatedTransactionId(Long relatedTransactionId) {
         this.relatedTransactionId = relatedTransactionId;
     }
-}
\ No newline at end of file
+
+    public String getDeduplicationKey() {
+        return deduplicationKey;
+    }
+
+    public void setDeduplicationKey(String deduplicationKey) {
+        this.deduplicationKey = deduplicationKey;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.transactions.dto.response;
+
+import java.util.List;
+
+public class BulkImportResultDto {
+    private int received;
+    private int imported;
+    private int rejected;
+    private List<BulkImportRowDto> rows;
+
+    public BulkImportResultDto(int received, int imported, int rejected, List<BulkImportRowDto> rows) {
+        this.received = received;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.rows = rows;
+    }
+
+    public int getReceived() {
+        return received;
+    }
+
+    public void setReceived(int received) {
+        this.received = received;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<BulkImportRowDto> getRows() {
+        return rows;
+    }
+
+    public void setRows(List<BulkImportRowDto> rows) {
+        this.rows = rows;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.transactions.dto.response;
+
+public class BulkImportRowDto {
+    private int row;
+    private String transactionId;
+    private String error;
+
+    public BulkImportRowDto(int row, String transactionId, String error) {
+        this.row = row;
+        this.transactionId = transactionId;
+        this.error = error;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public void setRow(int row) {
+        this.row = row;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(String transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
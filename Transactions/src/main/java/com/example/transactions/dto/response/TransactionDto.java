@@ -5,6 +5,7 @@ import com.example.transactions.enums.TransactionStatus;
 import com.example.transactions.enums.TransactionType;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 public class TransactionDto {
     private String transactionId;
@@ -18,6 +19,7 @@ public class TransactionDto {
     private String description;
     private TransactionStatus status;
     private String failureReason;
+    private LocalDateTime initiatedAt;
 
     public TransactionDto(
             String toAccountId,
@@ -127,4 +129,12 @@ public class TransactionDto {
     public void setFailureReason(String failureReason) {
         this.failureReason = failureReason;
     }
+
+    public LocalDateTime getInitiatedAt() {
+        return initiatedAt;
+    }
+
+    public void setInitiatedAt(LocalDateTime initiatedAt) {
+        this.initiatedAt = initiatedAt;
+    }
 }
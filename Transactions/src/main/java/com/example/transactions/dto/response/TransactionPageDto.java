@@ -0,0 +1,29 @@
+package com.example.transactions.dto.response;
+
+import java.util.List;
+
+public class TransactionPageDto {
+    private List<TransactionDto> items;
+    private String nextCursor;
+
+    public TransactionPageDto(List<TransactionDto> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<TransactionDto> getItems() {
+        return items;
+    }
+
+    public void setItems(List<TransactionDto> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
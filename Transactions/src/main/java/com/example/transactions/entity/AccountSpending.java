@@ -0,0 +1,39 @@
+package com.example.transactions.entity;
+
+import com.example.transactions.enums.SpendingPeriod;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// running total of completed outgoing payments of one account, per calendar day or month
+@Entity
+@Table(name = "account_spending", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_account_spending_bucket", columnNames = {"account_number", "period", "period_start"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountSpending {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_number", nullable = false, length = 30)
+    private String accountNumber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "period", nullable = false, length = 10)
+    private SpendingPeriod period;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(name = "total", nullable = false, precision = 15, scale = 2)
+    private BigDecimal total;
+}
@@ -0,0 +1,76 @@
+package com.example.transactions.entity;
+
+import com.example.transactions.enums.OutboxStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "notification_outbox", indexes = {
+        @Index(name = "idx_notification_outbox_status_id", columnList = "status, id"),
+        @Index(name = "idx_notification_outbox_status_next_attempt_at", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_notification_outbox_claim_token", columnList = "claim_token")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "transaction_id", nullable = false, length = 50)
+    private String transactionId;
+
+    // serialized NotificationCreateDto, sent as-is to the notification service
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "last_error", length = 255)
+    private String lastError;
+
+    // a failed row is not picked up again before this, null means it is due right away
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    // set while a relay is sending the row, another relay only takes it over once this has passed
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+
+    // identifies the relay pass that claimed the row, so it reads back exactly the rows it claimed
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (status == null) {
+            status = OutboxStatus.PENDING;
+        }
+        if (attempts == null) {
+            attempts = 0;
+        }
+    }
+}
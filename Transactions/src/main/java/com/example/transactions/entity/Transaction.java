@@ -10,17 +10,24 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "Transactions")
+@Table(name = "Transactions", indexes = {
+        @Index(name = "idx_transactions_from_account_initiated_at", columnList = "from_account_number, initiated_at, id"),
+        @Index(name = "idx_transactions_to_account_initiated_at", columnList = "to_account_number, initiated_at, id"),
+        @Index(name = "idx_transactions_status_scored_at", columnList = "status, scored_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Transaction {
+    // pooled sequence so bulk imports can batch their inserts, IDENTITY forces one round trip per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "transaction_id", unique = true, nullable = false, length = 50)
@@ -71,6 +78,22 @@ public class Transaction {
     @Column(name = "failure_reason", length = 255)
     private String failureReason;
 
+    // filled in by the background fraud scoring, null until the completed transaction is scored
+    @Column(name = "risk_score", precision = 5, scale = 4)
+    private BigDecimal riskScore;
+
+    @Column(name = "scored_at")
+    private LocalDateTime scoredAt;
+
+    // set when an execute claims the transaction, a claim older than the lease can be taken over
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    // day the amount was reserved against the spending limits, kept while the transfer outcome is unknown
+    // so a retried execute does not reserve it a second time
+    @Column(name = "spending_reserved_on")
+    private LocalDate spendingReservedOn;
+
     @PrePersist
     protected void onCreate() {
         if (initiatedAt == null) {
@@ -203,4 +226,36 @@ public class Transaction {
     public void setFailureReason(String failureReason) {
         this.failureReason = failureReason;
     }
+
+    public BigDecimal getRiskScore() {
+        return riskScore;
+    }
+
+    public void setRiskScore(BigDecimal riskScore) {
+        this.riskScore = riskScore;
+    }
+
+    public LocalDateTime getScoredAt() {
+        return scoredAt;
+    }
+
+    public void setScoredAt(LocalDateTime scoredAt) {
+        this.scoredAt = scoredAt;
+    }
+
+    public LocalDateTime getClaimedAt() {
+        return claimedAt;
+    }
+
+    public void setClaimedAt(LocalDateTime claimedAt) {
+        this.claimedAt = claimedAt;
+    }
+
+    public LocalDate getSpendingReservedOn() {
+        return spendingReservedOn;
+    }
+
+    public void setSpendingReservedOn(LocalDate spendingReservedOn) {
+        this.spendingReservedOn = spendingReservedOn;
+    }
 }
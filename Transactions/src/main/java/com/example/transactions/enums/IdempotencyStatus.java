@@ -0,0 +1,6 @@
+package com.example.transactions.enums;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS,
+    COMPLETED
+}
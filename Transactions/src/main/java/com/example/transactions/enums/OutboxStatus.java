@@ -0,0 +1,7 @@
+package com.example.transactions.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
@@ -4,5 +4,7 @@ public enum TransactionStatus {
     PENDING,
     COMPLETED,
     FAILED,
-    CANCELLED
+    CANCELLED,
+    // claimed by an execute, the transfer is in flight
+    PROCESSING
 }
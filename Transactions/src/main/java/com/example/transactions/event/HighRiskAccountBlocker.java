@@ -0,0 +1,44 @@
+package com.example.transactions.event;
+
+import com.example.transactions.client.AccountClient;
+import com.example.transactions.service.AccountCacheService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class HighRiskAccountBlocker {
+    private static final Logger log = LoggerFactory.getLogger(HighRiskAccountBlocker.class);
+
+    @Autowired
+    private AccountClient accountClient;
+
+    @Autowired
+    private AccountCacheService accountCacheService;
+
+    @Value("${transactions.fraud.auto-block:true}")
+    private boolean autoBlock;
+
+    // runs after commit so the scoring batch does not hold its row locks during the remote call
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onHighRiskTransaction(HighRiskTransactionEvent event) {
+        if (!autoBlock) {
+            log.warn("Transaction {} scored {} for account {}, automatic block is disabled",
+                    event.getTransactionId(), event.getRiskScore(), event.getAccountNumber());
+            return;
+        }
+        try {
+            accountClient.blockAccount(event.getAccountNumber(),
+                    "Automatic fraud block: transaction " + event.getTransactionId() + " scored " + event.getRiskScore());
+            accountCacheService.evict(event.getAccountNumber());
+        } catch (Exception e) {
+            // the score is already stored, the account can still be blocked by hand from the fraud check
+            log.warn("Failed to block account {} after transaction {}: {}",
+                    event.getAccountNumber(), event.getTransactionId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.transactions.event;
+
+import java.math.BigDecimal;
+
+// published when a scored transaction reaches the automatic block threshold
+public class HighRiskTransactionEvent {
+    private final String transactionId;
+    private final String accountNumber;
+    private final BigDecimal riskScore;
+
+    public HighRiskTransactionEvent(String transactionId, String accountNumber, BigDecimal riskScore) {
+        this.transactionId = transactionId;
+        this.accountNumber = accountNumber;
+        this.riskScore = riskScore;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    public BigDecimal getRiskScore() {
+        return riskScore;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.transactions.fraud;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+// recent outgoing activity of one account, oldest first, bounded by age and by number of samples
+// only the scoring thread touches a window, so it is not synchronized
+public class AccountActivityWindow {
+    private final int maxSamples;
+    private final Deque<Activity> activities = new ArrayDeque<>();
+
+    public AccountActivityWindow(int maxSamples) {
+        this.maxSamples = maxSamples;
+    }
+
+    // an independent window with the same activity, changes to either one do not reach the other
+    public AccountActivityWindow copy() {
+        AccountActivityWindow copy = new AccountActivityWindow(maxSamples);
+        copy.activities.addAll(activities);
+        return copy;
+    }
+
+    public void add(LocalDateTime at, double amount, String counterparty) {
+        activities.addLast(new Activity(at, amount, counterparty));
+        while (activities.size() > maxSamples) {
+            activities.removeFirst();
+        }
+    }
+
+    public void evictBefore(LocalDateTime cutoff) {
+        while (!activities.isEmpty() && activities.peekFirst().at().isBefore(cutoff)) {
+            activities.removeFirst();
+        }
+    }
+
+    public int size() {
+        return activities.size();
+    }
+
+    public int countSince(LocalDateTime since) {
+        int count = 0;
+        for (Activity activity : activities) {
+            if (!activity.at().isBefore(since)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public boolean hasCounterparty(String counterparty) {
+        for (Activity activity : activities) {
+            if (counterparty.equals(activity.counterparty())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // how many standard deviations the amount is above the window's mean, 0 for a flat or empty window
+    public double zScore(double amount) {
+        int n = activities.size();
+        if (n == 0) {
+            return 0;
+        }
+        double sum = 0;
+        double sumOfSquares = 0;
+        for (Activity activity : activities) {
+            sum += activity.amount();
+            sumOfSquares += activity.amount() * activity.amount();
+        }
+        double mean = sum / n;
+        double variance = Math.max(0, sumOfSquares / n - mean * mean);
+        double deviation = Math.sqrt(variance);
+        return deviation == 0 ? 0 : (amount - mean) / deviation;
+    }
+
+    private record Activity(LocalDateTime at, double amount, String counterparty) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.transactions.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Remembers which instance got the first copy of a hedged call, so the balancer can send the second copy
+// to another one. The hedging client tags the first copy with X-Hedge-Id and the second with X-Hedge-Of.
+@Component
+public class HedgedCallRegistry {
+
+    public static final String HEDGE_ID_HEADER = "X-Hedge-Id";
+    public static final String HEDGE_OF_HEADER = "X-Hedge-Of";
+
+    // a call whose first copy was never balanced (rejected before the balancer) leaves its tombstone this long
+    private static final long TOMBSTONE_TTL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Map<String, Entry> primaries = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+
+    public void primaryChosen(String hedgeId, ServiceInstance instance) {
+        // the call may already be over (the hedge won first), then its tombstone is cleared instead
+        primaries.compute(hedgeId, (id, entry) -> entry != null && entry.instance() == null ? null : new Entry(instance, 0));
+    }
+
+    // null when the first copy has not been balanced yet or the call is already over
+    public ServiceInstance primaryOf(String hedgeId) {
+        Entry entry = primaries.get(hedgeId);
+        return entry != null ? entry.instance() : null;
+    }
+
+    // called by the hedging client once the call is over, whether it was hedged or not;
+    // if the first copy has not been balanced yet a tombstone stops primaryChosen from adding it afterwards
+    public void complete(String hedgeId) {
+        long now = System.nanoTime();
+        primaries.compute(hedgeId, (id, entry) -> entry == null ? new Entry(null, now) : null);
+
+        long last = lastSweep.get();
+        if (now - last > TOMBSTONE_TTL_NANOS && lastSweep.compareAndSet(last, now)) {
+            primaries.values().removeIf(entry -> entry.instance() == null && now - entry.completedAt() > TOMBSTONE_TTL_NANOS);
+        }
+    }
+
+    // calls whose first copy is known, tombstones are not counted
+    public int size() {
+        return (int) primaries.values().stream().filter(entry -> entry.instance() != null).count();
+    }
+
+    static boolean sameInstance(ServiceInstance first, ServiceInstance second) {
+        if (first.getInstanceId() != null && second.getInstanceId() != null) {
+            return first.getInstanceId().equals(second.getInstanceId());
+        }
+        return Objects.equals(first.getHost(), second.getHost()) && first.getPort() == second.getPort();
+    }
+
+    // instance is null for a tombstone, completedAt is only set on one
+    private record Entry(ServiceInstance instance, long completedAt) {
+    }
+}
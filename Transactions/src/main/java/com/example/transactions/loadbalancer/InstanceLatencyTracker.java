@@ -0,0 +1,151 @@
+package com.example.transactions.loadbalancer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Response time and in-flight calls of every service instance, fed by the load balancer lifecycle callbacks
+// of the Feign clients. The response time is a peak EWMA: a slower sample replaces it at once, faster ones pull it
+// down gradually, and it decays while no samples come in, so an instance that was slow is tried again later.
+@Component
+public class InstanceLatencyTracker implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+    private final Map<String, InstanceStats> stats = new ConcurrentHashMap<>();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${transactions.loadbalancer.decay-ms:10000}")
+    private long decayMs;
+
+    // a failed call counts as at least this slow, so an instance answering errors fast does not attract traffic
+    @Value("${transactions.loadbalancer.failure-penalty-ms:1000}")
+    private long failurePenaltyMs;
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (!lbResponse.hasServer()) {
+            return;
+        }
+        if (request.getContext() instanceof TimedRequestContext context && context.getRequestStartTime() == 0) {
+            context.setRequestStartTime(System.nanoTime());
+        }
+        statsFor(lbResponse.getServer()).inFlight.incrementAndGet();
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (completionContext.status() == CompletionContext.Status.DISCARD || lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        InstanceStats instance = statsFor(lbResponse.getServer());
+        instance.inFlight.decrementAndGet();
+
+        if (!(completionContext.getLoadBalancerRequest().getContext() instanceof TimedRequestContext context)
+                || context.getRequestStartTime() == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        long elapsed = now - context.getRequestStartTime();
+        if (isFailure(completionContext)) {
+            elapsed = Math.max(elapsed, TimeUnit.MILLISECONDS.toNanos(failurePenaltyMs));
+        }
+        instance.observe(elapsed, now, decayNanos());
+    }
+
+    // decayed response time in nanoseconds, negative while the instance has no samples yet
+    public double latencyNanos(ServiceInstance instance) {
+        InstanceStats found = stats.get(key(instance));
+        return found != null ? found.latency(System.nanoTime(), decayNanos()) : -1;
+    }
+
+    public int inFlight(ServiceInstance instance) {
+        InstanceStats found = stats.get(key(instance));
+        return found != null ? found.inFlight.get() : 0;
+    }
+
+    private boolean isFailure(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        if (completionContext.status() == CompletionContext.Status.FAILED) {
+            return true;
+        }
+        return completionContext.getClientResponse() instanceof ResponseData response
+                && response.getHttpStatus() != null
+                && response.getHttpStatus().is5xxServerError();
+    }
+
+    private InstanceStats statsFor(ServiceInstance instance) {
+        return stats.computeIfAbsent(key(instance), key -> register(instance, new InstanceStats()));
+    }
+
+    private InstanceStats register(ServiceInstance instance, InstanceStats instanceStats) {
+        Gauge.builder("transactions.loadbalancer.latency", instanceStats,
+                        s -> Math.max(s.latency(System.nanoTime(), decayNanos()), 0) / 1_000_000)
+                .tag("service", instance.getServiceId())
+                .tag("instance", key(instance))
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("transactions.loadbalancer.in.flight", instanceStats.inFlight, AtomicInteger::get)
+                .tag("service", instance.getServiceId())
+                .tag("instance", key(instance))
+                .register(meterRegistry);
+        return instanceStats;
+    }
+
+    private long decayNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(decayMs);
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getInstanceId() != null ? instance.getInstanceId() : instance.getHost() + ":" + instance.getPort();
+    }
+
+    private static class InstanceStats {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicReference<Ewma> ewma = new AtomicReference<>(new Ewma(-1, 0));
+
+        void observe(long elapsedNanos, long now, long decayNanos) {
+            ewma.updateAndGet(current -> {
+                if (elapsedNanos > current.nanos()) {
+                    return new Ewma(elapsedNanos, now);
+                }
+                double weight = Math.exp(-(double) (now - current.at()) / decayNanos);
+                return new Ewma(current.nanos() * weight + elapsedNanos * (1 - weight), now);
+            });
+        }
+
+        double latency(long now, long decayNanos) {
+            Ewma current = ewma.get();
+            if (current.nanos() < 0) {
+                return -1;
+            }
+            return current.nanos() * Math.exp(-(double) (now - current.at()) / decayNanos);
+        }
+    }
+
+    private record Ewma(double nanos, long at) {
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.transactions.loadbalancer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.http.HttpHeaders;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Power of two choices: picks two instances at random and sends the call to the one with the lower
+// cost, its response time times its in-flight calls plus one. A replica in a GC pause quickly gets a high
+// response time and a growing in-flight count, so new calls go to the other one instead of waiting in turn.
+// The second copy of a hedged call never goes to the instance that got the first one.
+public class LatencyAwareLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+    private static final Logger log = LoggerFactory.getLogger(LatencyAwareLoadBalancer.class);
+
+    private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+    private final String serviceId;
+    private final InstanceLatencyTracker latencyTracker;
+    private final HedgedCallRegistry hedgedCallRegistry;
+
+    public LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+                                    String serviceId,
+                                    InstanceLatencyTracker latencyTracker,
+                                    HedgedCallRegistry hedgedCallRegistry) {
+        this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+        this.serviceId = serviceId;
+        this.latencyTracker = latencyTracker;
+        this.hedgedCallRegistry = hedgedCallRegistry;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = serviceInstanceListSupplierProvider
+                .getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(instances -> {
+            Response<ServiceInstance> response = choose(instances, headers(request));
+            if (supplier instanceof SelectedInstanceCallback callback && response.hasServer()) {
+                callback.selectedServiceInstance(response.getServer());
+            }
+            return response;
+        });
+    }
+
+    Response<ServiceInstance> choose(List<ServiceInstance> instances, HttpHeaders headers) {
+        String hedgeOf = headers.getFirst(HedgedCallRegistry.HEDGE_OF_HEADER);
+        if (hedgeOf != null) {
+            ServiceInstance primary = hedgedCallRegistry.primaryOf(hedgeOf);
+            List<ServiceInstance> others = primary == null ? instances : instances.stream()
+                    .filter(instance -> !HedgedCallRegistry.sameInstance(instance, primary))
+                    .toList();
+            // a single replica has nowhere else to send the copy, the hedge fails at once and the first copy wins
+            return others.isEmpty() ? new EmptyResponse() : choose(others);
+        }
+
+        Response<ServiceInstance> response = choose(instances);
+        String hedgeId = headers.getFirst(HedgedCallRegistry.HEDGE_ID_HEADER);
+        if (hedgeId != null && response.hasServer()) {
+            hedgedCallRegistry.primaryChosen(hedgeId, response.getServer());
+        }
+        return response;
+    }
+
+    Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            log.warn("No servers available for service: {}", serviceId);
+            return new EmptyResponse();
+        }
+        if (instances.size() == 1) {
+            return new DefaultResponse(instances.get(0));
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(instances.size());
+        int second = random.nextInt(instances.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        return new DefaultResponse(cheaper(instances.get(first), instances.get(second)));
+    }
+
+    private ServiceInstance cheaper(ServiceInstance first, ServiceInstance second) {
+        double firstLatency = latencyTracker.latencyNanos(first);
+        double secondLatency = latencyTracker.latencyNanos(second);
+        // an instance without samples yet is taken to be as fast as the other one, the in-flight calls decide
+        if (firstLatency < 0) {
+            firstLatency = secondLatency < 0 ? 1 : secondLatency;
+        }
+        if (secondLatency < 0) {
+            secondLatency = firstLatency;
+        }
+
+        double firstCost = Math.max(firstLatency, 1) * (latencyTracker.inFlight(first) + 1);
+        double secondCost = Math.max(secondLatency, 1) * (latencyTracker.inFlight(second) + 1);
+        return firstCost <= secondCost ? first : second;
+    }
+
+    private static HttpHeaders headers(Request request) {
+        if (request.getContext() instanceof RequestDataContext context && context.getClientRequest() != null) {
+            return context.getClientRequest().getHeaders();
+        }
+        return HttpHeaders.EMPTY;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.transactions.repository;
+
+import com.example.transactions.entity.AccountSpending;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface IAccountSpendingRepository extends JpaRepository<AccountSpending, Long> {
+
+    @Query(value = "SELECT total FROM account_spending WHERE account_number = :accountNumber " +
+            "AND period = :period AND period_start = :periodStart", nativeQuery = true)
+    Optional<BigDecimal> findTotal(@Param("accountNumber") String accountNumber,
+                                   @Param("period") String period,
+                                   @Param("periodStart") LocalDate periodStart);
+
+    // creates the bucket on first use, otherwise adds to it atomically
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO account_spending (account_number, period, period_start, total) " +
+            "VALUES (:accountNumber, :period, :periodStart, :amount) " +
+            "ON CONFLICT (account_number, period, period_start) " +
+            "DO UPDATE SET total = account_spending.total + EXCLUDED.total", nativeQuery = true)
+    void addToTotal(@Param("accountNumber") String accountNumber,
+                    @Param("period") String period,
+                    @Param("periodStart") LocalDate periodStart,
+                    @Param("amount") BigDecimal amount);
+
+    // adds the amount only while the bucket stays within the limit, 0 rows means the limit would be exceeded;
+    // the upsert locks the bucket row, so two payments from the same account cannot both squeeze under the limit
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO account_spending (account_number, period, period_start, total) " +
+            "SELECT :accountNumber, :period, :periodStart, CAST(:amount AS numeric) " +
+            "WHERE CAST(:amount AS numeric) <= CAST(:limit AS numeric) " +
+            "ON CONFLICT (account_number, period, period_start) " +
+            "DO UPDATE SET total = account_spending.total + EXCLUDED.total " +
+            "WHERE account_spending.total + EXCLUDED.total <= CAST(:limit AS numeric)", nativeQuery = true)
+    int addToTotalWithinLimit(@Param("accountNumber") String accountNumber,
+                              @Param("period") String period,
+                              @Param("periodStart") LocalDate periodStart,
+                              @Param("amount") BigDecimal amount,
+                              @Param("limit") BigDecimal limit);
+}
@@ -0,0 +1,33 @@
+package com.example.transactions.repository;
+
+import com.example.transactions.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IIdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByIdempotencyKey(String idempotencyKey);
+
+    // only one caller gets 1 back for an expired claim
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.lockedUntil = :lockedUntil WHERE r.id = :id " +
+            "AND r.status = com.example.transactions.enums.IdempotencyStatus.IN_PROGRESS " +
+            "AND (r.lockedUntil IS NULL OR r.lockedUntil < :now)")
+    int takeOverExpired(@Param("id") Long id,
+                        @Param("now") LocalDateTime now,
+                        @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
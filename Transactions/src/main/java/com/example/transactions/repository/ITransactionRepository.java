@@ -1,12 +1,102 @@
 package com.example.transactions.repository;
 
+import com.example.transactions.dto.request.PutTransactionDto;
 import com.example.transactions.entity.Transaction;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ITransactionRepository extends JpaRepository<Transaction, Long> {
     Optional<Transaction> findTransactionByTransactionId(String transactionId);
+
+    List<Transaction> findByTransactionIdIn(Collection<String> transactionIds);
+
+    // only one execute can move a PENDING transaction to PROCESSING, the others update no row;
+    // a PROCESSING claim older than staleBefore belongs to an execute that died and can be taken over
+    @Modifying
+    @Transactional
+    @Query("UPDATE Transaction t SET t.status = com.example.transactions.enums.TransactionStatus.PROCESSING, " +
+            "t.claimedAt = :now WHERE t.transactionId = :transactionId " +
+            "AND (t.status = com.example.transactions.enums.TransactionStatus.PENDING " +
+            "OR (t.status = com.example.transactions.enums.TransactionStatus.PROCESSING AND t.claimedAt < :staleBefore))")
+    int claimForExecution(@Param("transactionId") String transactionId,
+                          @Param("now") LocalDateTime now,
+                          @Param("staleBefore") LocalDateTime staleBefore);
+
+    // gives the claim back when the outcome of the transfer is unknown, the next execute sends the same transfer id again
+    @Modifying
+    @Transactional
+    @Query("UPDATE Transaction t SET t.status = com.example.transactions.enums.TransactionStatus.PENDING, " +
+            "t.claimedAt = NULL WHERE t.transactionId = :transactionId " +
+            "AND t.status = com.example.transactions.enums.TransactionStatus.PROCESSING")
+    int releaseClaim(@Param("transactionId") String transactionId);
+
+    // edits only land while the transaction is PENDING and nothing was reserved or sent for it,
+    // in the same statement, so an execute that claims it in between makes the edit update no row
+    @Modifying
+    @Transactional
+    @Query("UPDATE Transaction t SET t.transactionType = :#{#edit.transactionType}, " +
+            "t.fromAccountId = :#{#edit.fromAccountId}, t.toAccountId = :#{#edit.toAccountId}, " +
+            "t.fromAccountNumber = :#{#edit.fromAccountNumber}, t.toAccountNumber = :#{#edit.toAccountNumber}, " +
+            "t.amount = :#{#edit.amount}, t.currency = :#{#edit.currency}, t.description = :#{#edit.description} " +
+            "WHERE t.transactionId = :transactionId " +
+            "AND t.status = com.example.transactions.enums.TransactionStatus.PENDING AND t.spendingReservedOn IS NULL")
+    int updatePending(@Param("transactionId") String transactionId, @Param("edit") PutTransactionDto edit);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Transaction t SET t.spendingReservedOn = :reservedOn WHERE t.transactionId = :transactionId")
+    int markSpendingReserved(@Param("transactionId") String transactionId,
+                             @Param("reservedOn") LocalDate reservedOn);
+
+    // account history in (initiated_at DESC, id DESC) order, strictly before (beforeAt, beforeId)
+    // each side of the transfer is read in index order from its own composite index and only the
+    // first rows of both are merged, so the cost follows the page size and not the account's history;
+    // the second branch skips self transfers already returned by the first
+    @Query(value = "SELECT * FROM (" +
+            "(SELECT * FROM transactions WHERE from_account_number = :accountNumber " +
+            "AND (initiated_at, id) < (:beforeAt, :beforeId) AND initiated_at >= :since " +
+            "AND (CAST(:status AS varchar) IS NULL OR status = CAST(:status AS varchar)) " +
+            "AND (CAST(:type AS varchar) IS NULL OR transaction_type = CAST(:type AS varchar)) " +
+            "ORDER BY initiated_at DESC, id DESC LIMIT :limit) " +
+            "UNION ALL " +
+            "(SELECT * FROM transactions WHERE to_account_number = :accountNumber " +
+            "AND (from_account_number IS NULL OR from_account_number <> :accountNumber) " +
+            "AND (initiated_at, id) < (:beforeAt, :beforeId) AND initiated_at >= :since " +
+            "AND (CAST(:status AS varchar) IS NULL OR status = CAST(:status AS varchar)) " +
+            "AND (CAST(:type AS varchar) IS NULL OR transaction_type = CAST(:type AS varchar)) " +
+            "ORDER BY initiated_at DESC, id DESC LIMIT :limit)" +
+            ") history ORDER BY initiated_at DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<Transaction> findAccountHistory(@Param("accountNumber") String accountNumber,
+                                         @Param("beforeAt") LocalDateTime beforeAt,
+                                         @Param("beforeId") long beforeId,
+                                         @Param("since") LocalDateTime since,
+                                         @Param("status") String status,
+                                         @Param("type") String type,
+                                         @Param("limit") int limit);
+
+    // SKIP LOCKED lets several instances score disjoint batches of completed transactions
+    @Query(value = "SELECT * FROM transactions WHERE status = 'COMPLETED' AND scored_at IS NULL " +
+            "ORDER BY completed_at, id LIMIT :batchSize FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Transaction> lockUnscoredCompleted(@Param("batchSize") int batchSize);
+
+    // already scored outgoing activity of an account, newest first, used to rebuild its scoring window
+    @Query("SELECT t FROM Transaction t WHERE t.fromAccountNumber = :accountNumber " +
+            "AND t.status = com.example.transactions.enums.TransactionStatus.COMPLETED " +
+            "AND t.scoredAt IS NOT NULL AND t.initiatedAt >= :since " +
+            "ORDER BY t.initiatedAt DESC, t.id DESC")
+    List<Transaction> findRecentScored(@Param("accountNumber") String accountNumber,
+                                       @Param("since") LocalDateTime since,
+                                       Limit limit);
 }
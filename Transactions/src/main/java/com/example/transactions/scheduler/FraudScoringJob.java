@@ -0,0 +1,29 @@
+package com.example.transactions.scheduler;
+
+import com.example.transactions.service.FraudScoringService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class FraudScoringJob {
+    private static final Logger log = LoggerFactory.getLogger(FraudScoringJob.class);
+
+    @Autowired
+    private FraudScoringService fraudScoringService;
+
+    // keeps scoring while batches come back full, stops at the first partial or failing batch
+    @Scheduled(fixedDelayString = "${transactions.fraud.interval-ms:2000}")
+    public void score() {
+        try {
+            int scored;
+            do {
+                scored = fraudScoringService.scoreBatch();
+            } while (scored == fraudScoringService.getBatchSize());
+        } catch (Exception e) {
+            log.warn("Fraud scoring failed: {}", e.getMessage());
+        }
+    }
+}
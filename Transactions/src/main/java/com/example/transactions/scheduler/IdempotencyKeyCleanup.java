@@ -0,0 +1,35 @@
+package com.example.transactions.scheduler;
+
+import com.example.transactions.repository.IIdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+@Component
+public class IdempotencyKeyCleanup {
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyKeyCleanup.class);
+
+    @Autowired
+    private IIdempotencyRecordRepository idempotencyRepository;
+
+    @Value("${transactions.idempotency.retention-hours:24}")
+    private long retentionHours;
+
+    // replayed responses are only kept for the retention window, clients retry well within it
+    @Scheduled(fixedDelayString = "${transactions.idempotency.cleanup-interval-ms:3600000}")
+    public void cleanup() {
+        try {
+            int deleted = idempotencyRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(retentionHours));
+            if (deleted > 0) {
+                log.info("Deleted {} expired idempotency keys", deleted);
+            }
+        } catch (Exception e) {
+            log.warn("Idempotency key cleanup failed: {}", e.getMessage());
+        }
+    }
+}
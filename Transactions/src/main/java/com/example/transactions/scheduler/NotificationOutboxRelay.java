@@ -0,0 +1,40 @@
+package com.example.transactions.scheduler;
+
+import com.example.transactions.service.NotificationOutboxService;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class NotificationOutboxRelay {
+    private static final Logger log = LoggerFactory.getLogger(NotificationOutboxRelay.class);
+    private static final String NOTIFICATION_CLIENT = "notification";
+
+    @Autowired
+    private NotificationOutboxService notificationOutboxService;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    // keeps draining while batches come back full, stops at the first partial or failing batch
+    @Scheduled(fixedDelayString = "${transactions.notification-outbox.relay-interval-ms:1000}")
+    public void relay() {
+        // every send would be rejected while the breaker is open, the rows wait as PENDING without using up attempts
+        CircuitBreaker.State state = circuitBreakerRegistry.circuitBreaker(NOTIFICATION_CLIENT).getState();
+        if (state == CircuitBreaker.State.OPEN || state == CircuitBreaker.State.FORCED_OPEN) {
+            return;
+        }
+        try {
+            int sent;
+            do {
+                sent = notificationOutboxService.relayBatch();
+            } while (sent == notificationOutboxService.getBatchSize());
+        } catch (Exception e) {
+            log.warn("Notification outbox relay failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.transactions.service;
+
+import com.example.transactions.client.AccountClient;
+import com.example.transactions.dto.response.AccountDto;
+import com.example.transactions.enums.AccountStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Cache local read-through pentru conturile preluate din serviciul de conturi.
+ * Conturile gasite in cache sunt returnate imediat, iar cele lipsa sunt preluate
+ * printr-un singur apel batch catre AccountClient, limitat de un termen limita.
+ * Dimensiunea, durata de viata si statisticile cache-ului sunt configurate prin spring.cache.
+ *
+ * @author Andrei Arustei
+ */
+@Service
+public class AccountCacheService {
+    public static final String ACCOUNTS_CACHE = "accounts";
+
+    @Autowired
+    private AccountClient accountClient;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    @Qualifier("accountLookupExecutor")
+    private ExecutorService accountLookupExecutor;
+
+    @Value("${transactions.account-lookup.timeout-ms:2000}")
+    private long accountLookupTimeoutMs;
+
+    /**
+     * Returneaza conturile cerute, indexate dupa numarul de cont.
+     * Doar conturile lipsa din cache genereaza un apel catre serviciul de conturi.
+     * Sunt pastrate in cache doar conturile ACTIVE, astfel incat un cont blocat sau inchis
+     * este mereu citit din sursa.
+     *
+     * @param accountNumbers numerele conturilor cautate
+     * @return Map - conturile gasite, dupa numarul de cont
+     * @throws RuntimeException daca apelul esueaza sau termenul limita este depasit
+     * @author Andrei Arustei
+     */
+    public Map<String, AccountDto> fetchAccounts(Collection<String> accountNumbers) {
+        Cache cache = accountsCache();
+        Map<String, AccountDto> accountsByNumber = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+
+        for (String accountNumber : accountNumbers) {
+            AccountDto cached = cache.get(accountNumber, AccountDto.class);
+            if (cached != null) {
+                accountsByNumber.put(accountNumber, cached);
+            } else if (!missing.contains(accountNumber)) {
+                missing.add(accountNumber);
+            }
+        }
+
+        if (missing.isEmpty()) {
+            return accountsByNumber;
+        }
+
+        for (AccountDto account : fetchRemote(missing)) {
+            accountsByNumber.put(account.getAccountNumber(), account);
+            if (account.getStatus() == AccountStatus.ACTIVE) {
+                cache.put(account.getAccountNumber(), account);
+            }
+        }
+        return accountsByNumber;
+    }
+
+    /**
+     * Elimina un cont din cache, de exemplu dupa blocarea sau inchiderea lui.
+     *
+     * @param accountNumber numarul contului de eliminat
+     * @author Andrei Arustei
+     */
+    public void evict(String accountNumber) {
+        accountsCache().evict(accountNumber);
+    }
+
+    private List<AccountDto> fetchRemote(List<String> accountNumbers) {
+        CompletableFuture<List<AccountDto>> lookup = CompletableFuture.supplyAsync(
+                () -> accountClient.fetchAccounts(accountNumbers).getBody(),
+                accountLookupExecutor);
+
+        try {
+            List<AccountDto> accounts = lookup.get(accountLookupTimeoutMs, TimeUnit.MILLISECONDS);
+            return accounts != null ? accounts : List.of();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            lookup.cancel(true);
+            throw new RuntimeException("Account lookup timed out after " + accountLookupTimeoutMs + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Account lookup interrupted");
+        }
+    }
+
+    private Cache accountsCache() {
+        Cache cache = cacheManager.getCache(ACCOUNTS_CACHE);
+        if (cache == null) {
+            throw new IllegalStateException("Cache " + ACCOUNTS_CACHE + " is not configured");
+        }
+        return cache;
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.transactions.service;
+
+import com.example.transactions.entity.Transaction;
+import com.example.transactions.enums.Currency;
+import com.example.transactions.enums.TransactionType;
+import com.example.transactions.event.HighRiskTransactionEvent;
+import com.example.transactions.fraud.AccountActivityWindow;
+import com.example.transactions.repository.ITransactionRepository;
+import com.example.transactions.utils.TransactionHelper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Serviciu pentru scorarea anti-frauda in fundal a tranzactiilor finalizate.
+ * Tranzactiile COMPLETED sunt preluate in loturi, in ordinea finalizarii, si primesc un scor de risc intre 0 si 1
+ * salvat pe tranzactie, astfel incat verificarea anti-frauda devine o simpla citire.
+ * Pentru fiecare cont sursa este pastrata in memorie o fereastra cu activitatea recenta, din care se calculeaza
+ * frecventa platilor, abaterea sumei fata de media contului si aparitia unui destinatar nou.
+ * Blocarea automata a contului sursa este declansata doar de comportamentul contului: scorul comportamental
+ * trece pragul, sau suma trece pragul si apare si un semnal comportamental. O plata mare dar obisnuita
+ * primeste scor mare, fara sa blocheze contul.
+ *
+ * @author Andrei Arustei
+ */
+@Service
+public class FraudScoringService {
+    private static final int MIN_SAMPLES = 5;
+    private static final double Z_SCORE_CAP = 4.0;
+    private static final double Z_SCORE_WEIGHT = 0.4;
+    private static final double VELOCITY_WEIGHT = 0.35;
+    private static final double NEW_COUNTERPARTY_WEIGHT = 0.25;
+
+    @Autowired
+    private ITransactionRepository transactionRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${transactions.fraud.batch-size:200}")
+    private int batchSize;
+
+    @Value("${transactions.fraud.block-threshold:0.9}")
+    private BigDecimal blockThreshold;
+
+    // a high amount only blocks together with at least this much behavioural score, one full signal by default
+    @Value("${transactions.fraud.amount-block-min-behaviour:0.25}")
+    private double amountBlockMinBehaviour;
+
+    @Value("${transactions.fraud.velocity-window-minutes:60}")
+    private long velocityWindowMinutes;
+
+    @Value("${transactions.fraud.velocity-max:10}")
+    private int velocityMax;
+
+    @Value("${transactions.fraud.history-days:30}")
+    private long historyDays;
+
+    @Value("${transactions.fraud.max-samples:200}")
+    private int maxSamples;
+
+    @Value("${transactions.fraud.max-accounts:100000}")
+    private long maxAccounts;
+
+    private Cache<String, AccountActivityWindow> windows;
+
+    @PostConstruct
+    void initWindows() {
+        windows = Caffeine.newBuilder()
+                .maximumSize(maxAccounts)
+                .expireAfterAccess(Duration.ofDays(historyDays))
+                .build();
+    }
+
+    /**
+     * Scoreaza un lot de tranzactii finalizate si inca nescorate.
+     * Randurile sunt blocate cu SKIP LOCKED, deci mai multe instante pot scora in paralel loturi diferite.
+     * Ferestrele conturilor primesc activitatea lotului doar dupa commit, astfel incat un lot anulat si
+     * rescorat nu adauga aceleasi tranzactii de doua ori.
+     *
+     * @return int - numarul de tranzactii scorate din lot
+     * @author Andrei Arustei
+     */
+    @Transactional
+    public int scoreBatch() {
+        List<Transaction> batch = transactionRepository.lockUnscoredCompleted(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Set<String> flaggedAccounts = new HashSet<>();
+        Map<String, AccountActivityWindow> staged = new HashMap<>();
+        for (Transaction transaction : batch) {
+            RiskAssessment assessment = assess(transaction, staged);
+            BigDecimal riskScore = assessment.riskScore();
+            transaction.setRiskScore(riskScore);
+            transaction.setScoredAt(now);
+            meterRegistry.summary("transactions.fraud.score").record(riskScore.doubleValue());
+
+            String accountNumber = transaction.getFromAccountNumber();
+            if (assessment.block() && accountNumber != null && flaggedAccounts.add(accountNumber)) {
+                meterRegistry.counter("transactions.fraud.high_risk").increment();
+                eventPublisher.publishEvent(new HighRiskTransactionEvent(transaction.getTransactionId(), accountNumber, riskScore));
+            }
+        }
+
+        transactionRepository.saveAll(batch);
+        publishWindows(staged);
+        meterRegistry.counter("transactions.fraud.scored").increment(batch.size());
+        return batch.size();
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Calculeaza scorul de risc al unei tranzactii si o adauga in fereastra contului sursa.
+     * Scorul este maximul dintre scorul dupa praguri fixe de suma, calculat pe suma convertita in RON,
+     * si scorul comportamental al contului.
+     *
+     * @param transaction tranzactia finalizata de scorat
+     * @return BigDecimal - scorul de risc, intre 0 si 1
+     * @author Andrei Arustei
+     */
+    BigDecimal score(Transaction transaction) {
+        Map<String, AccountActivityWindow> staged = new HashMap<>();
+        BigDecimal riskScore = assess(transaction, staged).riskScore();
+        publishWindows(staged);
+        return riskScore;
+    }
+
+    // scores against the batch's own copy of the account window, so later payments of the batch still see earlier ones
+    private RiskAssessment assess(Transaction transaction, Map<String, AccountActivityWindow> staged) {
+        BigDecimal amountInRon = TransactionHelper.ConvertCurrency(transaction.getCurrency(), Currency.RON, transaction.getAmount());
+        double amountScore = TransactionHelper.checkAmountAntiFraud(amountInRon).doubleValue();
+        String accountNumber = transaction.getFromAccountNumber();
+        if (transaction.getTransactionType() == TransactionType.DEPOSIT || accountNumber == null) {
+            return new RiskAssessment(BigDecimal.valueOf(amountScore).setScale(4, RoundingMode.HALF_UP), false);
+        }
+
+        LocalDateTime at = transaction.getCompletedAt() != null ? transaction.getCompletedAt() : transaction.getInitiatedAt();
+        double amount = amountInRon.doubleValue();
+        String counterparty = transaction.getToAccountNumber();
+
+        AccountActivityWindow window = staged.computeIfAbsent(accountNumber, this::stageWindow);
+        window.evictBefore(at.minusDays(historyDays));
+
+        double velocity = Math.min(1.0, window.countSince(at.minusMinutes(velocityWindowMinutes)) / (double) velocityMax);
+        double deviation = 0;
+        double newCounterparty = 0;
+        // too little history makes every amount and every recipient look unusual
+        if (window.size() >= MIN_SAMPLES) {
+            deviation = Math.min(1.0, Math.max(0, window.zScore(amount)) / Z_SCORE_CAP);
+            newCounterparty = counterparty != null && !window.hasCounterparty(counterparty) ? 1.0 : 0;
+        }
+        window.add(at, amount, counterparty);
+
+        double behaviourScore = Z_SCORE_WEIGHT * deviation + VELOCITY_WEIGHT * velocity + NEW_COUNTERPARTY_WEIGHT * newCounterparty;
+        double riskScore = Math.min(1.0, Math.max(amountScore, behaviourScore));
+
+        // the amount thresholds alone flag every large payment, they only block when the account also behaves unusually
+        double threshold = blockThreshold.doubleValue();
+        boolean block = behaviourScore >= threshold
+                || (amountScore >= threshold && behaviourScore >= amountBlockMinBehaviour);
+        return new RiskAssessment(BigDecimal.valueOf(riskScore).setScale(4, RoundingMode.HALF_UP), block);
+    }
+
+    private AccountActivityWindow stageWindow(String accountNumber) {
+        AccountActivityWindow window = windows.getIfPresent(accountNumber);
+        return window != null ? window.copy() : loadWindow(accountNumber);
+    }
+
+    // the shared windows only take a batch's activity once its scores are committed;
+    // a rolled back batch is picked up and scored again, and would otherwise be counted twice
+    private void publishWindows(Map<String, AccountActivityWindow> staged) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            windows.putAll(staged);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                windows.putAll(staged);
+            }
+        });
+    }
+
+    // an account not seen since startup starts from its already scored history instead of an empty window
+    private AccountActivityWindow loadWindow(String accountNumber) {
+        AccountActivityWindow window = new AccountActivityWindow(maxSamples);
+        List<Transaction> recent = transactionRepository.findRecentScored(
+                accountNumber, LocalDateTime.now().minusDays(historyDays), Limit.of(maxSamples));
+        for (int i = recent.size() - 1; i >= 0; i--) {
+            Transaction transaction = recent.get(i);
+            LocalDateTime at = transaction.getCompletedAt() != null ? transaction.getCompletedAt() : transaction.getInitiatedAt();
+            window.add(at,
+                    TransactionHelper.ConvertCurrency(transaction.getCurrency(), Currency.RON, transaction.getAmount()).doubleValue(),
+                    transaction.getToAccountNumber());
+        }
+        return window;
+    }
+
+    private record RiskAssessment(BigDecimal riskScore, boolean block) {
+    }
+}
@@ -4,10 +4,15 @@ import com.example.transactions.dto.request.PostTransactionDto;
 import com.example.transactions.dto.request.PutTransactionDto;
 import com.example.transactions.dto.response.ModifyTransactionCurrencyDto;
 import com.example.transactions.dto.response.TransactionDto;
+import com.example.transactions.dto.response.TransactionPageDto;
 import com.example.transactions.enums.Currency;
+import com.example.transactions.enums.TransactionStatus;
 import com.example.transactions.enums.TransactionType;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 public interface ITransactionService {
     TransactionDto postTransaction(PostTransactionDto transactionDto);
@@ -15,11 +20,17 @@ public interface ITransactionService {
     String fetchTransactionWithAccountDetailsById(String transactionId);
     String postTransactionWithNotification(PostTransactionDto transactionDto);
     TransactionDto fetchTransactionById(String transactionId);
+    TransactionPageDto fetchTransactionHistory(String accountNumber, String cursor, int limit,
+                                               TransactionStatus status, TransactionType type,
+                                               LocalDateTime from, LocalDateTime to);
     boolean putTransaction(PutTransactionDto transactionDto, String transactionId);
     boolean cancelTransactionById(String transactionId);
     boolean executePaymentByTransactionId(String transactionId);
     boolean modifyTransactionType(String transactionId, TransactionType newTransactionType);
     ModifyTransactionCurrencyDto modifyTransactionCurrency(String transactionId, Currency newCurrency);
     BigDecimal calculateTransactionAmount(String transactionId);
+    Map<String, BigDecimal> calculateTransactionAmounts(List<String> transactionIds);
     String antiFraudCheck(String transactionId);
+    Map<String, BigDecimal> antiFraudCheck(List<String> transactionIds);
+    void evictCachedAccount(String accountNumber);
 }
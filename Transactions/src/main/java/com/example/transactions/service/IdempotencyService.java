@@ -0,0 +1,217 @@
+package com.example.transactions.service;
+
+import com.example.transactions.entity.IdempotencyRecord;
+import com.example.transactions.enums.IdempotencyStatus;
+import com.example.transactions.repository.IIdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Serviciu pentru cererile POST repetate cu acelasi header Idempotency-Key.
+ * Prima cerere cu o cheie este executata si raspunsul ei este salvat in tabela idempotency_keys
+ * si intr-un cache local. O cerere repetata primeste raspunsul salvat, fara a mai apela
+ * serviciul de conturi, serviciul de notificari sau baza de date pentru o tranzactie noua.
+ * Indexul unic pe cheie garanteaza ca doua cereri simultane cu aceeasi cheie nu sunt executate ambele.
+ * Cheile sunt separate pe endpoint si pe utilizatorul autentificat de gateway, primit in header-ul X-Authenticated-User,
+ * deci doi clienti nu isi pot bloca cheile si nu primesc raspunsurile salvate ale celuilalt. Gateway-ul suprascrie
+ * header-ul la fiecare cerere; cererile fara el (apeluri directe, fara gateway) impart acelasi spatiu de chei.
+ * O cerere in executie tine cheia doar pana la expirarea lease-ului; dupa aceea o cerere repetata preia cheia
+ * si executa actiunea, in loc sa primeasca 409 pana la stergerea inregistrarii.
+ *
+ * @author Andrei Arustei
+ */
+@Service
+public class IdempotencyService {
+    public static final String IDEMPOTENCY_CACHE = "idempotency";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    public static final String CALLER_HEADER = "X-Authenticated-User";
+    private static final int MAX_KEY_LENGTH = 100;
+
+    @Autowired
+    private IIdempotencyRecordRepository idempotencyRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // longer than any create request, including its calls to the account and notification services
+    @Value("${transactions.idempotency.lease-ms:60000}")
+    private long leaseMs;
+
+    /**
+     * Executa actiunea o singura data pentru o cheie de idempotenta si reda raspunsul salvat la repetari.
+     * Fara cheie, actiunea este executata direct.
+     *
+     * @param scope numele endpoint-ului, cheile sunt unice doar in cadrul lui si al apelantului
+     * @param key valoarea header-ului Idempotency-Key, poate lipsi
+     * @param request corpul cererii, folosit pentru a detecta refolosirea cheii cu alta cerere
+     * @param bodyType tipul corpului raspunsului
+     * @param action actiunea de executat la prima cerere
+     * @return ResponseEntity - raspunsul nou sau cel salvat
+     * @throws ResponseStatusException 400 daca cheia este prea lunga,
+     *                                 409 daca cererea originala este inca in executie si lease-ul ei nu a expirat,
+     *                                 422 daca cheia a fost folosita pentru o alta cerere
+     * @author Andrei Arustei
+     */
+    public <T> ResponseEntity<T> execute(String scope, String key, Object request, Class<T> bodyType,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String scopedKey = scope + ":" + sha256(caller() + ":" + key);
+        String requestHash = sha256(serializeRequest(request));
+
+        StoredResponse cached = idempotencyCache().get(scopedKey, StoredResponse.class);
+        if (cached != null) {
+            return replay(cached, requestHash, bodyType);
+        }
+
+        IdempotencyRecord record;
+        try {
+            record = idempotencyRepository.saveAndFlush(IdempotencyRecord.builder()
+                    .idempotencyKey(scopedKey)
+                    .requestHash(requestHash)
+                    .lockedUntil(leaseEnd())
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            IdempotencyRecord existing = idempotencyRepository.findByIdempotencyKey(scopedKey)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.CONFLICT,
+                            "Request with this Idempotency-Key was abandoned, retry it"));
+            if (existing.getStatus() == IdempotencyStatus.COMPLETED) {
+                return replayCompleted(scopedKey, existing, requestHash, bodyType);
+            }
+            record = takeOver(existing, requestHash);
+        }
+
+        ResponseEntity<T> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            // nothing was stored for this key, the client may retry it
+            idempotencyRepository.delete(record);
+            throw e;
+        }
+
+        StoredResponse stored = new StoredResponse(response.getStatusCode().value(), serialize(response.getBody()), requestHash);
+        record.setStatus(IdempotencyStatus.COMPLETED);
+        record.setResponseStatus(stored.status());
+        record.setResponseBody(stored.body());
+        idempotencyRepository.save(record);
+        idempotencyCache().put(scopedKey, stored);
+        return response;
+    }
+
+    private <T> ResponseEntity<T> replayCompleted(String scopedKey, IdempotencyRecord existing, String requestHash,
+                                                  Class<T> bodyType) {
+        StoredResponse stored = new StoredResponse(existing.getResponseStatus(), existing.getResponseBody(), existing.getRequestHash());
+        idempotencyCache().put(scopedKey, stored);
+        return replay(stored, requestHash, bodyType);
+    }
+
+    // the first request holds the key only until its lease runs out, after that exactly one retry takes it over
+    private IdempotencyRecord takeOver(IdempotencyRecord existing, String requestHash) {
+        if (!existing.getRequestHash().equals(requestHash)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used for a different request");
+        }
+        LocalDateTime lockedUntil = leaseEnd();
+        if (idempotencyRepository.takeOverExpired(existing.getId(), LocalDateTime.now(), lockedUntil) == 0) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Request with this Idempotency-Key is still in progress");
+        }
+        existing.setLockedUntil(lockedUntil);
+        return existing;
+    }
+
+    private LocalDateTime leaseEnd() {
+        return LocalDateTime.now().plusNanos(leaseMs * 1_000_000);
+    }
+
+    // this service permits every request, so the only identity it has is the login subject the gateway relays
+    private static String caller() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            String user = servletAttributes.getRequest().getHeader(CALLER_HEADER);
+            if (user != null && !user.isBlank()) {
+                return "user:" + user;
+            }
+        }
+        return "anonymous";
+    }
+
+    private <T> ResponseEntity<T> replay(StoredResponse stored, String requestHash, Class<T> bodyType) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used for a different request");
+        }
+        try {
+            T body = stored.body() != null ? objectMapper.readValue(stored.body(), bodyType) : null;
+            return ResponseEntity.status(stored.status())
+                    .header(REPLAYED_HEADER, "true")
+                    .body(body);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to read stored response: " + e.getMessage());
+        }
+    }
+
+    private String serialize(Object body) {
+        try {
+            return body != null ? objectMapper.writeValueAsString(body) : null;
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to store response: " + e.getMessage());
+        }
+    }
+
+    private String serializeRequest(Object request) {
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to hash request: " + e.getMessage());
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Failed to hash request: " + e.getMessage());
+        }
+    }
+
+    private Cache idempotencyCache() {
+        Cache cache = cacheManager.getCache(IDEMPOTENCY_CACHE);
+        if (cache == null) {
+            throw new IllegalStateException("Cache " + IDEMPOTENCY_CACHE + " is not configured");
+        }
+        return cache;
+    }
+
+    private record StoredResponse(int status, String body, String requestHash) {
+    }
+}
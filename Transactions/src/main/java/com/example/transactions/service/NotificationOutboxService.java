@@ -0,0 +1,231 @@
+package com.example.transactions.service;
+
+import com.example.transactions.client.NotificationClient;
+import com.example.transactions.dto.request.NotificationCreateDto;
+import com.example.transactions.entity.NotificationOutbox;
+import com.example.transactions.entity.Transaction;
+import com.example.transactions.enums.OutboxStatus;
+import com.example.transactions.repository.INotificationOutboxRepository;
+import com.example.transactions.repository.ITransactionRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.FeignException;
+import feign.RetryableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serviciu pentru trimiterea notificarilor prin tabela outbox.
+ * Notificarea este scrisa in aceeasi tranzactie de baza de date ca tranzactia bancara,
+ * iar un job in fundal o trimite ulterior catre serviciul de notificari, in loturi.
+ * Astfel un serviciu de notificari lent sau indisponibil nu blocheaza crearea tranzactiilor
+ * si nicio notificare nu se pierde.
+ *
+ * @author Andrei Arustei
+ */
+@Service
+public class NotificationOutboxService {
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    @Autowired
+    private ITransactionRepository transactionRepository;
+
+    @Autowired
+    private INotificationOutboxRepository outboxRepository;
+
+    @Autowired
+    private NotificationClient notificationClient;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${transactions.notification-outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${transactions.notification-outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${transactions.notification-outbox.backoff-initial-ms:1000}")
+    private long backoffInitialMs;
+
+    @Value("${transactions.notification-outbox.backoff-max-ms:300000}")
+    private long backoffMaxMs;
+
+    // longer than a bulk call plus the row by row fallback of a full batch, a live relay never loses its rows
+    @Value("${transactions.notification-outbox.claim-lease-ms:300000}")
+    private long claimLeaseMs;
+
+    // passes in a row that could not reach the notification service, drives the backoff of rows that did not fail themselves
+    private final AtomicInteger unavailableStreak = new AtomicInteger();
+
+    /**
+     * Salveaza tranzactia si notificarea aferenta in aceeasi tranzactie de baza de date.
+     *
+     * @param transaction tranzactia de salvat
+     * @param notification notificarea de trimis dupa commit
+     * @return Transaction - tranzactia salvata
+     * @throws RuntimeException daca notificarea nu poate fi serializata
+     * @author Andrei Arustei
+     */
+    @Transactional
+    public Transaction saveWithNotification(Transaction transaction, NotificationCreateDto notification) {
+        transactionRepository.save(transaction);
+        notification.setRelatedTransactionId(transaction.getId());
+
+        NotificationOutbox entry = NotificationOutbox.builder()
+                .transactionId(transaction.getTransactionId())
+                .payload(serialize(notification))
+                .build();
+        outboxRepository.save(entry);
+        return transaction;
+    }
+
+    /**
+     * Trimite un lot de notificari in asteptare catre serviciul de notificari, printr-un singur apel bulk.
+     * Randurile sunt revendicate intr-o tranzactie scurta, cu SKIP LOCKED si un lease, deci mai multe instante
+     * pot goli outbox-ul in paralel; apelurile HTTP sunt facute fara tranzactie deschisa si fara randuri blocate,
+     * iar rezultatul este salvat intr-o a doua tranzactie scurta.
+     * Fiecare notificare poarta ID-ul randului ca cheie de deduplicare, deci un rand retrimis (de exemplu dupa un apel
+     * bulk expirat pe care serviciul de notificari l-a salvat totusi) nu este creat a doua oara.
+     * Daca serviciul de notificari respinge lotul, notificarile sunt retrimise una cate una,
+     * astfel incat un rand invalid nu blocheaza restul lotului.
+     * O notificare respinsa ramane PENDING pana la numarul maxim de incercari, apoi devine FAILED; intre incercari
+     * asteapta un timp care se dubleaza la fiecare esec. Cand serviciul de notificari nu poate fi contactat,
+     * incercarea nu este numarata, iar randurile asteapta tot exponential, dupa numarul de treceri esuate la rand.
+     *
+     * @return int - numarul de notificari trimise cu succes din lot
+     * @author Andrei Arustei
+     */
+    public int relayBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        String claimToken = UUID.randomUUID().toString();
+        if (outboxRepository.claimPendingBatch(now, now.plusNanos(claimLeaseMs * 1_000_000), claimToken, batchSize) == 0) {
+            return 0;
+        }
+        List<NotificationOutbox> batch = outboxRepository.findByClaimTokenOrderById(claimToken);
+
+        int sent = 0;
+        boolean unavailable = false;
+        try {
+            notificationClient.createNotifications(batch.stream().map(this::deserialize).toList());
+            batch.forEach(this::markSent);
+            sent = batch.size();
+        } catch (Exception e) {
+            if (isUnavailable(e)) {
+                // the notification service is unreachable, sending row by row would fail the same way
+                batch.forEach(entry -> defer(entry, e));
+                unavailable = true;
+            } else {
+                // the bulk call may have been stored before it failed, the deduplication key keeps these from doubling it
+                for (NotificationOutbox entry : batch) {
+                    try {
+                        notificationClient.createNotification(deserialize(entry));
+                        markSent(entry);
+                        sent++;
+                    } catch (Exception rowFailure) {
+                        if (isUnavailable(rowFailure)) {
+                            defer(entry, rowFailure);
+                            unavailable = true;
+                        } else {
+                            markFailedAttempt(entry, rowFailure);
+                        }
+                    }
+                }
+            }
+        }
+
+        if (sent > 0) {
+            unavailableStreak.set(0);
+        } else if (unavailable) {
+            unavailableStreak.incrementAndGet();
+        }
+        batch.forEach(entry -> {
+            entry.setClaimedUntil(null);
+            entry.setClaimToken(null);
+        });
+        outboxRepository.saveAll(batch);
+        meterRegistry.counter("transactions.notification.outbox", "result", "sent").increment(sent);
+        return sent;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    private void markSent(NotificationOutbox entry) {
+        entry.setAttempts(entry.getAttempts() + 1);
+        entry.setStatus(OutboxStatus.SENT);
+        entry.setSentAt(LocalDateTime.now());
+        entry.setLastError(null);
+    }
+
+    private void markFailedAttempt(NotificationOutbox entry, Exception e) {
+        entry.setAttempts(entry.getAttempts() + 1);
+        entry.setLastError(truncate(e.getMessage()));
+        if (entry.getAttempts() >= maxAttempts) {
+            entry.setStatus(OutboxStatus.FAILED);
+            meterRegistry.counter("transactions.notification.outbox", "result", "failed").increment();
+        } else {
+            entry.setNextAttemptAt(LocalDateTime.now().plusNanos(backoffMs(entry.getAttempts()) * 1_000_000));
+        }
+    }
+
+    // the row is fine, the service is not: wait without using up an attempt
+    private void defer(NotificationOutbox entry, Exception e) {
+        entry.setLastError(truncate(e.getMessage()));
+        entry.setNextAttemptAt(LocalDateTime.now().plusNanos(backoffMs(unavailableStreak.get() + 1) * 1_000_000));
+    }
+
+    long backoffMs(int failures) {
+        int doublings = Math.clamp(failures - 1, 0, 30);
+        return Math.min(backoffMaxMs, backoffInitialMs << doublings);
+    }
+
+    // no answer, an open breaker or a full bulkhead (all RetryableException), or a gateway saying the service is down
+    private static boolean isUnavailable(Exception e) {
+        if (e instanceof RetryableException) {
+            return true;
+        }
+        if (e instanceof FeignException feignException) {
+            int status = feignException.status();
+            return status == 408 || status == 429 || status == 502 || status == 503 || status == 504;
+        }
+        return false;
+    }
+
+    private NotificationCreateDto deserialize(NotificationOutbox entry) {
+        try {
+            NotificationCreateDto notification = objectMapper.readValue(entry.getPayload(), NotificationCreateDto.class);
+            notification.setDeduplicationKey("transactions-outbox-" + entry.getId());
+            return notification;
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to read outbox notification " + entry.getId() + ": " + e.getMessage());
+        }
+    }
+
+    private String serialize(NotificationCreateDto notification) {
+        try {
+            return objectMapper.writeValueAsString(notification);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize notification for outbox: " + e.getMessage());
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
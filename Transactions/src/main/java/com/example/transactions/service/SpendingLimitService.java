@@ -0,0 +1,118 @@
+package com.example.transactions.service;
+
+import com.example.transactions.dto.response.AccountDto;
+import com.example.transactions.enums.SpendingPeriod;
+import com.example.transactions.repository.IAccountSpendingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Serviciu pentru verificarea limitelor zilnice si lunare ale conturilor.
+ * Sumele cheltuite sunt tinute in totaluri pe zi si pe luna. La executarea unei plati suma este rezervata
+ * printr-o singura actualizare conditionata pe fiecare total, deci doua plati simultane nu pot depasi
+ * impreuna limita; verificarea de la creare este doar o respingere timpurie, fara rezervare.
+ *
+ * @author Andrei Arustei
+ */
+@Service
+public class SpendingLimitService {
+
+    @Autowired
+    private IAccountSpendingRepository spendingRepository;
+
+    /**
+     * Verifica daca o plata noua incape in limitele zilnica si lunara ale contului.
+     * Un cont fara limita setata nu este restrictionat. Nu rezerva nimic, limita este impusa abia la executare.
+     *
+     * @param account contul sursa, cu limitele lui
+     * @param amount suma platii
+     * @throws RuntimeException daca plata ar depasi una dintre limite
+     * @author Andrei Arustei
+     */
+    public void checkLimits(AccountDto account, BigDecimal amount) {
+        checkLimits(account, BigDecimal.ZERO, amount);
+    }
+
+    /**
+     * Verifica daca o plata noua incape in limitele contului, pe langa plati deja cerute si inca neexecutate,
+     * de exemplu randurile anterioare ale aceluiasi fisier de import.
+     *
+     * @param account contul sursa, cu limitele lui
+     * @param alreadyRequested suma platilor cerute anterior din acelasi cont, inca neexecutate
+     * @param amount suma platii
+     * @throws RuntimeException daca plata ar depasi una dintre limite
+     * @author Andrei Arustei
+     */
+    public void checkLimits(AccountDto account, BigDecimal alreadyRequested, BigDecimal amount) {
+        LocalDate today = LocalDate.now();
+        checkLimit(account.getAccountNumber(), SpendingPeriod.DAY, today, account.getDailyLimit(), alreadyRequested, amount);
+        checkLimit(account.getAccountNumber(), SpendingPeriod.MONTH, today.withDayOfMonth(1), account.getMonthlyLimit(), alreadyRequested, amount);
+    }
+
+    /**
+     * Rezerva suma unei plati in totalurile zilei si lunii curente, doar daca ambele raman in limite.
+     * Fiecare total este actualizat printr-un singur upsert conditionat; daca totalul lunar nu mai are loc,
+     * rezervarea pe zi este anulata impreuna cu tranzactia de baza de date.
+     *
+     * @param account contul sursa, cu limitele lui
+     * @param amount suma platii
+     * @return LocalDate - ziua in care a fost facuta rezervarea, necesara pentru eliberarea ei
+     * @throws RuntimeException daca plata ar depasi una dintre limite
+     * @author Andrei Arustei
+     */
+    @Transactional
+    public LocalDate reserve(AccountDto account, BigDecimal amount) {
+        LocalDate today = LocalDate.now();
+        reserve(account.getAccountNumber(), SpendingPeriod.DAY, today, account.getDailyLimit(), amount);
+        reserve(account.getAccountNumber(), SpendingPeriod.MONTH, today.withDayOfMonth(1), account.getMonthlyLimit(), amount);
+        return today;
+    }
+
+    /**
+     * Elibereaza o rezervare facuta de reserve, cand plata a fost respinsa definitiv.
+     *
+     * @param accountNumber numarul contului sursa
+     * @param amount suma rezervata
+     * @param reservedOn ziua in care a fost facuta rezervarea
+     * @author Andrei Arustei
+     */
+    @Transactional
+    public void release(String accountNumber, BigDecimal amount, LocalDate reservedOn) {
+        spendingRepository.addToTotal(accountNumber, SpendingPeriod.DAY.name(), reservedOn, amount.negate());
+        spendingRepository.addToTotal(accountNumber, SpendingPeriod.MONTH.name(), reservedOn.withDayOfMonth(1), amount.negate());
+    }
+
+    private void reserve(String accountNumber, SpendingPeriod period, LocalDate periodStart,
+                         BigDecimal limit, BigDecimal amount) {
+        if (limit == null) {
+            spendingRepository.addToTotal(accountNumber, period.name(), periodStart, amount);
+            return;
+        }
+        if (spendingRepository.addToTotalWithinLimit(accountNumber, period.name(), periodStart, amount, limit) == 0) {
+            BigDecimal spent = spendingRepository.findTotal(accountNumber, period.name(), periodStart).orElse(BigDecimal.ZERO);
+            throw limitExceeded(accountNumber, period, limit, spent, amount);
+        }
+    }
+
+    private void checkLimit(String accountNumber, SpendingPeriod period, LocalDate periodStart,
+                            BigDecimal limit, BigDecimal alreadyRequested, BigDecimal amount) {
+        if (limit == null) {
+            return;
+        }
+        BigDecimal spent = spendingRepository.findTotal(accountNumber, period.name(), periodStart).orElse(BigDecimal.ZERO)
+                .add(alreadyRequested);
+        if (spent.add(amount).compareTo(limit) > 0) {
+            throw limitExceeded(accountNumber, period, limit, spent, amount);
+        }
+    }
+
+    private static RuntimeException limitExceeded(String accountNumber, SpendingPeriod period, BigDecimal limit,
+                                                  BigDecimal spent, BigDecimal amount) {
+        return new RuntimeException((period == SpendingPeriod.DAY ? "Daily" : "Monthly") + " limit of " + limit
+                + " exceeded for account " + accountNumber + ": already spent " + spent + ", requested " + amount);
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.transactions.service;
+
+import com.example.transactions.dto.request.PostTransactionDto;
+import com.example.transactions.dto.response.AccountDto;
+import com.example.transactions.dto.response.BulkImportResultDto;
+import com.example.transactions.dto.response.BulkImportRowDto;
+import com.example.transactions.entity.Transaction;
+import com.example.transactions.enums.TransactionType;
+import com.example.transactions.mapper.TransactionMapper;
+import com.example.transactions.repository.ITransactionRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Serviciu pentru importul in masa al tranzactiilor, de exemplu din fisierele procesate noaptea.
+ * Corpul cererii este citit ca flux, fie ca array JSON, fie ca NDJSON (un obiect pe linie),
+ * iar tranzactiile valide sunt salvate in loturi. Id-urile vin dintr-o secventa cu alocare in bloc,
+ * deci fiecare lot este scris prin INSERT-uri grupate in loc de cate un INSERT pe rand.
+ * Fiecare rand primeste propriul rezultat: ID-ul tranzactiei create sau motivul respingerii.
+ *
+ * @author Andrei Arustei
+ */
+@Service
+public class TransactionImportService {
+    private static final int MAX_ACCOUNT_NUMBER_LENGTH = 30;
+    private static final int MAX_DESCRIPTION_LENGTH = 255;
+
+    @Autowired
+    private ITransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountCacheService accountCacheService;
+
+    @Autowired
+    private SpendingLimitService spendingLimitService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${transactions.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${transactions.import.max-rows:100000}")
+    private int maxRows;
+
+    /**
+     * Importa tranzactiile din corpul cererii, lot cu lot.
+     * Un rand invalid este respins fara a opri importul, iar JSON-ul malformat opreste citirea dupa randurile deja citite.
+     * Dupa max-rows randuri citirea se opreste, iar restul corpului este raportat cu o singura eroare; fiecare lot este salvat intr-o tranzactie
+     * de baza de date proprie, deci loturile deja salvate raman salvate chiar daca unul ulterior esueaza.
+     * Platile din cont trec prin aceleasi verificari de limita zilnica si lunara ca la crearea unei singure tranzactii,
+     * cu conturile sursa ale unui lot preluate printr-un singur apel catre serviciul de conturi. Randurile importate
+     * raman PENDING, deci fiecare rand este verificat impreuna cu randurile anterioare din acelasi fisier pentru acelasi cont.
+     *
+     * @param body fluxul cu tranzactiile, array JSON sau NDJSON
+     * @return BulkImportResultDto - numarul de randuri primite, importate si respinse, plus rezultatul fiecarui rand
+     * @throws RuntimeException daca fluxul nu poate fi citit
+     * @author Andrei Arustei
+     */
+    public BulkImportResultDto importTransactions(InputStream body) {
+        List<BulkImportRowDto> rows = new ArrayList<>();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        Map<String, BigDecimal> requestedByAccount = new HashMap<>();
+        int rowNumber = 0;
+
+        try (MappingIterator<PostTransactionDto> iterator = objectMapper.readerFor(PostTransactionDto.class).readValues(body)) {
+            while (iterator.hasNextValue()) {
+                if (rowNumber == maxRows) {
+                    // one error for the whole overflow, the rest of the body is never parsed
+                    rows.add(rejected(rowNumber + 1, "Import is limited to " + maxRows + " rows, the rest of the body was not read"));
+                    break;
+                }
+                rowNumber++;
+                PostTransactionDto transactionDto;
+                try {
+                    transactionDto = iterator.nextValue();
+                } catch (JsonMappingException e) {
+                    rows.add(rejected(rowNumber, "Invalid row: " + e.getOriginalMessage()));
+                    continue;
+                } catch (JsonProcessingException e) {
+                    rows.add(malformed(rowNumber, e));
+                    break;
+                }
+
+                String error = validate(transactionDto);
+                if (error != null) {
+                    rows.add(rejected(rowNumber, error));
+                    continue;
+                }
+
+                chunk.add(new ImportRow(rowNumber, transactionDto));
+                if (chunk.size() == chunkSize) {
+                    rows.addAll(saveChunk(chunk, requestedByAccount));
+                    chunk.clear();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            rows.add(malformed(rowNumber + 1, e));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read import body: " + e.getMessage());
+        }
+        if (!chunk.isEmpty()) {
+            rows.addAll(saveChunk(chunk, requestedByAccount));
+        }
+
+        rows.sort(Comparator.comparingInt(BulkImportRowDto::getRow));
+        int imported = (int) rows.stream().filter(row -> row.getError() == null).count();
+        meterRegistry.counter("transactions.import.rows", "result", "imported").increment(imported);
+        meterRegistry.counter("transactions.import.rows", "result", "rejected").increment(rows.size() - imported);
+        return new BulkImportResultDto(rows.size(), imported, rows.size() - imported, rows);
+    }
+
+    // requestedByAccount carries the amounts already accepted from each source account across the whole file
+    private List<BulkImportRowDto> saveChunk(List<ImportRow> chunk, Map<String, BigDecimal> requestedByAccount) {
+        List<BulkImportRowDto> results = new ArrayList<>(chunk.size());
+        List<ImportRow> accepted = new ArrayList<>(chunk.size());
+
+        Set<String> sourceAccounts = new LinkedHashSet<>();
+        chunk.stream()
+                .filter(row -> debitsSource(row.transactionDto()))
+                .forEach(row -> sourceAccounts.add(row.transactionDto().getFromAccountNumber()));
+
+        Map<String, AccountDto> accountsByNumber = Map.of();
+        String lookupError = null;
+        if (!sourceAccounts.isEmpty()) {
+            try {
+                accountsByNumber = accountCacheService.fetchAccounts(sourceAccounts);
+            } catch (RuntimeException e) {
+                lookupError = "Account lookup failed: " + e.getMessage();
+            }
+        }
+
+        for (ImportRow row : chunk) {
+            PostTransactionDto transactionDto = row.transactionDto();
+            if (!debitsSource(transactionDto)) {
+                accepted.add(row);
+                continue;
+            }
+            if (lookupError != null) {
+                results.add(rejected(row.rowNumber(), lookupError));
+                continue;
+            }
+            AccountDto fromAccount = accountsByNumber.get(transactionDto.getFromAccountNumber());
+            if (fromAccount == null) {
+                results.add(rejected(row.rowNumber(), "Account not found: " + transactionDto.getFromAccountNumber()));
+                continue;
+            }
+            try {
+                BigDecimal alreadyRequested = requestedByAccount.getOrDefault(transactionDto.getFromAccountNumber(), BigDecimal.ZERO);
+                spendingLimitService.checkLimits(fromAccount, alreadyRequested, transactionDto.getAmount());
+                requestedByAccount.merge(transactionDto.getFromAccountNumber(), transactionDto.getAmount(), BigDecimal::add);
+                accepted.add(row);
+            } catch (RuntimeException e) {
+                results.add(rejected(row.rowNumber(), e.getMessage()));
+            }
+        }
+
+        List<Transaction> transactions = accepted.stream().map(row -> TransactionMapper.ToEntity(row.transactionDto())).toList();
+        try {
+            transactionRepository.saveAll(transactions);
+            for (int i = 0; i < accepted.size(); i++) {
+                results.add(new BulkImportRowDto(accepted.get(i).rowNumber(), transactions.get(i).getTransactionId(), null));
+            }
+        } catch (RuntimeException e) {
+            accepted.stream()
+                    .filter(row -> debitsSource(row.transactionDto()))
+                    .forEach(row -> requestedByAccount.merge(row.transactionDto().getFromAccountNumber(),
+                            row.transactionDto().getAmount().negate(), BigDecimal::add));
+            accepted.forEach(row -> results.add(rejected(row.rowNumber(), "Failed to save chunk: " + e.getMessage())));
+        }
+        return results;
+    }
+
+    private static String validate(PostTransactionDto transactionDto) {
+        TransactionType type = transactionDto.getTransactionType();
+        BigDecimal amount = transactionDto.getAmount();
+
+        if (type == null) {
+            return "transactionType is required";
+        }
+        if (amount == null || amount.signum() <= 0) {
+            return "amount must be greater than zero";
+        }
+        if (amount.stripTrailingZeros().scale() > 2) {
+            return "amount must have at most 2 decimals";
+        }
+        if (type != TransactionType.DEPOSIT && isBlank(transactionDto.getFromAccountNumber())) {
+            return "fromAccountNumber is required for " + type;
+        }
+        if (type != TransactionType.WITHDRAWAL && isBlank(transactionDto.getToAccountNumber())) {
+            return "toAccountNumber is required for " + type;
+        }
+        if (isTooLong(transactionDto.getFromAccountNumber(), MAX_ACCOUNT_NUMBER_LENGTH)
+                || isTooLong(transactionDto.getToAccountNumber(), MAX_ACCOUNT_NUMBER_LENGTH)) {
+            return "account numbers must be at most " + MAX_ACCOUNT_NUMBER_LENGTH + " characters";
+        }
+        if (isTooLong(transactionDto.getDescription(), MAX_DESCRIPTION_LENGTH)) {
+            return "description must be at most " + MAX_DESCRIPTION_LENGTH + " characters";
+        }
+        return null;
+    }
+
+    // execute debits the source account whenever there is one, whatever the transaction type says
+    private static boolean debitsSource(PostTransactionDto transactionDto) {
+        return !isBlank(transactionDto.getFromAccountNumber());
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static boolean isTooLong(String value, int maxLength) {
+        return value != null && value.length() > maxLength;
+    }
+
+    private static BulkImportRowDto rejected(int rowNumber, String error) {
+        return new BulkImportRowDto(rowNumber, null, error);
+    }
+
+    // a syntax error cannot be skipped like a bad row, the rest of the body is not read
+    private static BulkImportRowDto malformed(int rowNumber, JsonProcessingException e) {
+        return rejected(rowNumber, "Malformed input, import stopped: " + e.getOriginalMessage());
+    }
+
+    private record ImportRow(int rowNumber, PostTransactionDto transactionDto) {
+    }
+}
@@ -1,14 +1,14 @@
 package com.example.transactions.service;
 
 import com.example.transactions.client.AccountClient;
-import com.example.transactions.client.NotificationClient;
+import com.example.transactions.dto.request.AccountTransferDto;
 import com.example.transactions.dto.request.NotificationCreateDto;
 import com.example.transactions.dto.request.PutTransactionDto;
 import com.example.transactions.dto.request.PostTransactionDto;
 import com.example.transactions.dto.response.AccountDto;
 import com.example.transactions.dto.response.ModifyTransactionCurrencyDto;
-import com.example.transactions.dto.response.NotificationDto;
 import com.example.transactions.dto.response.TransactionDto;
+import com.example.transactions.dto.response.TransactionPageDto;
 import com.example.transactions.entity.Transaction;
 import com.example.transactions.enums.Currency;
 import com.example.transactions.enums.TransactionStatus;
@@ -17,11 +17,21 @@ import com.example.transactions.mapper.TransactionMapper;
 import com.example.transactions.repository.ITransactionRepository;
 import com.example.transactions.service.ITransactionService;
 import com.example.transactions.utils.TransactionHelper;
+import feign.FeignException;
+import feign.RetryableException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.swing.text.html.Option;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -33,25 +43,56 @@ import java.util.Optional;
  */
 @Service
 public class TransactionService implements ITransactionService {
+    private static final int MAX_FAILURE_REASON_LENGTH = 255;
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final LocalDateTime HISTORY_MIN_DATE = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime HISTORY_MAX_DATE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
     @Autowired
     private ITransactionRepository transactionRepository;
 
     @Autowired
-    private NotificationClient notificationClient;
+    private NotificationOutboxService notificationOutboxService;
+
+    @Autowired
+    private AccountCacheService accountCacheService;
 
     @Autowired
     private AccountClient accountClient;
 
+    @Autowired
+    private SpendingLimitService spendingLimitService;
+
+    @Value("${transactions.history.max-page-size:200}")
+    private int historyMaxPageSize;
+
+    // longer than the transfer read timeout and its retries, a live execute never loses its claim
+    @Value("${transactions.payment.claim-lease-ms:60000}")
+    private long claimLeaseMs;
+
+    // the account service only accepts transfers carrying this token
+    @Value("${transactions.payment.internal-token:}")
+    private String internalToken;
+
     /**
      * Creeaza o noua tranzactie simpla fara detalii de cont sau notificari.
      * Primeste un DTO cu datele tranzactiei, il converteste in entitate si il salveaza in baza de date.
+     * Daca tranzactia are cont sursa, verifica inainte limitele zilnica si lunara ale acestuia,
+     * indiferent de tipul tranzactiei, pentru ca executarea debiteaza contul sursa.
      *
      * @param transactionDto datele tranzactiei de creat
      * @return TransactionDto - tranzactia creata sub forma de DTO
+     * @throws RuntimeException daca plata depaseste limita zilnica sau lunara
      * @author Andrei Arustei
      */
     @Override
     public TransactionDto postTransaction(PostTransactionDto transactionDto) {
+        if (debitsSource(transactionDto.getFromAccountNumber())) {
+            Map<String, AccountDto> accountsByNumber = accountCacheService.fetchAccounts(List.of(transactionDto.getFromAccountNumber()));
+            AccountDto fromAccountDto = requireAccount(accountsByNumber, transactionDto.getFromAccountNumber());
+            spendingLimitService.checkLimits(fromAccountDto, transactionDto.getAmount());
+        }
+
         Transaction transaction = TransactionMapper.ToEntity(transactionDto);
         transactionRepository.save(transaction);
         return TransactionMapper.ToDto(transaction);
@@ -71,15 +112,15 @@ public class TransactionService implements ITransactionService {
     public String postTransactionWithAccountDetails(PostTransactionDto transactionDto) {
         AccountDto fromAccountDto, toAccountDto;
         try {
-            fromAccountDto = accountClient.fetchAccount(transactionDto.getFromAccountNumber()).getBody();
-            toAccountDto = accountClient.fetchAccount(transactionDto.getToAccountNumber()).getBody();
+            AccountPair accounts = fetchAccountPair(transactionDto.getFromAccountNumber(), transactionDto.getToAccountNumber());
+            fromAccountDto = accounts.from();
+            toAccountDto = accounts.to();
         } catch (Exception e) {
             throw new RuntimeException("Failed to fetch account for new transaction: " + e.getMessage());
         }
+        spendingLimitService.checkLimits(fromAccountDto, transactionDto.getAmount());
 
         Transaction transaction = TransactionMapper.ToEntity(transactionDto);
-        transaction.setFromAccountNumber(fromAccountDto.getAccountNumber());
-        transaction.setToAccountNumber(toAccountDto.getAccountNumber());
         transactionRepository.save(transaction);
 
         return "Transaction created successfully with account details: customer name "
@@ -104,8 +145,9 @@ public class TransactionService implements ITransactionService {
 
         if(transaction.isPresent()) {
             try {
-                fromAccountDto = accountClient.fetchAccount(transaction.get().getFromAccountNumber()).getBody();
-                toAccountDto = accountClient.fetchAccount(transaction.get().getToAccountNumber()).getBody();
+                AccountPair accounts = fetchAccountPair(transaction.get().getFromAccountNumber(), transaction.get().getToAccountNumber());
+                fromAccountDto = accounts.from();
+                toAccountDto = accounts.to();
 
                 return "Transaction getched successfully with account details: customer name "
                         + fromAccountDto.getCustomerName() + " to " + toAccountDto.getCustomerName()
@@ -120,46 +162,45 @@ public class TransactionService implements ITransactionService {
     }
 
     /**
-     * Creeaza o noua tranzactie si trimite automat o notificare catre destinatar.
-     * Preia informatiile despre conturile implicate, genereaza si trimite o notificare SMS
-     * catre clientul destinatar cu detaliile tranzactiei create.
+     * Creeaza o noua tranzactie si programeaza o notificare catre destinatar.
+     * Preia informatiile despre conturile implicate si genereaza o notificare SMS cu detaliile tranzactiei.
+     * Notificarea este scrisa in tabela outbox in aceeasi tranzactie de baza de date ca tranzactia,
+     * iar trimiterea catre serviciul de notificari se face ulterior, in fundal.
      *
      * @param transactionDto datele tranzactiei de creat
-     * @return String - mesaj de confirmare cu continutul notificarii trimise
-     * @throws RuntimeException daca apelurile catre serviciul de conturi sau notificari esueaza
+     * @return String - mesaj de confirmare cu continutul notificarii programate
+     * @throws RuntimeException daca apelurile catre serviciul de conturi esueaza
      * @author Andrei Arustei
      */
     @Override
     public String postTransactionWithNotification(PostTransactionDto transactionDto) {
         AccountDto fromAccountDto, toAccountDto;
-        NotificationDto createdNotification;
         try {
-            fromAccountDto = accountClient.fetchAccount(transactionDto.getFromAccountNumber()).getBody();
-            toAccountDto = accountClient.fetchAccount(transactionDto.getToAccountNumber()).getBody();
-
-            NotificationCreateDto notificationCreateDto = new NotificationCreateDto(
-                    toAccountDto.getCustomerId(),
-                    toAccountDto.getCustomerEmail(),
-                    toAccountDto.getCustomerPhone(),
-                    "SMS",
-                    "TRANSACTION_CREATED",
-                    "Transaction Created",
-                    "Transaction from " + fromAccountDto.getCustomerName()
-                            + " to " + toAccountDto.getCustomerName()
-                            + " for amount " + transactionDto.getAmount() + " was created.",
-                    "HIGH"
-            );
-
-             createdNotification = notificationClient.createNotification(notificationCreateDto).getBody();
-
+            AccountPair accounts = fetchAccountPair(transactionDto.getFromAccountNumber(), transactionDto.getToAccountNumber());
+            fromAccountDto = accounts.from();
+            toAccountDto = accounts.to();
         } catch (Exception e) {
-            throw new RuntimeException("Failed to create notification or fetch account for new transaction: " + e.getMessage());
+            throw new RuntimeException("Failed to fetch account for new transaction: " + e.getMessage());
         }
+        spendingLimitService.checkLimits(fromAccountDto, transactionDto.getAmount());
+
+        NotificationCreateDto notificationCreateDto = new NotificationCreateDto(
+                toAccountDto.getCustomerId(),
+                toAccountDto.getCustomerEmail(),
+                toAccountDto.getCustomerPhone(),
+                "SMS",
+                "TRANSACTION_CREATED",
+                "Transaction Created",
+                "Transaction from " + fromAccountDto.getCustomerName()
+                        + " to " + toAccountDto.getCustomerName()
+                        + " for amount " + transactionDto.getAmount() + " was created.",
+                "HIGH"
+        );
 
         Transaction transaction = TransactionMapper.ToEntity(transactionDto);
-        transactionRepository.save(transaction);
+        notificationOutboxService.saveWithNotification(transaction, notificationCreateDto);
 
-        return "Transaction created successfully with new notification: " + createdNotification.getMessage()
+        return "Transaction created successfully with new notification: " + notificationCreateDto.getMessage()
                 + " for transactionId: " + transaction.getTransactionId();
     }
 
@@ -184,26 +225,80 @@ public class TransactionService implements ITransactionService {
     }
 
     /**
-     * Actualizeaza o tranzactie existenta cu date noi.
-     * Cauta tranzactia dupa ID, o actualizeaza cu datele din DTO si salveaza modificarile.
+     * Returneaza istoricul tranzactiilor unui cont, de la cele mai noi la cele mai vechi, pagina cu pagina.
+     * Sunt incluse tranzactiile in care contul este sursa sau destinatie.
+     * Paginarea foloseste un cursor cu (initiatedAt, id) ultimei tranzactii din pagina anterioara,
+     * deci fiecare pagina este citita direct din indexurile pe cont, oricat de lung ar fi istoricul.
+     *
+     * @param accountNumber numarul contului
+     * @param cursor cursorul primit la pagina anterioara, null pentru prima pagina
+     * @param limit numarul maxim de tranzactii din pagina, limitat la valoarea configurata
+     * @param status filtru optional dupa status
+     * @param type filtru optional dupa tipul tranzactiei
+     * @param from filtru optional, tranzactii initiate la sau dupa aceasta data
+     * @param to filtru optional, tranzactii initiate la sau inainte de aceasta data
+     * @return TransactionPageDto - tranzactiile din pagina si cursorul pentru pagina urmatoare, null daca nu mai exista
+     * @throws RuntimeException daca cursorul nu este valid
+     * @author Andrei Arustei
+     */
+    @Override
+    public TransactionPageDto fetchTransactionHistory(String accountNumber, String cursor, int limit,
+                                                      TransactionStatus status, TransactionType type,
+                                                      LocalDateTime from, LocalDateTime to) {
+        int pageSize = Math.max(1, Math.min(limit, historyMaxPageSize));
+
+        HistoryCursor before = cursor == null || cursor.isBlank()
+                ? new HistoryCursor(to != null ? to : HISTORY_MAX_DATE, Long.MAX_VALUE)
+                : HistoryCursor.decode(cursor);
+
+        // fetch one extra row to know whether another page exists
+        List<Transaction> transactions = transactionRepository.findAccountHistory(
+                accountNumber,
+                before.initiatedAt(),
+                before.id(),
+                from != null ? from : HISTORY_MIN_DATE,
+                status != null ? status.name() : null,
+                type != null ? type.name() : null,
+                pageSize + 1);
+
+        String nextCursor = null;
+        if (transactions.size() > pageSize) {
+            transactions = transactions.subList(0, pageSize);
+            Transaction last = transactions.get(pageSize - 1);
+            nextCursor = new HistoryCursor(last.getInitiatedAt(), last.getId()).encode();
+        }
+
+        List<TransactionDto> items = transactions.stream()
+                .map(TransactionMapper::ToDto)
+                .toList();
+        return new TransactionPageDto(items, nextCursor);
+    }
+
+    /**
+     * Actualizeaza detaliile unei tranzactii care nu a fost inca executata.
+     * Pot fi modificate tipul, conturile, suma, moneda si descrierea, doar cat timp tranzactia este PENDING
+     * si nu are limite rezervate. Statusul nu poate fi schimbat prin actualizare, doar prin executare sau anulare,
+     * deci o plata finalizata nu poate fi readusa in PENDING si executata a doua oara.
      *
      * @param transactionDto datele noi pentru actualizarea tranzactiei
      * @param transactionId ID-ul unic al tranzactiei de actualizat
      * @return boolean - true daca actualizarea a reusit
-     * @throws RuntimeException daca tranzactia cu ID-ul specificat nu este gasita
+     * @throws RuntimeException daca tranzactia nu este gasita, cererea schimba statusul sau tranzactia nu mai este PENDING
      * @author Andrei Arustei
      */
     @Override
     public boolean putTransaction(PutTransactionDto transactionDto, String transactionId) {
-        Optional<Transaction> transactionToPatch = transactionRepository.findTransactionByTransactionId(transactionId);
+        Transaction existing = transactionRepository.findTransactionByTransactionId(transactionId)
+                .orElseThrow(() -> new RuntimeException("Transaction with ID " + transactionId + " not found in method patchTransaction"));
 
-        if (transactionToPatch.isPresent()) {
-            Transaction existing = transactionToPatch.get();
-            Transaction updated = TransactionMapper.ToEntity(transactionDto, existing.getId(), transactionId);
-            transactionRepository.save(updated);
-            return true;
+        if (transactionDto.getStatus() != null && transactionDto.getStatus() != existing.getStatus()) {
+            throw new RuntimeException("Status of transaction " + transactionId + " can only change by executing or cancelling it");
         }
-        throw new RuntimeException("Transaction with ID " + transactionId + " not found in method patchTransaction");
+        if (transactionRepository.updatePending(transactionId, transactionDto) == 0) {
+            String state = existing.getStatus() == TransactionStatus.PENDING ? "already being executed" : existing.getStatus().name();
+            throw new RuntimeException("Transaction with ID " + transactionId + " is " + state + " and cannot be changed");
+        }
+        return true;
     }
 
     /**
@@ -228,26 +323,83 @@ public class TransactionService implements ITransactionService {
     }
 
     /**
-     * Executa o plata marcand tranzactia ca fiind finalizata (COMPLETED).
-     * Cauta tranzactia dupa ID, schimba statusul in COMPLETED si salveaza modificarea.
-     * Nota: Implementarea completa pentru transferul efectiv de bani va fi adaugata ulterior.
+     * Executa plata unei tranzactii in asteptare, mutand efectiv banii intre cele doua conturi.
+     * Tranzactia este mai intai revendicata atomic (PENDING -> PROCESSING), deci doua executari simultane
+     * nu pot trimite amandoua transferul. Debitarea si creditarea sunt facute atomic de serviciul de conturi,
+     * care retine ID-ul transferului si nu muta banii a doua oara pentru acelasi ID.
+     * Daca transferul este respins cu un raspuns 4xx (fonduri insuficiente, cont blocat etc.), tranzactia devine FAILED.
+     * Daca serviciul de conturi nu raspunde sau raspunde cu 5xx, rezultatul nu este cunoscut si tranzactia redevine PENDING;
+     * urmatoarea executare trimite acelasi ID de transfer si primeste rezultatul primului transfer.
+     * Inainte de transfer suma este rezervata atomic in limitele zilnica si lunara ale contului sursa; rezervarea
+     * ramane pe tranzactie cat timp rezultatul nu este cunoscut si este eliberata doar la o respingere definitiva.
      *
      * @param transactionId ID-ul unic al tranzactiei de executat
      * @return boolean - true daca executarea a reusit
-     * @throws RuntimeException daca tranzactia cu ID-ul specificat nu este gasita
+     * @throws RuntimeException daca tranzactia nu este gasita, nu este PENDING sau transferul esueaza
      * @author Andrei Arustei
      */
     @Override
     public boolean executePaymentByTransactionId(String transactionId) {
-        Optional<Transaction> transactionToExecutePayment = transactionRepository.findTransactionByTransactionId(transactionId);
+        Transaction transaction = transactionRepository.findTransactionByTransactionId(transactionId)
+                .orElseThrow(() -> new RuntimeException("Transaction with ID " + transactionId + " not found in method executePaymentByTransactionId"));
 
-        if(transactionToExecutePayment.isPresent()) {
-            transactionToExecutePayment.get().setStatus(TransactionStatus.COMPLETED);
-            // further implementation to move money from one account to another
-            transactionRepository.save(transactionToExecutePayment.get());
-            return true;
+        LocalDateTime now = LocalDateTime.now();
+        if (transactionRepository.claimForExecution(transactionId, now, now.minusNanos(claimLeaseMs * 1_000_000)) == 0) {
+            String state = transaction.getStatus() == TransactionStatus.PENDING ? "already being executed" : transaction.getStatus().name();
+            throw new RuntimeException("Transaction with ID " + transactionId + " is " + state + " and cannot be executed");
         }
-        throw new RuntimeException("Transaction with ID " + transactionId + " not found in method executePaymentByTransactionId");
+
+        if (debitsSource(transaction.getFromAccountNumber()) && transaction.getSpendingReservedOn() == null) {
+            LocalDate reservedOn;
+            try {
+                Map<String, AccountDto> accountsByNumber = accountCacheService.fetchAccounts(List.of(transaction.getFromAccountNumber()));
+                AccountDto fromAccountDto = requireAccount(accountsByNumber, transaction.getFromAccountNumber());
+                reservedOn = spendingLimitService.reserve(fromAccountDto, transaction.getAmount());
+            } catch (RuntimeException e) {
+                transactionRepository.releaseClaim(transactionId);
+                throw e;
+            }
+            transactionRepository.markSpendingReserved(transactionId, reservedOn);
+            transaction.setSpendingReservedOn(reservedOn);
+        }
+
+        AccountTransferDto transfer = new AccountTransferDto(
+                transaction.getTransactionId(),
+                transaction.getFromAccountNumber(),
+                transaction.getToAccountNumber(),
+                transaction.getAmount(),
+                transaction.getCurrency()
+        );
+
+        try {
+            accountClient.transfer(internalToken, transfer);
+        } catch (RetryableException e) {
+            transactionRepository.releaseClaim(transactionId);
+            throw new RuntimeException("Account service unreachable, transaction " + transactionId + " stays PENDING: " + e.getMessage());
+        } catch (FeignException e) {
+            if (!isRejection(e)) {
+                // a 5xx says nothing about whether the transfer committed, retrying with the same id is safe
+                transactionRepository.releaseClaim(transactionId);
+                throw new RuntimeException("Account service failed, transaction " + transactionId + " stays PENDING: " + e.getMessage());
+            }
+            if (transaction.getSpendingReservedOn() != null) {
+                spendingLimitService.release(transaction.getFromAccountNumber(), transaction.getAmount(), transaction.getSpendingReservedOn());
+                transaction.setSpendingReservedOn(null);
+            }
+            transaction.setStatus(TransactionStatus.FAILED);
+            transaction.setFailedAt(LocalDateTime.now());
+            transaction.setFailureReason(truncateFailureReason(e.getMessage()));
+            transactionRepository.save(transaction);
+            throw new RuntimeException("Payment for transaction " + transactionId + " failed: " + e.getMessage());
+        } catch (RuntimeException e) {
+            transactionRepository.releaseClaim(transactionId);
+            throw e;
+        }
+
+        transaction.setStatus(TransactionStatus.COMPLETED);
+        transaction.setCompletedAt(LocalDateTime.now());
+        transactionRepository.save(transaction);
+        return true;
     }
 
     /**
@@ -325,20 +477,38 @@ public class TransactionService implements ITransactionService {
         Optional<Transaction> transaction = transactionRepository.findTransactionByTransactionId(transactionId);
 
         if(transaction.isPresent()) {
-            return switch (transaction.get().getTransactionType()) {
-                case TRANSFER -> transaction.get().getAmount().multiply(new BigDecimal("0.01"));
-                case WITHDRAWAL -> new BigDecimal("2.50");
-                case DEPOSIT -> BigDecimal.ZERO;
-                case PAYMENT -> transaction.get().getAmount().multiply(new BigDecimal("0.015"));
-                default -> BigDecimal.ZERO;
-            };
+            return TransactionHelper.calculateFee(
+                    transaction.get().getTransactionType(),
+                    transaction.get().getCurrency(),
+                    transaction.get().getAmount());
         }
         throw new RuntimeException("Transaction with ID " + transactionId + " not found in method generateTransactionAmount");
     }
 
+    /**
+     * Calculeaza comisioanele pentru mai multe tranzactii printr-o singura interogare.
+     * Regulile sunt aceleasi ca pentru o singura tranzactie; ID-urile care nu exista lipsesc din rezultat.
+     *
+     * @param transactionIds ID-urile unice ale tranzactiilor
+     * @return Map - comisionul fiecarei tranzactii gasite, dupa ID
+     * @throws RuntimeException daca sunt cerute mai multe tranzactii decat limita permisa
+     * @author Andrei Arustei
+     */
+    @Override
+    public Map<String, BigDecimal> calculateTransactionAmounts(List<String> transactionIds) {
+        List<Transaction> transactions = findBatch(transactionIds);
+        List<BigDecimal> fees = TransactionHelper.calculateFees(transactions);
+
+        Map<String, BigDecimal> feesById = new LinkedHashMap<>();
+        for (int i = 0; i < transactions.size(); i++) {
+            feesById.put(transactions.get(i).getTransactionId(), fees.get(i));
+        }
+        return feesById;
+    }
+
     /**
      * Efectueaza o verificare anti-frauda asupra unei tranzactii finalizate.
-     * Analizeaza tranzactia pentru a detecta potentiale activitati suspecte sau frauduloase.
+     * Returneaza scorul de risc salvat de scorarea din fundal; pana la scorare, scorul se calculeaza din pragurile de suma.
      * Verificarea se aplica doar tranzactiilor cu status COMPLETED.
      *
      * @param transactionId ID-ul unic al tranzactiei de verificat
@@ -351,8 +521,123 @@ public class TransactionService implements ITransactionService {
         Optional<Transaction> transaction = transactionRepository.findTransactionByTransactionId(transactionId);
 
         if(transaction.isPresent() && transaction.get().getStatus() == TransactionStatus.COMPLETED) {
-            return TransactionHelper.checkAmountAntiFraud(transaction.get()).toString();
+            BigDecimal riskScore = transaction.get().getRiskScore();
+            // not scored by the background pipeline yet, fall back to the amount thresholds
+            return (riskScore != null ? riskScore : TransactionHelper.checkAmountAntiFraud(transaction.get())).toString();
         }
         throw new RuntimeException("Transaction with ID " + transactionId + " not found in method antiFraudCheck");
     }
+
+    /**
+     * Returneaza scorurile de risc pentru mai multe tranzactii printr-o singura interogare.
+     * Sunt incluse doar tranzactiile COMPLETED; cele inca nescorate primesc scorul din pragurile de suma.
+     *
+     * @param transactionIds ID-urile unice ale tranzactiilor
+     * @return Map - scorul de risc al fiecarei tranzactii finalizate gasite, dupa ID
+     * @throws RuntimeException daca sunt cerute mai multe tranzactii decat limita permisa
+     * @author Andrei Arustei
+     */
+    @Override
+    public Map<String, BigDecimal> antiFraudCheck(List<String> transactionIds) {
+        List<Transaction> completed = findBatch(transactionIds).stream()
+                .filter(transaction -> transaction.getStatus() == TransactionStatus.COMPLETED)
+                .toList();
+        List<BigDecimal> amountScores = TransactionHelper.checkAmountAntiFraud(completed);
+
+        Map<String, BigDecimal> scoresById = new LinkedHashMap<>();
+        for (int i = 0; i < completed.size(); i++) {
+            Transaction transaction = completed.get(i);
+            scoresById.put(transaction.getTransactionId(),
+                    transaction.getRiskScore() != null ? transaction.getRiskScore() : amountScores.get(i));
+        }
+        return scoresById;
+    }
+
+    /**
+     * Elimina un cont din cache-ul local de conturi.
+     * Este apelata de serviciul de conturi dupa ce un cont este blocat, inchis sau actualizat,
+     * astfel incat urmatoarea tranzactie citeste starea curenta a contului.
+     *
+     * @param accountNumber numarul contului de eliminat din cache
+     * @author Andrei Arustei
+     */
+    @Override
+    public void evictCachedAccount(String accountNumber) {
+        accountCacheService.evict(accountNumber);
+    }
+
+    /**
+     * Preia contul sursa si contul destinatie, mai intai din cache-ul local de conturi.
+     * Conturile lipsa din cache sunt preluate printr-un singur apel batch catre serviciul de conturi.
+     *
+     * @param fromAccountNumber numarul contului sursa
+     * @param toAccountNumber numarul contului destinatie
+     * @return AccountPair - conturile gasite
+     * @throws RuntimeException daca apelul esueaza, un cont lipseste sau termenul limita este depasit
+     * @author Andrei Arustei
+     */
+    private AccountPair fetchAccountPair(String fromAccountNumber, String toAccountNumber) {
+        Map<String, AccountDto> accountsByNumber =
+                accountCacheService.fetchAccounts(List.of(fromAccountNumber, toAccountNumber));
+
+        return new AccountPair(
+                requireAccount(accountsByNumber, fromAccountNumber),
+                requireAccount(accountsByNumber, toAccountNumber)
+        );
+    }
+
+    private List<Transaction> findBatch(List<String> transactionIds) {
+        if (transactionIds.size() > MAX_BATCH_SIZE) {
+            throw new RuntimeException("At most " + MAX_BATCH_SIZE + " transactions can be requested at once");
+        }
+        return transactionIds.isEmpty() ? List.of() : transactionRepository.findByTransactionIdIn(transactionIds);
+    }
+
+    private static AccountDto requireAccount(Map<String, AccountDto> accountsByNumber, String accountNumber) {
+        AccountDto account = accountsByNumber.get(accountNumber);
+        if (account == null) {
+            throw new RuntimeException("Account not found: " + accountNumber);
+        }
+        return account;
+    }
+
+    // the account service answers business rejections with 4xx; 408 and 429 only mean "try again later"
+    private static boolean isRejection(FeignException e) {
+        return e.status() >= 400 && e.status() < 500 && e.status() != 408 && e.status() != 429;
+    }
+
+    // the transfer debits the source account whenever there is one, whatever the transaction type says
+    private static boolean debitsSource(String fromAccountNumber) {
+        return fromAccountNumber != null && !fromAccountNumber.isBlank();
+    }
+
+    private static String truncateFailureReason(String reason) {
+        if (reason == null || reason.length() <= MAX_FAILURE_REASON_LENGTH) {
+            return reason;
+        }
+        return reason.substring(0, MAX_FAILURE_REASON_LENGTH);
+    }
+
+    private record AccountPair(AccountDto from, AccountDto to) {
+    }
+
+    // opaque cursor holding the (initiatedAt, id) of the last row of the previous page
+    private record HistoryCursor(LocalDateTime initiatedAt, long id) {
+
+        String encode() {
+            String raw = initiatedAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static HistoryCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('|');
+                return new HistoryCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                        Long.parseLong(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Invalid history cursor");
+            }
+        }
+    }
 }
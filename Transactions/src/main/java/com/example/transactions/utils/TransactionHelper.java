@@ -2,31 +2,110 @@ package com.example.transactions.utils;
 
 import com.example.transactions.entity.Transaction;
 import com.example.transactions.enums.Currency;
+import com.example.transactions.enums.TransactionType;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 
 public class TransactionHelper {
+    // amount thresholds and the score each one maps to, highest first
+    private static final BigDecimal HIGH_RISK_AMOUNT = new BigDecimal("10000");
+    private static final BigDecimal MEDIUM_HIGH_RISK_AMOUNT = new BigDecimal("5000");
+    private static final BigDecimal MEDIUM_RISK_AMOUNT = new BigDecimal("2000");
+    private static final BigDecimal MEDIUM_HIGH_RISK_SCORE = new BigDecimal("0.7");
+    private static final BigDecimal MEDIUM_RISK_SCORE = new BigDecimal("0.4");
+
+    // fee per transaction type and currency, built once instead of parsing the rates on every call
+    private static final Map<TransactionType, Map<Currency, Fee>> FEES = new EnumMap<>(TransactionType.class);
+
+    private static final Map<Currency, BigDecimal> CURRENCY_VALUES = new EnumMap<>(Currency.class);
+
+    static {
+        Fee transfer = Fee.percentage(new BigDecimal("0.01"));
+        Fee withdrawal = Fee.fixed(new BigDecimal("2.50"));
+        Fee deposit = Fee.fixed(BigDecimal.ZERO);
+        Fee payment = Fee.percentage(new BigDecimal("0.015"));
+
+        for (TransactionType type : TransactionType.values()) {
+            Fee fee = switch (type) {
+                case TRANSFER -> transfer;
+                case WITHDRAWAL -> withdrawal;
+                case DEPOSIT -> deposit;
+                case PAYMENT -> payment;
+            };
+            Map<Currency, Fee> byCurrency = new EnumMap<>(Currency.class);
+            for (Currency currency : Currency.values()) {
+                byCurrency.put(currency, fee);
+            }
+            FEES.put(type, byCurrency);
+        }
+
+        for (Currency currency : Currency.values()) {
+            CURRENCY_VALUES.put(currency, BigDecimal.valueOf(currency.getValue()));
+        }
+    }
+
     public static BigDecimal checkAmountAntiFraud(Transaction transaction) {
-        BigDecimal amount = transaction.getAmount();
-        if (amount.compareTo(new BigDecimal("10000")) > 0) {
+        return checkAmountAntiFraud(transaction.getAmount());
+    }
+
+    public static BigDecimal checkAmountAntiFraud(BigDecimal amount) {
+        if (amount.compareTo(HIGH_RISK_AMOUNT) > 0) {
             return BigDecimal.ONE;
-        } else if (amount.compareTo(new BigDecimal("5000")) > 0) {
-            return new BigDecimal("0.7");
-        } else if (amount.compareTo(new BigDecimal("2000")) > 0) {
-            return new BigDecimal("0.4");
+        } else if (amount.compareTo(MEDIUM_HIGH_RISK_AMOUNT) > 0) {
+            return MEDIUM_HIGH_RISK_SCORE;
+        } else if (amount.compareTo(MEDIUM_RISK_AMOUNT) > 0) {
+            return MEDIUM_RISK_SCORE;
         }
         return BigDecimal.ZERO;
     }
 
+    public static List<BigDecimal> checkAmountAntiFraud(List<Transaction> transactions) {
+        List<BigDecimal> scores = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            scores.add(checkAmountAntiFraud(transaction));
+        }
+        return scores;
+    }
+
+    public static BigDecimal calculateFee(TransactionType transactionType, Currency currency, BigDecimal amount) {
+        Fee fee = FEES.get(transactionType).get(currency != null ? currency : Currency.RON);
+        return fee.rate() != null ? amount.multiply(fee.rate()) : fee.fixed();
+    }
+
+    public static List<BigDecimal> calculateFees(List<Transaction> transactions) {
+        List<BigDecimal> fees = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            fees.add(calculateFee(transaction.getTransactionType(), transaction.getCurrency(), transaction.getAmount()));
+        }
+        return fees;
+    }
+
     public static BigDecimal ConvertCurrency(Currency previousCurrency, Currency newCurrency, BigDecimal amount) {
         if (previousCurrency == newCurrency) {
             return amount;
         }
 
-        BigDecimal prevVal = BigDecimal.valueOf(previousCurrency.getValue());
-        BigDecimal newVal = BigDecimal.valueOf(newCurrency.getValue());
+        BigDecimal prevVal = CURRENCY_VALUES.get(previousCurrency);
+        BigDecimal newVal = CURRENCY_VALUES.get(newCurrency);
 
         return amount.multiply(prevVal)
-                .divide(newVal, 8, java.math.RoundingMode.HALF_UP);
+                .divide(newVal, 8, RoundingMode.HALF_UP);
+    }
+
+    // either a percentage of the amount or a fixed value
+    private record Fee(BigDecimal rate, BigDecimal fixed) {
+
+        static Fee percentage(BigDecimal rate) {
+            return new Fee(rate, null);
+        }
+
+        static Fee fixed(BigDecimal fixed) {
+            return new Fee(null, fixed);
+        }
     }
 }
@@ -0,0 +1,265 @@
+package com.example.transactions.client;
+
+import com.example.transactions.config.HedgingProperties;
+import com.example.transactions.loadbalancer.HedgedCallRegistry;
+import feign.Client;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HedgingFeignClientTests {
+
+    private final Map<String, MethodMetadata> accountClientMethods = new SpringMvcContract()
+            .parseAndValidateMetadata(AccountClient.class).stream()
+            .collect(Collectors.toMap(metadata -> metadata.method().getName(), metadata -> metadata));
+
+    private final Request.Options options = new Request.Options();
+    private final List<Request> sent = new CopyOnWriteArrayList<>();
+
+    private HedgingProperties.Policy policy;
+    private ExecutorService executor;
+    private Bulkhead bulkhead;
+    private HedgedCallRegistry hedgedCallRegistry;
+    private MeterRegistry meterRegistry;
+
+    // how the fake replicas answer the first copy and the hedge
+    private long primaryDelayMs;
+    private int primaryStatus;
+    private long hedgeDelayMs;
+    private int hedgeStatus;
+
+    @BeforeEach
+    void setUp() {
+        policy = new HedgingProperties.Policy();
+        policy.setMethods(List.of("fetchAccount"));
+        policy.setInitialDelayMs(50);
+        policy.setMinDelayMs(10);
+        policy.setMaxDelayMs(1000);
+
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        bulkhead = Bulkhead.of("accountmanagement", BulkheadConfig.custom().maxConcurrentCalls(10).build());
+        hedgedCallRegistry = new HedgedCallRegistry();
+        meterRegistry = new SimpleMeterRegistry();
+
+        primaryDelayMs = 0;
+        primaryStatus = 200;
+        hedgeDelayMs = 0;
+        hedgeStatus = 200;
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void execute_FastAnswerIsNotHedged() throws Exception {
+        Response response = client().execute(request("fetchAccount", Request.HttpMethod.GET), options);
+
+        assertEquals(200, response.status());
+        assertEquals(1, sent.size());
+        assertEquals(1, counter("transactions.hedging.calls"));
+        assertEquals(0, counter("transactions.hedging.hedges"));
+        assertEquals(0, hedgedCallRegistry.size());
+    }
+
+    @Test
+    void execute_SlowReplicaIsOvertakenByTheHedge() throws Exception {
+        primaryDelayMs = 2000;
+        hedgeStatus = 203;
+
+        long start = System.nanoTime();
+        Response response = client().execute(request("fetchAccount", Request.HttpMethod.GET), options);
+
+        assertEquals(203, response.status());
+        assertTrue(System.nanoTime() - start < 1_500_000_000L);
+        assertEquals(2, sent.size());
+        String hedgeId = sent.get(0).headers().get(HedgedCallRegistry.HEDGE_ID_HEADER).iterator().next();
+        assertEquals(hedgeId, sent.get(1).headers().get(HedgedCallRegistry.HEDGE_OF_HEADER).iterator().next());
+        assertEquals(1, counter("transactions.hedging.hedges"));
+        assertEquals(1, counter("transactions.hedging.wins"));
+        assertEquals(0, hedgedCallRegistry.size());
+    }
+
+    @Test
+    void execute_HedgeHoldsABulkheadPermitUntilBothCopiesAreDone() throws Exception {
+        primaryDelayMs = 500;
+
+        client().execute(request("fetchAccount", Request.HttpMethod.GET), options);
+
+        // the hedge won, the first copy is still running and keeps the permit taken for the hedge
+        assertEquals(9, bulkhead.getMetrics().getAvailableConcurrentCalls());
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (bulkhead.getMetrics().getAvailableConcurrentCalls() < 10 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(10, bulkhead.getMetrics().getAvailableConcurrentCalls());
+    }
+
+    @Test
+    void execute_NoHedgeWhenTheBulkheadIsFull() throws Exception {
+        bulkhead = Bulkhead.of("accountmanagement", BulkheadConfig.custom().maxConcurrentCalls(1).build());
+        assertTrue(bulkhead.tryAcquirePermission());
+        primaryDelayMs = 100;
+
+        Response response = client().execute(request("fetchAccount", Request.HttpMethod.GET), options);
+
+        assertEquals(200, response.status());
+        assertEquals(1, sent.size());
+        assertEquals(0, counter("transactions.hedging.hedges"));
+        assertEquals(1, counter("transactions.hedging.bulkhead.full"));
+    }
+
+    @Test
+    void execute_FailedHedgeDoesNotBeatASlowAnswer() throws Exception {
+        primaryDelayMs = 200;
+        hedgeStatus = 503;
+
+        Response response = client().execute(request("fetchAccount", Request.HttpMethod.GET), options);
+
+        assertEquals(200, response.status());
+        assertEquals(1, counter("transactions.hedging.hedges"));
+        assertEquals(0, counter("transactions.hedging.wins"));
+    }
+
+    @Test
+    void execute_NoHedgeOnceTheBudgetIsSpent() throws Exception {
+        policy.setBudgetBurst(1);
+        policy.setBudgetPercent(0);
+        primaryDelayMs = 100;
+        HedgingFeignClient client = client();
+
+        client.execute(request("fetchAccount", Request.HttpMethod.GET), options);
+        client.execute(request("fetchAccount", Request.HttpMethod.GET), options);
+
+        assertEquals(2, counter("transactions.hedging.calls"));
+        assertEquals(1, counter("transactions.hedging.hedges"));
+        assertEquals(1, counter("transactions.hedging.budget.exhausted"));
+        assertEquals(3, sent.size());
+    }
+
+    @Test
+    void execute_OtherMethodsGoStraightThrough() throws Exception {
+        primaryStatus = 500;
+
+        Response transfer = client().execute(request("transfer", Request.HttpMethod.POST), options);
+        Response fetchAccounts = client().execute(request("fetchAccounts", Request.HttpMethod.GET), options);
+
+        assertEquals(500, transfer.status());
+        assertEquals(500, fetchAccounts.status());
+        assertEquals(2, sent.size());
+        assertTrue(sent.stream().allMatch(request -> request.headers().isEmpty()));
+        assertTrue(meterRegistry.find("transactions.hedging.calls").counters().isEmpty());
+    }
+
+    @Test
+    void execute_FirstCopyErrorIsRethrownWithoutHedging() {
+        primaryStatus = -1;
+
+        assertThrows(SocketTimeoutException.class,
+                () -> client().execute(request("fetchAccount", Request.HttpMethod.GET), options));
+        assertEquals(1, sent.size());
+    }
+
+    @Test
+    void execute_HedgeHeadersSteerTheBalancerButDoNotReachTheReplicas() throws Exception {
+        // the replicas cannot tell the copies apart any more, both are slow enough to be hedged
+        primaryDelayMs = 300;
+        List<Request> balanced = new CopyOnWriteArrayList<>();
+        Client replicas = HedgingFeignClient.withoutHedgeHeaders(replicas());
+        Client balancer = (request, options) -> {
+            balanced.add(request);
+            return replicas.execute(request, options);
+        };
+        HedgingFeignClient client = new HedgingFeignClient(balancer, "accountmanagement", policy, executor, bulkhead,
+                hedgedCallRegistry, meterRegistry);
+
+        client.execute(request("fetchAccount", Request.HttpMethod.GET), options);
+
+        waitForSent(2);
+        assertEquals(2, balanced.size());
+        assertTrue(balanced.stream().anyMatch(request -> request.headers().containsKey(HedgedCallRegistry.HEDGE_ID_HEADER)));
+        assertTrue(balanced.stream().anyMatch(request -> request.headers().containsKey(HedgedCallRegistry.HEDGE_OF_HEADER)));
+        assertTrue(sent.stream().allMatch(request -> request.headers().isEmpty()));
+    }
+
+    @Test
+    void withoutHedgeHeaders_KeepsTheOtherHeaders() throws Exception {
+        Request request = Request.create(Request.HttpMethod.GET, "http://10.0.0.1:8080/api/accounts/1",
+                Map.of(HedgedCallRegistry.HEDGE_OF_HEADER, List.of("abc"), "Accept", List.of("application/json")),
+                null, StandardCharsets.UTF_8, new RequestTemplate());
+
+        HedgingFeignClient.withoutHedgeHeaders(replicas()).execute(request, options);
+
+        assertEquals(Map.of("Accept", List.of("application/json")), Map.copyOf(sent.get(0).headers()));
+    }
+
+    private HedgingFeignClient client() {
+        return new HedgingFeignClient(replicas(), "accountmanagement", policy, executor, bulkhead,
+                hedgedCallRegistry, meterRegistry);
+    }
+
+    private void waitForSent(int count) throws IOException {
+        for (int i = 0; i < 100 && sent.size() < count; i++) {
+            sleep(10);
+        }
+    }
+
+    private Client replicas() {
+        return (request, options) -> {
+            sent.add(request);
+            boolean hedge = request.headers().containsKey(HedgedCallRegistry.HEDGE_OF_HEADER);
+            sleep(hedge ? hedgeDelayMs : primaryDelayMs);
+            int status = hedge ? hedgeStatus : primaryStatus;
+            if (status < 0) {
+                throw new SocketTimeoutException("Read timed out");
+            }
+            return Response.builder()
+                    .status(status)
+                    .reason("status " + status)
+                    .request(request)
+                    .headers(Map.of())
+                    .build();
+        };
+    }
+
+    private Request request(String method, Request.HttpMethod httpMethod) {
+        RequestTemplate template = new RequestTemplate().methodMetadata(accountClientMethods.get(method));
+        return Request.create(httpMethod, "http://accountmanagement/api/accounts/" + method,
+                Map.of(), null, StandardCharsets.UTF_8, template);
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).tags("client", "accountmanagement", "method", "fetchAccount").counter().count();
+    }
+
+    private static void sleep(long ms) throws IOException {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+    }
+}
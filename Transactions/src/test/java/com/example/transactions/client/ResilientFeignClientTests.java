@@ -0,0 +1,131 @@
+package com.example.transactions.client;
+
+import com.example.transactions.config.ResilienceConfig;
+import com.example.transactions.config.ResilienceProperties;
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ResilientFeignClientTests {
+
+    @Mock
+    private Client delegate;
+
+    private MeterRegistry meterRegistry;
+    private CircuitBreaker circuitBreaker;
+    private Bulkhead bulkhead;
+    private ResilientFeignClient client;
+
+    private final Request request = Request.create(Request.HttpMethod.GET, "http://notification/api/notifications/create",
+            Map.of(), null, StandardCharsets.UTF_8, new RequestTemplate());
+    private final Request.Options options = new Request.Options();
+
+    @BeforeEach
+    void setUp() {
+        ResilienceProperties.Policy policy = new ResilienceProperties.Policy();
+        policy.setSlidingWindowSize(4);
+        policy.setMinimumNumberOfCalls(4);
+        policy.setFailureRateThreshold(50);
+        policy.setOpenStateMs(60000);
+        policy.setMaxConcurrentCalls(1);
+
+        ResilienceProperties properties = new ResilienceProperties();
+        properties.setClients(Map.of("notification", policy));
+
+        ResilienceConfig config = new ResilienceConfig();
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreaker = config.circuitBreakerRegistry(properties, meterRegistry).circuitBreaker("notification");
+        bulkhead = config.bulkheadRegistry(properties, meterRegistry).bulkhead("notification");
+        client = new ResilientFeignClient(delegate, circuitBreaker, bulkhead);
+    }
+
+    @Test
+    void execute_PassesResponsesThroughWhileClosed() throws Exception {
+        Response ok = response(200);
+        when(delegate.execute(request, options)).thenReturn(ok);
+
+        assertSame(ok, client.execute(request, options));
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void execute_OpensAfterFailuresAndFailsFast() throws Exception {
+        when(delegate.execute(request, options)).thenThrow(new SocketTimeoutException("Read timed out"));
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(SocketTimeoutException.class, () -> client.execute(request, options));
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        IOException rejected = assertThrows(IOException.class, () -> client.execute(request, options));
+        assertInstanceOf(CallNotPermittedException.class, rejected.getCause());
+        verify(delegate, times(4)).execute(any(), any());
+        assertEquals(1, meterRegistry.get("transactions.circuitbreaker.transitions")
+                .tags("name", "notification", "from", "CLOSED", "to", "OPEN").counter().count());
+    }
+
+    @Test
+    void execute_ServerErrorsCountAsFailures() throws Exception {
+        when(delegate.execute(request, options)).thenReturn(response(503));
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(503, client.execute(request, options).status());
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    void execute_ClientErrorsDoNotOpenTheBreaker() throws Exception {
+        when(delegate.execute(request, options)).thenReturn(response(400));
+
+        for (int i = 0; i < 4; i++) {
+            client.execute(request, options);
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void execute_FullBulkheadRejectsWithoutCountingAFailure() throws Exception {
+        assertTrue(bulkhead.tryAcquirePermission());
+
+        IOException rejected = assertThrows(IOException.class, () -> client.execute(request, options));
+
+        assertInstanceOf(BulkheadFullException.class, rejected.getCause());
+        verifyNoInteractions(delegate);
+        assertEquals(0, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+        bulkhead.onComplete();
+    }
+
+    private Response response(int status) {
+        return Response.builder()
+                .status(status)
+                .reason("status " + status)
+                .request(request)
+                .headers(Map.of())
+                .build();
+    }
+}
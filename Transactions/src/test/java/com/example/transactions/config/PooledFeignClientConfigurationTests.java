@@ -0,0 +1,71 @@
+package com.example.transactions.config;
+
+import feign.Request;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PooledFeignClientConfigurationTests {
+
+    private PooledFeignClientConfiguration configuration;
+    private HttpClientPoolProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        configuration = new PooledFeignClientConfiguration();
+        ReflectionTestUtils.setField(configuration, "clientName", "accountmanagement");
+
+        HttpClientPoolProperties.Pool pool = new HttpClientPoolProperties.Pool();
+        pool.setMaxConnections(40);
+        pool.setMaxConnectionsPerRoute(20);
+        pool.setConnectTimeoutMs(500);
+        pool.setReadTimeoutMs(3000);
+        pool.setMethodReadTimeoutMs(Map.of("fetchAccount", 1500L));
+
+        properties = new HttpClientPoolProperties();
+        properties.setClients(Map.of("accountmanagement", pool));
+    }
+
+    @Test
+    void feignRequestOptions_UsesMethodReadTimeoutWhenConfigured() {
+        Request.Options options = configuration.feignRequestOptions(properties);
+
+        assertEquals(500, options.connectTimeoutMillis());
+        assertEquals(3000, options.readTimeoutMillis());
+        assertEquals(1500, options.getMethodOptions("fetchAccount").readTimeoutMillis());
+        assertEquals(500, options.getMethodOptions("fetchAccount").connectTimeoutMillis());
+        assertEquals(3000, options.getMethodOptions("transfer").readTimeoutMillis());
+    }
+
+    @Test
+    void feignRequestOptions_UnknownClientUsesDefaults() {
+        ReflectionTestUtils.setField(configuration, "clientName", "notification");
+
+        Request.Options options = configuration.feignRequestOptions(properties);
+
+        HttpClientPoolProperties.Pool defaults = new HttpClientPoolProperties.Pool();
+        assertEquals(defaults.getConnectTimeoutMs(), options.connectTimeoutMillis());
+        assertEquals(defaults.getReadTimeoutMs(), options.readTimeoutMillis());
+    }
+
+    @Test
+    void pooledHttpClient_RegistersPoolMetricsPerClient() throws Exception {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        try (CloseableHttpClient ignored = configuration.pooledHttpClient(properties, meterRegistry)) {
+            assertEquals(40, meterRegistry.get("httpcomponents.httpclient.pool.total.max")
+                    .tag("httpclient", "accountmanagement").gauge().value());
+            assertEquals(20, meterRegistry.get("httpcomponents.httpclient.pool.route.max.default")
+                    .tag("httpclient", "accountmanagement").gauge().value());
+            assertEquals(0, meterRegistry.get("httpcomponents.httpclient.pool.total.pending")
+                    .tag("httpclient", "accountmanagement").gauge().value());
+        }
+    }
+}
@@ -2,12 +2,17 @@ package com.example.transactions.controller;
 
 import com.example.transactions.dto.request.PostTransactionDto;
 import com.example.transactions.dto.request.PutTransactionDto;
+import com.example.transactions.dto.response.BulkImportResultDto;
+import com.example.transactions.dto.response.BulkImportRowDto;
 import com.example.transactions.dto.response.ModifyTransactionCurrencyDto;
 import com.example.transactions.dto.response.TransactionDto;
+import com.example.transactions.dto.response.TransactionPageDto;
 import com.example.transactions.enums.Currency;
 import com.example.transactions.enums.TransactionStatus;
 import com.example.transactions.enums.TransactionType;
 import com.example.transactions.service.ITransactionService;
+import com.example.transactions.service.IdempotencyService;
+import com.example.transactions.service.TransactionImportService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,9 +24,13 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -35,6 +44,12 @@ class TransactionControllerTests {
     @MockitoBean
     private ITransactionService transactionService;
 
+    @MockitoBean
+    private IdempotencyService idempotencyService;
+
+    @MockitoBean
+    private TransactionImportService transactionImportService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -42,6 +57,9 @@ class TransactionControllerTests {
 
     @BeforeEach
     void setUp() {
+        given(idempotencyService.execute(anyString(), any(), any(), any(), any()))
+                .willAnswer(invocation -> invocation.getArgument(4, Supplier.class).get());
+
         transactionDto = new TransactionDto(
                 "acc-002",
                 "TRX123",
@@ -79,6 +97,71 @@ class TransactionControllerTests {
                 .andExpect(jsonPath("$.transactionId").value("TRX123"));
     }
 
+    @Test
+    void postTransaction_PassesIdempotencyKeyToService() throws Exception {
+        PostTransactionDto createDto = new PostTransactionDto(
+                "0987654321",
+                "acc-001",
+                "acc-002",
+                "1234567890",
+                TransactionType.TRANSFER,
+                new BigDecimal("100.00"),
+                Currency.RON,
+                "Test transaction"
+        );
+
+        given(transactionService.postTransaction(any(PostTransactionDto.class))).willReturn(transactionDto);
+
+        mockMvc.perform(post("/api/transactions/post")
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createDto)))
+                .andExpect(status().isCreated());
+
+        verify(idempotencyService).execute(eq("post"), eq("key-1"), any(PostTransactionDto.class), eq(TransactionDto.class), any());
+    }
+
+    @Test
+    void importTransactions_AcceptsNdjson() throws Exception {
+        given(transactionImportService.importTransactions(any())).willReturn(new BulkImportResultDto(
+                2, 1, 1, List.of(new BulkImportRowDto(1, "TRX1", null), new BulkImportRowDto(2, null, "amount must be greater than zero"))));
+
+        mockMvc.perform(post("/api/transactions/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{}\n{}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.rows[1].error").value("amount must be greater than zero"));
+    }
+
+    @Test
+    void getTransactionHistory_ShouldReturnPage() throws Exception {
+        given(transactionService.fetchTransactionHistory(eq("1234567890"), isNull(), eq(20), eq(TransactionStatus.COMPLETED),
+                isNull(), any(), isNull()))
+                .willReturn(new TransactionPageDto(List.of(transactionDto), "next"));
+
+        mockMvc.perform(get("/api/transactions/history")
+                        .param("accountNumber", "1234567890")
+                        .param("limit", "20")
+                        .param("status", "COMPLETED")
+                        .param("from", "2024-01-01T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].transactionId").value("TRX123"))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    void calculateFees_BatchShouldReturnFeesById() throws Exception {
+        given(transactionService.calculateTransactionAmounts(List.of("TRX123", "TRX456")))
+                .willReturn(Map.of("TRX123", new BigDecimal("1.00"), "TRX456", new BigDecimal("2.50")));
+
+        mockMvc.perform(post("/api/transactions/calculate-fees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"TRX123\", \"TRX456\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.TRX456").value(2.50));
+    }
+
     @Test
     void fetchTransaction_ShouldReturnTransaction() throws Exception {
         given(transactionService.fetchTransactionById("TRX123")).willReturn(transactionDto);
@@ -289,5 +372,13 @@ class TransactionControllerTests {
                 .andExpect(status().isCreated())
                 .andExpect(content().string(response));
     }
-}
 
+    @Test
+    void evictCachedAccount_ShouldReturnOk() throws Exception {
+        mockMvc.perform(delete("/api/transactions/account-cache/1234567890"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("Account evicted from cache"));
+
+        verify(transactionService).evictCachedAccount("1234567890");
+    }
+}
@@ -79,6 +79,10 @@ class TransactionTests {
                 now,
                 null,
                 null,
+                null,
+                null,
+                null,
+                null,
                 null
         );
 
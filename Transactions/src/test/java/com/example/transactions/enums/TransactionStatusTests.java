@@ -9,12 +9,13 @@ class TransactionStatusTests {
     @Test
     void testTransactionStatusValues() {
         // Act & Assert
-        assertThat(TransactionStatus.values()).hasSize(4);
+        assertThat(TransactionStatus.values()).hasSize(5);
         assertThat(TransactionStatus.values()).containsExactlyInAnyOrder(
                 TransactionStatus.PENDING,
                 TransactionStatus.COMPLETED,
                 TransactionStatus.FAILED,
-                TransactionStatus.CANCELLED
+                TransactionStatus.CANCELLED,
+                TransactionStatus.PROCESSING
         );
     }
 
@@ -43,6 +44,7 @@ class TransactionStatusTests {
         assertThat(TransactionStatus.COMPLETED.ordinal()).isEqualTo(1);
         assertThat(TransactionStatus.FAILED.ordinal()).isEqualTo(2);
         assertThat(TransactionStatus.CANCELLED.ordinal()).isEqualTo(3);
+        assertThat(TransactionStatus.PROCESSING.ordinal()).isEqualTo(4);
     }
 
     @Test
@@ -0,0 +1,46 @@
+package com.example.transactions.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HedgedCallRegistryTests {
+
+    private final HedgedCallRegistry registry = new HedgedCallRegistry();
+    private final ServiceInstance instance =
+            new DefaultServiceInstance("am-1", "accountmanagement", "10.0.0.1", 8080, false);
+
+    @Test
+    void complete_ForgetsTheFirstCopy() {
+        registry.primaryChosen("call-1", instance);
+        assertSame(instance, registry.primaryOf("call-1"));
+
+        registry.complete("call-1");
+
+        assertNull(registry.primaryOf("call-1"));
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    void primaryChosen_AfterTheCallIsOverIsNotKept() {
+        // the hedge answered and the call returned before its first copy reached the balancer
+        registry.complete("call-1");
+        registry.primaryChosen("call-1", instance);
+
+        assertNull(registry.primaryOf("call-1"));
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    void primaryChosen_AgainForTheSameCallKeepsTheLatestInstance() {
+        ServiceInstance other = new DefaultServiceInstance("am-2", "accountmanagement", "10.0.0.2", 8080, false);
+
+        registry.primaryChosen("call-1", instance);
+        registry.primaryChosen("call-1", other);
+
+        assertSame(other, registry.primaryOf("call-1"));
+        assertEquals(1, registry.size());
+    }
+}
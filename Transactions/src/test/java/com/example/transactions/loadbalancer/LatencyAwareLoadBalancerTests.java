@@ -0,0 +1,136 @@
+package com.example.transactions.loadbalancer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@SuppressWarnings({"unchecked", "rawtypes"})
+class LatencyAwareLoadBalancerTests {
+
+    private final ServiceInstance replica1 = new DefaultServiceInstance("account-1", "accountmanagement", "10.0.0.1", 8090, false);
+    private final ServiceInstance replica2 = new DefaultServiceInstance("account-2", "accountmanagement", "10.0.0.2", 8090, false);
+
+    private InstanceLatencyTracker latencyTracker;
+    private HedgedCallRegistry hedgedCallRegistry;
+    private LatencyAwareLoadBalancer loadBalancer;
+
+    @BeforeEach
+    void setUp() {
+        latencyTracker = new InstanceLatencyTracker();
+        ReflectionTestUtils.setField(latencyTracker, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(latencyTracker, "decayMs", 10000L);
+        ReflectionTestUtils.setField(latencyTracker, "failurePenaltyMs", 1000L);
+
+        hedgedCallRegistry = new HedgedCallRegistry();
+        loadBalancer = new LatencyAwareLoadBalancer(mock(ObjectProvider.class), "accountmanagement", latencyTracker,
+                hedgedCallRegistry);
+    }
+
+    @Test
+    void choose_PrefersTheFasterReplica() {
+        record(replica1, 5);
+        record(replica2, 800);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(replica1, loadBalancer.choose(List.of(replica1, replica2)).getServer());
+        }
+    }
+
+    @Test
+    void choose_AvoidsTheReplicaWithCallsStuckInFlight() {
+        record(replica1, 10);
+        record(replica2, 10);
+        for (int i = 0; i < 5; i++) {
+            start(replica2);
+        }
+
+        assertEquals(replica1, loadBalancer.choose(List.of(replica1, replica2)).getServer());
+        assertEquals(5, latencyTracker.inFlight(replica2));
+    }
+
+    @Test
+    void choose_FailuresCountAsSlowCalls() {
+        record(replica1, 20);
+        Request<RequestDataContext> request = start(replica2);
+        latencyTracker.onComplete(new CompletionContext(CompletionContext.Status.FAILED,
+                new RuntimeException("Connection refused"), request, new DefaultResponse(replica2)));
+
+        assertTrue(latencyTracker.latencyNanos(replica2) >= TimeUnit.MILLISECONDS.toNanos(900));
+        assertEquals(replica1, loadBalancer.choose(List.of(replica1, replica2)).getServer());
+    }
+
+    @Test
+    void choose_SingleOrNoInstance() {
+        assertEquals(replica2, loadBalancer.choose(List.of(replica2)).getServer());
+        assertFalse(loadBalancer.choose(List.<ServiceInstance>of()).hasServer());
+    }
+
+    @Test
+    void choose_HedgeGoesToAnotherReplicaThanTheFirstCopy() {
+        record(replica1, 5);
+        record(replica2, 800);
+
+        HttpHeaders primary = new HttpHeaders();
+        primary.add(HedgedCallRegistry.HEDGE_ID_HEADER, "call-1");
+        assertEquals(replica1, loadBalancer.choose(List.of(replica1, replica2), primary).getServer());
+        assertEquals(replica1, hedgedCallRegistry.primaryOf("call-1"));
+
+        HttpHeaders hedge = new HttpHeaders();
+        hedge.add(HedgedCallRegistry.HEDGE_OF_HEADER, "call-1");
+        for (int i = 0; i < 20; i++) {
+            assertEquals(replica2, loadBalancer.choose(List.of(replica1, replica2), hedge).getServer());
+        }
+        assertFalse(loadBalancer.choose(List.of(replica1), hedge).hasServer());
+
+        hedgedCallRegistry.complete("call-1");
+        assertEquals(0, hedgedCallRegistry.size());
+    }
+
+    @Test
+    void latencyNanos_UnknownUntilTheFirstSample() {
+        assertTrue(latencyTracker.latencyNanos(replica1) < 0);
+
+        record(replica1, 30);
+
+        assertTrue(latencyTracker.latencyNanos(replica1) >= TimeUnit.MILLISECONDS.toNanos(25));
+        assertEquals(0, latencyTracker.inFlight(replica1));
+    }
+
+    @Test
+    void latencyNanos_SlowSampleReplacesTheAverageAtOnce() {
+        record(replica1, 10);
+        record(replica1, 500);
+
+        assertTrue(latencyTracker.latencyNanos(replica1) >= TimeUnit.MILLISECONDS.toNanos(450));
+    }
+
+    private Request<RequestDataContext> start(ServiceInstance instance) {
+        Request<RequestDataContext> request = new DefaultRequest<>(new RequestDataContext());
+        latencyTracker.onStartRequest((Request) request, new DefaultResponse(instance));
+        return request;
+    }
+
+    private void record(ServiceInstance instance, long elapsedMs) {
+        Request<RequestDataContext> request = start(instance);
+        request.getContext().setRequestStartTime(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(elapsedMs));
+        Response<ServiceInstance> lbResponse = new DefaultResponse(instance);
+        latencyTracker.onComplete(new CompletionContext(CompletionContext.Status.SUCCESS, request, lbResponse));
+    }
+}
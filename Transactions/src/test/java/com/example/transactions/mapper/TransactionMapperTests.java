@@ -1,7 +1,6 @@
 package com.example.transactions.mapper;
 
 import com.example.transactions.dto.request.PostTransactionDto;
-import com.example.transactions.dto.request.PutTransactionDto;
 import com.example.transactions.dto.response.TransactionDto;
 import com.example.transactions.entity.Transaction;
 import com.example.transactions.enums.Currency;
@@ -42,42 +41,11 @@ class TransactionMapperTests {
         assertThat(entity.getDescription()).isEqualTo("Test transaction");
         assertThat(entity.getFromAccountId()).isEqualTo("acc-001");
         assertThat(entity.getToAccountId()).isEqualTo("acc-002");
+        assertThat(entity.getFromAccountNumber()).isEqualTo("1234567890");
+        assertThat(entity.getToAccountNumber()).isEqualTo("0987654321");
         assertThat(entity.getInitiatedAt()).isNotNull();
     }
 
-    @Test
-    void testToEntityFromPutTransactionDto() {
-        // Arrange
-        PutTransactionDto dto = new PutTransactionDto(
-                TransactionType.PAYMENT,
-                "acc-001",
-                "acc-002",
-                "1234567890",
-                "0987654321",
-                new BigDecimal("150.00"),
-                Currency.EUR,
-                "Updated transaction",
-                TransactionStatus.COMPLETED
-        );
-        Long id = 1L;
-        String transactionId = "TRX123";
-
-        // Act
-        Transaction entity = TransactionMapper.ToEntity(dto, id, transactionId);
-
-        // Assert
-        assertThat(entity).isNotNull();
-        assertThat(entity.getId()).isEqualTo(1L);
-        assertThat(entity.getTransactionId()).isEqualTo("TRX123");
-        assertThat(entity.getAmount()).isEqualByComparingTo(new BigDecimal("150.00"));
-        assertThat(entity.getCurrency()).isEqualTo(Currency.EUR);
-        assertThat(entity.getTransactionType()).isEqualTo(TransactionType.PAYMENT);
-        assertThat(entity.getStatus()).isEqualTo(TransactionStatus.COMPLETED);
-        assertThat(entity.getDescription()).isEqualTo("Updated transaction");
-        assertThat(entity.getFromAccountId()).isEqualTo("acc-001");
-        assertThat(entity.getToAccountId()).isEqualTo("acc-002");
-    }
-
     @Test
     void testToDtoFromTransaction() {
         // Arrange
@@ -191,29 +159,6 @@ class TransactionMapperTests {
         assertThat(entity.getAmount()).isEqualByComparingTo(new BigDecimal("200.00"));
     }
 
-    @Test
-    void testToEntityFromPutTransactionDtoWithCancelledStatus() {
-        // Arrange
-        PutTransactionDto dto = new PutTransactionDto(
-                TransactionType.TRANSFER,
-                "acc-001",
-                "acc-002",
-                "1234567890",
-                "0987654321",
-                new BigDecimal("100.00"),
-                Currency.RON,
-                "Cancelled transaction",
-                TransactionStatus.CANCELLED
-        );
-
-        // Act
-        Transaction entity = TransactionMapper.ToEntity(dto, 1L, "TRX123");
-
-        // Assert
-        assertThat(entity).isNotNull();
-        assertThat(entity.getStatus()).isEqualTo(TransactionStatus.CANCELLED);
-    }
-
     @Test
     void testMappingPreservesAmountPrecision() {
         // Arrange
@@ -252,35 +197,5 @@ class TransactionMapperTests {
         // Assert
         assertThat(resultDto.getAmount()).isEqualByComparingTo(new BigDecimal("123.456789"));
     }
-
-    @Test
-    void testToEntityFromPutTransactionDtoPreservesAllFields() {
-        // Arrange
-        PutTransactionDto dto = new PutTransactionDto(
-                TransactionType.PAYMENT,
-                "from-account-123",
-                "to-account-456",
-                "FROM123456",
-                "TO987654",
-                new BigDecimal("999.99"),
-                Currency.USD,
-                "Complete field test",
-                TransactionStatus.PENDING
-        );
-
-        // Act
-        Transaction entity = TransactionMapper.ToEntity(dto, 42L, "TRX-CUSTOM-999");
-
-        // Assert
-        assertThat(entity.getId()).isEqualTo(42L);
-        assertThat(entity.getTransactionId()).isEqualTo("TRX-CUSTOM-999");
-        assertThat(entity.getFromAccountId()).isEqualTo("from-account-123");
-        assertThat(entity.getToAccountId()).isEqualTo("to-account-456");
-        assertThat(entity.getTransactionType()).isEqualTo(TransactionType.PAYMENT);
-        assertThat(entity.getAmount()).isEqualByComparingTo(new BigDecimal("999.99"));
-        assertThat(entity.getCurrency()).isEqualTo(Currency.USD);
-        assertThat(entity.getDescription()).isEqualTo("Complete field test");
-        assertThat(entity.getStatus()).isEqualTo(TransactionStatus.PENDING);
-    }
 }
 
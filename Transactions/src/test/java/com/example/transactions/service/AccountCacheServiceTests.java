@@ -0,0 +1,143 @@
+package com.example.transactions.service;
+
+import com.example.transactions.client.AccountClient;
+import com.example.transactions.dto.response.AccountDto;
+import com.example.transactions.enums.AccountStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountCacheServiceTests {
+
+    @Mock
+    private AccountClient accountClient;
+
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager(AccountCacheService.ACCOUNTS_CACHE);
+
+    @Spy
+    private ExecutorService accountLookupExecutor = Executors.newFixedThreadPool(2);
+
+    @InjectMocks
+    private AccountCacheService accountCacheService;
+
+    private AccountDto fromAccount;
+    private AccountDto toAccount;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(accountCacheService, "accountLookupTimeoutMs", 2000L);
+
+        fromAccount = new AccountDto();
+        fromAccount.setAccountNumber("1234567890");
+        fromAccount.setCustomerName("John Doe");
+        fromAccount.setStatus(AccountStatus.ACTIVE);
+
+        toAccount = new AccountDto();
+        toAccount.setAccountNumber("0987654321");
+        toAccount.setCustomerName("Jane Smith");
+        toAccount.setStatus(AccountStatus.ACTIVE);
+    }
+
+    @Test
+    void fetchAccounts_MissesAreFetchedInOneBatch() {
+        when(accountClient.fetchAccounts(List.of("1234567890", "0987654321")))
+                .thenReturn(ResponseEntity.ok(List.of(fromAccount, toAccount)));
+
+        Map<String, AccountDto> result = accountCacheService.fetchAccounts(List.of("1234567890", "0987654321"));
+
+        assertEquals("John Doe", result.get("1234567890").getCustomerName());
+        assertEquals("Jane Smith", result.get("0987654321").getCustomerName());
+        verify(accountClient).fetchAccounts(List.of("1234567890", "0987654321"));
+    }
+
+    @Test
+    void fetchAccounts_HitsSkipTheAccountService() {
+        when(accountClient.fetchAccounts(List.of("1234567890", "0987654321")))
+                .thenReturn(ResponseEntity.ok(List.of(fromAccount, toAccount)));
+
+        accountCacheService.fetchAccounts(List.of("1234567890", "0987654321"));
+        Map<String, AccountDto> result = accountCacheService.fetchAccounts(List.of("1234567890", "0987654321"));
+
+        assertEquals(2, result.size());
+        verify(accountClient, times(1)).fetchAccounts(anyList());
+    }
+
+    @Test
+    void fetchAccounts_OnlyMissesAreFetched() {
+        when(accountClient.fetchAccounts(List.of("1234567890")))
+                .thenReturn(ResponseEntity.ok(List.of(fromAccount)));
+        when(accountClient.fetchAccounts(List.of("0987654321")))
+                .thenReturn(ResponseEntity.ok(List.of(toAccount)));
+
+        accountCacheService.fetchAccounts(List.of("1234567890"));
+        Map<String, AccountDto> result = accountCacheService.fetchAccounts(List.of("1234567890", "0987654321"));
+
+        assertEquals(2, result.size());
+        verify(accountClient).fetchAccounts(List.of("0987654321"));
+    }
+
+    @Test
+    void fetchAccounts_BlockedAccountsAreNotCached() {
+        fromAccount.setStatus(AccountStatus.BLOCKED);
+        when(accountClient.fetchAccounts(List.of("1234567890")))
+                .thenReturn(ResponseEntity.ok(List.of(fromAccount)));
+
+        accountCacheService.fetchAccounts(List.of("1234567890"));
+        accountCacheService.fetchAccounts(List.of("1234567890"));
+
+        verify(accountClient, times(2)).fetchAccounts(List.of("1234567890"));
+    }
+
+    @Test
+    void evict_NextLookupGoesToAccountService() {
+        when(accountClient.fetchAccounts(List.of("1234567890")))
+                .thenReturn(ResponseEntity.ok(List.of(fromAccount)));
+
+        accountCacheService.fetchAccounts(List.of("1234567890"));
+        accountCacheService.evict("1234567890");
+        accountCacheService.fetchAccounts(List.of("1234567890"));
+
+        verify(accountClient, times(2)).fetchAccounts(List.of("1234567890"));
+    }
+
+    @Test
+    void fetchAccounts_LookupTimeout() {
+        ReflectionTestUtils.setField(accountCacheService, "accountLookupTimeoutMs", 100L);
+        when(accountClient.fetchAccounts(anyList())).thenAnswer(invocation -> {
+            Thread.sleep(1000);
+            return ResponseEntity.ok(List.of());
+        });
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> accountCacheService.fetchAccounts(List.of("1234567890")));
+        assertTrue(exception.getMessage().contains("timed out"));
+    }
+
+    @Test
+    void fetchAccounts_RemoteFailureIsPropagated() {
+        when(accountClient.fetchAccounts(anyList())).thenThrow(new RuntimeException("Account not found: 1234567890"));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> accountCacheService.fetchAccounts(List.of("1234567890")));
+        assertEquals("Account not found: 1234567890", exception.getMessage());
+    }
+}
@@ -0,0 +1,283 @@
+package com.example.transactions.service;
+
+import com.example.transactions.dto.request.PostTransactionDto;
+import com.example.transactions.entity.Transaction;
+import com.example.transactions.enums.Currency;
+import com.example.transactions.enums.TransactionStatus;
+import com.example.transactions.enums.TransactionType;
+import com.example.transactions.event.HighRiskTransactionEvent;
+import com.example.transactions.fraud.AccountActivityWindow;
+import com.example.transactions.mapper.TransactionMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.example.transactions.repository.ITransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FraudScoringServiceTests {
+
+    @Mock
+    private ITransactionRepository transactionRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private FraudScoringService fraudScoringService;
+
+    private final LocalDateTime start = LocalDateTime.of(2024, 6, 1, 9, 0);
+    private long nextId = 1;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(fraudScoringService, "batchSize", 200);
+        ReflectionTestUtils.setField(fraudScoringService, "blockThreshold", new BigDecimal("0.9"));
+        ReflectionTestUtils.setField(fraudScoringService, "amountBlockMinBehaviour", 0.25);
+        ReflectionTestUtils.setField(fraudScoringService, "velocityWindowMinutes", 60L);
+        ReflectionTestUtils.setField(fraudScoringService, "velocityMax", 10);
+        ReflectionTestUtils.setField(fraudScoringService, "historyDays", 30L);
+        ReflectionTestUtils.setField(fraudScoringService, "maxSamples", 200);
+        ReflectionTestUtils.setField(fraudScoringService, "maxAccounts", 1000L);
+        ReflectionTestUtils.invokeMethod(fraudScoringService, "initWindows");
+        lenient().when(transactionRepository.findRecentScored(anyString(), any(), any())).thenReturn(List.of());
+    }
+
+    @Test
+    void scoreBatch_StoresScoreOnEveryTransaction() {
+        Transaction small = completed("0987654321", "100.00", start);
+        Transaction deposit = completed(null, "6000.00", start);
+        deposit.setTransactionType(TransactionType.DEPOSIT);
+        when(transactionRepository.lockUnscoredCompleted(200)).thenReturn(List.of(small, deposit));
+
+        int scored = fraudScoringService.scoreBatch();
+
+        assertEquals(2, scored);
+        assertEquals(new BigDecimal("0.0000"), small.getRiskScore());
+        assertEquals(new BigDecimal("0.7000"), deposit.getRiskScore());
+        assertNotNull(small.getScoredAt());
+        verify(transactionRepository).saveAll(List.of(small, deposit));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void score_UnusualAmountToNewCounterpartyRaisesScore() {
+        for (int i = 0; i < 10; i++) {
+            fraudScoringService.score(completed("0987654321", i % 2 == 0 ? "90.00" : "110.00", start.plusDays(i)));
+        }
+
+        BigDecimal usual = fraudScoringService.score(completed("0987654321", "100.00", start.plusDays(11)));
+        BigDecimal unusual = fraudScoringService.score(completed("5555555555", "1900.00", start.plusDays(12)));
+
+        assertEquals(new BigDecimal("0.0000"), usual);
+        assertEquals(new BigDecimal("0.6500"), unusual);
+    }
+
+    @Test
+    void score_BurstOfPaymentsRaisesVelocity() {
+        BigDecimal last = BigDecimal.ZERO;
+        for (int i = 0; i < 11; i++) {
+            last = fraudScoringService.score(completed("0987654321", "100.00", start.plusMinutes(i)));
+        }
+
+        assertEquals(new BigDecimal("0.3500"), last);
+    }
+
+    @Test
+    void score_WindowIsSeededFromScoredHistory() {
+        List<Transaction> history = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            history.add(0, completed("0987654321", "100.00", start.minusDays(i + 1)));
+        }
+        when(transactionRepository.findRecentScored(eq("1234567890"), any(), any())).thenReturn(history);
+
+        BigDecimal riskScore = fraudScoringService.score(completed("7777777777", "100.00", start));
+
+        assertEquals(new BigDecimal("0.2500"), riskScore);
+    }
+
+    @Test
+    void score_HistoryIsLoadedOncePerAccount() {
+        fraudScoringService.score(completed("0987654321", "100.00", start));
+        fraudScoringService.score(completed("0987654321", "100.00", start.plusMinutes(1)));
+
+        verify(transactionRepository, times(1)).findRecentScored(eq("1234567890"), any(), any());
+    }
+
+    @Test
+    void scoreBatch_HighScorePublishesOneEventPerAccount() {
+        seedHistory(10);
+        Transaction first = completed("5555555555", "20000.00", start);
+        Transaction second = completed("6666666666", "15000.00", start.plusMinutes(1));
+        when(transactionRepository.lockUnscoredCompleted(200)).thenReturn(List.of(first, second));
+
+        fraudScoringService.scoreBatch();
+
+        ArgumentCaptor<HighRiskTransactionEvent> event = ArgumentCaptor.forClass(HighRiskTransactionEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertEquals("1234567890", event.getValue().getAccountNumber());
+        assertEquals(first.getTransactionId(), event.getValue().getTransactionId());
+        assertEquals(new BigDecimal("1.0000"), event.getValue().getRiskScore());
+    }
+
+    @Test
+    void scoreBatch_LargeButNormalPaymentDoesNotBlock() {
+        seedHistory(10);
+        Transaction large = completed("0987654321", "15000.00", start);
+        when(transactionRepository.lockUnscoredCompleted(200)).thenReturn(List.of(large));
+
+        fraudScoringService.scoreBatch();
+
+        assertEquals(new BigDecimal("1.0000"), large.getRiskScore());
+        verify(eventPublisher, never()).publishEvent(any(HighRiskTransactionEvent.class));
+    }
+
+    @Test
+    void scoreBatch_LargePaymentWithoutHistoryDoesNotBlock() {
+        Transaction large = completed("0987654321", "15000.00", start);
+        when(transactionRepository.lockUnscoredCompleted(200)).thenReturn(List.of(large));
+
+        fraudScoringService.scoreBatch();
+
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void score_AmountThresholdsApplyToTheRonValue() {
+        Transaction deposit = completed(null, "2500.00", start);
+        deposit.setTransactionType(TransactionType.DEPOSIT);
+        deposit.setCurrency(Currency.EUR);
+
+        assertEquals(new BigDecimal("1.0000"), fraudScoringService.score(deposit));
+    }
+
+    @Test
+    void scoreBatch_PaymentCreatedThroughPostIsScoredOnBehaviour() {
+        seedHistory(10);
+        Transaction payment = TransactionMapper.ToEntity(new PostTransactionDto(
+                "5555555555", "1", "2", "1234567890", TransactionType.TRANSFER,
+                new BigDecimal("20000.00"), Currency.RON, "rent"));
+        payment.setId(nextId++);
+        payment.setTransactionId("TRX" + payment.getId());
+        payment.setStatus(TransactionStatus.COMPLETED);
+        payment.setCompletedAt(start);
+        when(transactionRepository.lockUnscoredCompleted(200)).thenReturn(List.of(payment));
+
+        fraudScoringService.scoreBatch();
+
+        ArgumentCaptor<HighRiskTransactionEvent> event = ArgumentCaptor.forClass(HighRiskTransactionEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals("1234567890", event.getValue().getAccountNumber());
+        assertEquals(payment.getTransactionId(), event.getValue().getTransactionId());
+    }
+
+    @Test
+    void scoreBatch_WindowsTakeTheBatchOnlyAfterCommit() {
+        Transaction payment = completed("0987654321", "100.00", start);
+        when(transactionRepository.lockUnscoredCompleted(200)).thenReturn(List.of(payment));
+        Cache<String, AccountActivityWindow> windows = windows();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            fraudScoringService.scoreBatch();
+            assertNull(windows.getIfPresent("1234567890"));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(1, windows.getIfPresent("1234567890").size());
+    }
+
+    @Test
+    void scoreBatch_RolledBackBatchIsNotCountedTwice() {
+        Transaction payment = completed("0987654321", "100.00", start);
+        when(transactionRepository.lockUnscoredCompleted(200)).thenReturn(List.of(payment));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            fraudScoringService.scoreBatch();
+        } finally {
+            // rolled back: afterCommit never runs
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        fraudScoringService.scoreBatch();
+
+        assertEquals(1, windows().getIfPresent("1234567890").size());
+    }
+
+    @Test
+    void scoreBatch_FailedSaveLeavesWindowsUntouched() {
+        Transaction payment = completed("0987654321", "100.00", start);
+        when(transactionRepository.lockUnscoredCompleted(200)).thenReturn(List.of(payment));
+        when(transactionRepository.saveAll(any())).thenThrow(new RuntimeException("connection lost"));
+
+        assertThrows(RuntimeException.class, () -> fraudScoringService.scoreBatch());
+
+        assertNull(windows().getIfPresent("1234567890"));
+    }
+
+    @Test
+    void scoreBatch_EmptyBatch() {
+        when(transactionRepository.lockUnscoredCompleted(200)).thenReturn(List.of());
+
+        assertEquals(0, fraudScoringService.scoreBatch());
+        verify(transactionRepository, never()).saveAll(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<String, AccountActivityWindow> windows() {
+        return (Cache<String, AccountActivityWindow>) ReflectionTestUtils.getField(fraudScoringService, "windows");
+    }
+
+    // regular payments around 15000 RON to the same recipient over the previous days
+    private void seedHistory(int count) {
+        List<Transaction> history = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            history.add(0, completed("0987654321", i % 2 == 0 ? "12000.00" : "18000.00", start.minusDays(i + 1)));
+        }
+        when(transactionRepository.findRecentScored(eq("1234567890"), any(), any())).thenReturn(history);
+    }
+
+    private Transaction completed(String toAccountNumber, String amount, LocalDateTime completedAt) {
+        long id = nextId++;
+        return Transaction.builder()
+                .id(id)
+                .transactionId("TRX" + id)
+                .fromAccountNumber("1234567890")
+                .toAccountNumber(toAccountNumber)
+                .transactionType(TransactionType.TRANSFER)
+                .amount(new BigDecimal(amount))
+                .currency(Currency.RON)
+                .status(TransactionStatus.COMPLETED)
+                .initiatedAt(completedAt)
+                .completedAt(completedAt)
+                .build();
+    }
+}
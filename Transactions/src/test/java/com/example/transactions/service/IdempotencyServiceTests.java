@@ -0,0 +1,246 @@
+package com.example.transactions.service;
+
+import com.example.transactions.entity.IdempotencyRecord;
+import com.example.transactions.enums.IdempotencyStatus;
+import com.example.transactions.repository.IIdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTests {
+
+    @Mock
+    private IIdempotencyRecordRepository idempotencyRepository;
+
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager(IdempotencyService.IDEMPOTENCY_CACHE);
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private IdempotencyService idempotencyService;
+
+    private final Map<String, String> request = Map.of("amount", "100.00");
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void execute_WithoutKeyRunsActionDirectly() {
+        ResponseEntity<String> response = idempotencyService.execute("post", null, request, String.class,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body("TRX1"));
+
+        assertEquals("TRX1", response.getBody());
+        verifyNoInteractions(idempotencyRepository);
+    }
+
+    @Test
+    void execute_StoresFirstResponseAndReplaysItFromCache() {
+        when(idempotencyRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        AtomicInteger calls = new AtomicInteger();
+
+        ResponseEntity<String> first = idempotencyService.execute("post", "key-1", request, String.class,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body("TRX" + calls.incrementAndGet()));
+        ResponseEntity<String> second = idempotencyService.execute("post", "key-1", request, String.class,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body("TRX" + calls.incrementAndGet()));
+
+        assertEquals(1, calls.get());
+        assertEquals("TRX1", second.getBody());
+        assertEquals(HttpStatus.CREATED, second.getStatusCode());
+        assertEquals("true", second.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertNull(first.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        verify(idempotencyRepository).save(argThat(record ->
+                record.getStatus() == IdempotencyStatus.COMPLETED && "\"TRX1\"".equals(record.getResponseBody())));
+    }
+
+    @Test
+    void execute_ReplaysCompletedRecordFromDatabase() throws Exception {
+        String hash = storedHash();
+        when(idempotencyRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(idempotencyRepository.findByIdempotencyKey(anyString())).thenReturn(Optional.of(IdempotencyRecord.builder()
+                .requestHash(hash)
+                .status(IdempotencyStatus.COMPLETED)
+                .responseStatus(201)
+                .responseBody("\"TRX1\"")
+                .build()));
+
+        ResponseEntity<String> response = idempotencyService.execute("post", "key-1", request, String.class,
+                () -> fail("action must not run for a replayed key"));
+
+        assertEquals("TRX1", response.getBody());
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+    }
+
+    @Test
+    void execute_InProgressKeyIsRejectedWithConflict() throws Exception {
+        String hash = storedHash();
+        when(idempotencyRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(idempotencyRepository.findByIdempotencyKey(anyString())).thenReturn(Optional.of(IdempotencyRecord.builder()
+                .id(7L)
+                .requestHash(hash)
+                .lockedUntil(LocalDateTime.now().plusMinutes(1))
+                .build()));
+        when(idempotencyRepository.takeOverExpired(eq(7L), any(), any())).thenReturn(0);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () ->
+                idempotencyService.execute("post", "key-1", request, String.class, () -> ResponseEntity.ok("TRX1")));
+
+        assertEquals(HttpStatus.CONFLICT, e.getStatusCode());
+    }
+
+    @Test
+    void execute_ExpiredInProgressKeyIsTakenOver() throws Exception {
+        ReflectionTestUtils.setField(idempotencyService, "leaseMs", 60000L);
+        String hash = storedHash();
+        IdempotencyRecord abandoned = IdempotencyRecord.builder()
+                .id(7L)
+                .requestHash(hash)
+                .lockedUntil(LocalDateTime.now().minusMinutes(5))
+                .build();
+        when(idempotencyRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(idempotencyRepository.findByIdempotencyKey(anyString())).thenReturn(Optional.of(abandoned));
+        when(idempotencyRepository.takeOverExpired(eq(7L), any(), any())).thenReturn(1);
+
+        ResponseEntity<String> response = idempotencyService.execute("post", "key-1", request, String.class,
+                () -> ResponseEntity.ok("TRX1"));
+
+        assertEquals("TRX1", response.getBody());
+        assertTrue(abandoned.getLockedUntil().isAfter(LocalDateTime.now()));
+        verify(idempotencyRepository).save(argThat(record ->
+                record.getId() == 7L && record.getStatus() == IdempotencyStatus.COMPLETED));
+    }
+
+    @Test
+    void execute_InProgressKeyWithDifferentRequestIsNotTakenOver() {
+        when(idempotencyRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(idempotencyRepository.findByIdempotencyKey(anyString())).thenReturn(Optional.of(IdempotencyRecord.builder()
+                .id(7L)
+                .requestHash("other")
+                .build()));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () ->
+                idempotencyService.execute("post", "key-1", request, String.class, () -> ResponseEntity.ok("TRX1")));
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, e.getStatusCode());
+        verify(idempotencyRepository, never()).takeOverExpired(any(), any(), any());
+    }
+
+    @Test
+    void execute_ReusedKeyWithDifferentRequestIsRejected() {
+        when(idempotencyRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        idempotencyService.execute("post", "key-1", request, String.class, () -> ResponseEntity.ok("TRX1"));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () ->
+                idempotencyService.execute("post", "key-1", Map.of("amount", "999.00"), String.class,
+                        () -> ResponseEntity.ok("TRX2")));
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, e.getStatusCode());
+    }
+
+    @Test
+    void execute_FailedActionReleasesTheKey() {
+        when(idempotencyRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertThrows(RuntimeException.class, () ->
+                idempotencyService.execute("post", "key-1", request, String.class, () -> {
+                    throw new RuntimeException("Account service unavailable");
+                }));
+
+        verify(idempotencyRepository).delete(any(IdempotencyRecord.class));
+        verify(idempotencyRepository, never()).save(any());
+    }
+
+    @Test
+    void execute_KeysAreScopedPerEndpoint() {
+        when(idempotencyRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        idempotencyService.execute("post", "key-1", request, String.class, () -> ResponseEntity.ok("TRX1"));
+        ResponseEntity<String> other = idempotencyService.execute("create_with_notification", "key-1", request, String.class,
+                () -> ResponseEntity.ok("TRX2"));
+
+        assertEquals("TRX2", other.getBody());
+    }
+
+    @Test
+    void execute_KeysAreScopedPerCaller() {
+        when(idempotencyRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        // this service permits every request, every caller has the same anonymous principal
+        SecurityContextHolder.getContext().setAuthentication(new AnonymousAuthenticationToken("key", "anonymousUser",
+                AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+
+        callAs("alice");
+        idempotencyService.execute("post", "key-1", request, String.class, () -> ResponseEntity.ok("TRX1"));
+        callAs("bob");
+        ResponseEntity<String> other = idempotencyService.execute("post", "key-1", request, String.class,
+                () -> ResponseEntity.ok("TRX2"));
+
+        assertEquals("TRX2", other.getBody());
+        assertNull(other.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        verify(idempotencyRepository, times(2)).saveAndFlush(argThat(record -> record.getLockedUntil() != null));
+    }
+
+    @Test
+    void execute_SameCallerGetsItsOwnResponseReplayed() {
+        when(idempotencyRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        callAs("alice");
+        idempotencyService.execute("post", "key-1", request, String.class, () -> ResponseEntity.ok("TRX1"));
+        callAs("bob");
+        idempotencyService.execute("post", "key-1", request, String.class, () -> ResponseEntity.ok("TRX2"));
+        callAs("alice");
+        ResponseEntity<String> replayed = idempotencyService.execute("post", "key-1", request, String.class,
+                () -> ResponseEntity.ok("TRX3"));
+
+        assertEquals("TRX1", replayed.getBody());
+        assertEquals("true", replayed.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    // the header the gateway sets from the login it checked
+    private static void callAs(String user) {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest();
+        servletRequest.addHeader(IdempotencyService.CALLER_HEADER, user);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(servletRequest));
+    }
+
+    private String storedHash() throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-256")
+                .digest(objectMapper.writeValueAsBytes(request));
+        return HexFormat.of().formatHex(digest);
+    }
+}
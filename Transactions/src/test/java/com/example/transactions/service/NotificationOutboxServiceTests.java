@@ -0,0 +1,296 @@
+package com.example.transactions.service;
+
+import com.example.transactions.client.NotificationClient;
+import com.example.transactions.dto.request.NotificationCreateDto;
+import com.example.transactions.entity.NotificationOutbox;
+import com.example.transactions.entity.Transaction;
+import com.example.transactions.enums.Currency;
+import com.example.transactions.enums.OutboxStatus;
+import com.example.transactions.enums.TransactionType;
+import com.example.transactions.repository.INotificationOutboxRepository;
+import com.example.transactions.repository.ITransactionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.FeignException;
+import feign.RetryableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationOutboxServiceTests {
+
+    @Mock
+    private ITransactionRepository transactionRepository;
+
+    @Mock
+    private INotificationOutboxRepository outboxRepository;
+
+    @Mock
+    private NotificationClient notificationClient;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private NotificationOutboxService notificationOutboxService;
+
+    private NotificationCreateDto notification;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(notificationOutboxService, "batchSize", 50);
+        ReflectionTestUtils.setField(notificationOutboxService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(notificationOutboxService, "backoffInitialMs", 1000L);
+        ReflectionTestUtils.setField(notificationOutboxService, "backoffMaxMs", 60000L);
+        ReflectionTestUtils.setField(notificationOutboxService, "claimLeaseMs", 300000L);
+
+        notification = new NotificationCreateDto(
+                2L,
+                "jane@test.com",
+                "0787654321",
+                "SMS",
+                "TRANSACTION_CREATED",
+                "Transaction Created",
+                "Transaction from John Doe to Jane Smith for amount 100.00 was created.",
+                "HIGH"
+        );
+    }
+
+    @Test
+    void saveWithNotification_WritesTransactionAndOutboxRow() throws Exception {
+        Transaction transaction = Transaction.builder()
+                .id(7L)
+                .transactionId("TRX123")
+                .amount(new BigDecimal("100.00"))
+                .currency(Currency.RON)
+                .transactionType(TransactionType.TRANSFER)
+                .build();
+
+        notificationOutboxService.saveWithNotification(transaction, notification);
+
+        ArgumentCaptor<NotificationOutbox> entry = ArgumentCaptor.forClass(NotificationOutbox.class);
+        verify(transactionRepository).save(transaction);
+        verify(outboxRepository).save(entry.capture());
+        assertEquals("TRX123", entry.getValue().getTransactionId());
+        assertEquals(OutboxStatus.PENDING, entry.getValue().getStatus());
+
+        NotificationCreateDto stored = objectMapper.readValue(entry.getValue().getPayload(), NotificationCreateDto.class);
+        assertEquals(7L, stored.getRelatedTransactionId());
+        assertEquals(notification.getMessage(), stored.getMessage());
+    }
+
+    @Test
+    void relayBatch_MarksDeliveredRowsAsSent() throws Exception {
+        NotificationOutbox entry = pendingEntry();
+        claims(entry);
+        when(notificationClient.createNotifications(anyList())).thenReturn(ResponseEntity.ok(List.of("NOTIF-1")));
+
+        int sent = notificationOutboxService.relayBatch();
+
+        assertEquals(1, sent);
+        assertEquals(OutboxStatus.SENT, entry.getStatus());
+        assertNotNull(entry.getSentAt());
+        assertEquals(1, entry.getAttempts());
+        verify(outboxRepository).saveAll(List.of(entry));
+        verify(notificationClient, never()).createNotification(any());
+    }
+
+    @Test
+    void relayBatch_KeepsFailedRowsPendingUntilMaxAttempts() throws Exception {
+        NotificationOutbox entry = pendingEntry();
+        claims(entry);
+        when(notificationClient.createNotifications(anyList())).thenThrow(new RuntimeException("Bad request"));
+        when(notificationClient.createNotification(any())).thenThrow(new RuntimeException("Service unavailable"));
+
+        int sent = notificationOutboxService.relayBatch();
+
+        assertEquals(0, sent);
+        assertEquals(OutboxStatus.PENDING, entry.getStatus());
+        assertEquals("Service unavailable", entry.getLastError());
+        assertEquals(1, entry.getAttempts());
+        assertTrue(entry.getNextAttemptAt().isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    void relayBatch_GivesUpAfterMaxAttempts() throws Exception {
+        NotificationOutbox entry = pendingEntry();
+        entry.setAttempts(2);
+        claims(entry);
+        when(notificationClient.createNotifications(anyList())).thenThrow(new RuntimeException("Bad request"));
+        when(notificationClient.createNotification(any())).thenThrow(new RuntimeException("Service unavailable"));
+
+        notificationOutboxService.relayBatch();
+
+        assertEquals(OutboxStatus.FAILED, entry.getStatus());
+        assertEquals(3, entry.getAttempts());
+    }
+
+    @Test
+    void relayBatch_RejectedBatchFallsBackToSingleSends() throws Exception {
+        NotificationOutbox valid = pendingEntry();
+        NotificationOutbox invalid = pendingEntry();
+        invalid.setId(2L);
+        invalid.setPayload("not json");
+        claims(valid, invalid);
+
+        int sent = notificationOutboxService.relayBatch();
+
+        assertEquals(1, sent);
+        assertEquals(OutboxStatus.SENT, valid.getStatus());
+        assertEquals(OutboxStatus.PENDING, invalid.getStatus());
+        assertNotNull(invalid.getLastError());
+        verify(notificationClient, times(1)).createNotification(any());
+    }
+
+    @Test
+    void relayBatch_UnreachableServiceSkipsSingleSends() throws Exception {
+        NotificationOutbox entry = pendingEntry();
+        claims(entry);
+        when(notificationClient.createNotifications(anyList())).thenThrow(mock(RetryableException.class));
+
+        int sent = notificationOutboxService.relayBatch();
+
+        assertEquals(0, sent);
+        assertEquals(OutboxStatus.PENDING, entry.getStatus());
+        assertEquals(0, entry.getAttempts());
+        assertNotNull(entry.getNextAttemptAt());
+        verify(notificationClient, never()).createNotification(any());
+    }
+
+    @Test
+    void relayBatch_OutageNeverUsesUpAttempts() throws Exception {
+        NotificationOutbox entry = pendingEntry();
+        entry.setAttempts(2);
+        claims(entry);
+        when(notificationClient.createNotifications(anyList())).thenThrow(mock(RetryableException.class));
+
+        for (int i = 0; i < 5; i++) {
+            notificationOutboxService.relayBatch();
+        }
+
+        assertEquals(OutboxStatus.PENDING, entry.getStatus());
+        assertEquals(2, entry.getAttempts());
+        // five failed passes in a row, the last one waits 16 seconds
+        assertTrue(entry.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(15)));
+    }
+
+    @Test
+    void relayBatch_ServiceUnavailableStatusIsNotCounted() throws Exception {
+        NotificationOutbox entry = pendingEntry();
+        FeignException unavailable = mock(FeignException.ServiceUnavailable.class);
+        when(unavailable.status()).thenReturn(503);
+        claims(entry);
+        when(notificationClient.createNotifications(anyList())).thenThrow(unavailable);
+
+        notificationOutboxService.relayBatch();
+
+        assertEquals(0, entry.getAttempts());
+        verify(notificationClient, never()).createNotification(any());
+    }
+
+    @Test
+    void backoffMs_DoublesUpToTheMax() {
+        assertEquals(1000, notificationOutboxService.backoffMs(1));
+        assertEquals(2000, notificationOutboxService.backoffMs(2));
+        assertEquals(8000, notificationOutboxService.backoffMs(4));
+        assertEquals(60000, notificationOutboxService.backoffMs(7));
+        assertEquals(60000, notificationOutboxService.backoffMs(100));
+    }
+
+    @Test
+    void relayBatch_EmptyOutbox() {
+        when(outboxRepository.claimPendingBatch(any(), any(), anyString(), eq(50))).thenReturn(0);
+
+        assertEquals(0, notificationOutboxService.relayBatch());
+        verify(outboxRepository, never()).saveAll(any());
+        verify(outboxRepository, never()).findByClaimTokenOrderById(any());
+        verifyNoInteractions(notificationClient);
+    }
+
+    @Test
+    void relayBatch_ClaimsRowsForALeaseAndReleasesThemWithTheOutcome() throws Exception {
+        NotificationOutbox entry = pendingEntry();
+        claims(entry);
+        when(notificationClient.createNotifications(anyList())).thenAnswer(invocation -> {
+            // the HTTP call runs after the claim, while the row is claimed by this pass
+            assertNotNull(entry.getClaimToken());
+            return ResponseEntity.ok(List.of("NOTIF-1"));
+        });
+
+        notificationOutboxService.relayBatch();
+
+        ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> claimedUntil = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<String> claimToken = ArgumentCaptor.forClass(String.class);
+        verify(outboxRepository).claimPendingBatch(now.capture(), claimedUntil.capture(), claimToken.capture(), eq(50));
+        assertEquals(now.getValue().plusMinutes(5), claimedUntil.getValue());
+        verify(outboxRepository).findByClaimTokenOrderById(claimToken.getValue());
+        assertNull(entry.getClaimToken());
+        assertNull(entry.getClaimedUntil());
+        verify(outboxRepository).saveAll(List.of(entry));
+    }
+
+    @Test
+    void relayBatch_EveryNotificationCarriesItsOutboxRowAsDeduplicationKey() throws Exception {
+        NotificationOutbox first = pendingEntry();
+        NotificationOutbox second = pendingEntry();
+        second.setId(2L);
+        claims(first, second);
+        // the bulk call timed out, maybe after the notification service stored it
+        when(notificationClient.createNotifications(anyList())).thenThrow(new RuntimeException("Read timed out"));
+
+        notificationOutboxService.relayBatch();
+
+        ArgumentCaptor<List<NotificationCreateDto>> bulk = ArgumentCaptor.captor();
+        verify(notificationClient).createNotifications(bulk.capture());
+        assertEquals(List.of("transactions-outbox-1", "transactions-outbox-2"),
+                bulk.getValue().stream().map(NotificationCreateDto::getDeduplicationKey).toList());
+        ArgumentCaptor<NotificationCreateDto> single = ArgumentCaptor.forClass(NotificationCreateDto.class);
+        verify(notificationClient, times(2)).createNotification(single.capture());
+        assertEquals(List.of("transactions-outbox-1", "transactions-outbox-2"),
+                single.getAllValues().stream().map(NotificationCreateDto::getDeduplicationKey).toList());
+    }
+
+    // the claim marks the rows in the database, reading them back by token returns them marked
+    private void claims(NotificationOutbox... entries) {
+        when(outboxRepository.claimPendingBatch(any(), any(), anyString(), eq(50))).thenAnswer(invocation -> {
+            for (NotificationOutbox entry : entries) {
+                entry.setClaimedUntil(invocation.getArgument(1));
+                entry.setClaimToken(invocation.getArgument(2));
+            }
+            return entries.length;
+        });
+        when(outboxRepository.findByClaimTokenOrderById(anyString())).thenReturn(List.of(entries));
+    }
+
+    private NotificationOutbox pendingEntry() throws Exception {
+        return NotificationOutbox.builder()
+                .id(1L)
+                .transactionId("TRX123")
+                .payload(objectMapper.writeValueAsString(notification))
+                .build();
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.transactions.service;
+
+import com.example.transactions.dto.response.AccountDto;
+import com.example.transactions.repository.IAccountSpendingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SpendingLimitServiceTests {
+
+    @Mock
+    private IAccountSpendingRepository spendingRepository;
+
+    @InjectMocks
+    private SpendingLimitService spendingLimitService;
+
+    private AccountDto account;
+
+    @BeforeEach
+    void setUp() {
+        account = new AccountDto();
+        account.setAccountNumber("1234567890");
+        account.setDailyLimit(new BigDecimal("5000.00"));
+        account.setMonthlyLimit(new BigDecimal("50000.00"));
+    }
+
+    @Test
+    void checkLimits_WithinLimits() {
+        when(spendingRepository.findTotal(eq("1234567890"), eq("DAY"), any())).thenReturn(Optional.of(new BigDecimal("4000.00")));
+        when(spendingRepository.findTotal(eq("1234567890"), eq("MONTH"), any())).thenReturn(Optional.empty());
+
+        assertDoesNotThrow(() -> spendingLimitService.checkLimits(account, new BigDecimal("1000.00")));
+    }
+
+    @Test
+    void checkLimits_DailyLimitExceeded() {
+        when(spendingRepository.findTotal(eq("1234567890"), eq("DAY"), any())).thenReturn(Optional.of(new BigDecimal("4500.00")));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> spendingLimitService.checkLimits(account, new BigDecimal("600.00")));
+        assertTrue(exception.getMessage().startsWith("Daily limit"));
+    }
+
+    @Test
+    void checkLimits_MonthlyLimitExceeded() {
+        when(spendingRepository.findTotal(eq("1234567890"), eq("DAY"), any())).thenReturn(Optional.empty());
+        when(spendingRepository.findTotal(eq("1234567890"), eq("MONTH"), any())).thenReturn(Optional.of(new BigDecimal("49900.00")));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> spendingLimitService.checkLimits(account, new BigDecimal("200.00")));
+        assertTrue(exception.getMessage().startsWith("Monthly limit"));
+    }
+
+    @Test
+    void checkLimits_NoLimitsSet() {
+        account.setDailyLimit(null);
+        account.setMonthlyLimit(null);
+
+        spendingLimitService.checkLimits(account, new BigDecimal("1000000.00"));
+
+        verifyNoInteractions(spendingRepository);
+    }
+
+    @Test
+    void checkLimits_CountsAmountsAlreadyRequested() {
+        when(spendingRepository.findTotal(eq("1234567890"), eq("DAY"), any())).thenReturn(Optional.of(new BigDecimal("1000.00")));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> spendingLimitService.checkLimits(account, new BigDecimal("3500.00"), new BigDecimal("600.00")));
+        assertTrue(exception.getMessage().startsWith("Daily limit"));
+        assertTrue(exception.getMessage().contains("already spent 4500.00"));
+    }
+
+    @Test
+    void reserve_AddsToDayAndMonthBucketsWithinTheLimits() {
+        LocalDate today = LocalDate.now();
+        when(spendingRepository.addToTotalWithinLimit(any(), any(), any(), any(), any())).thenReturn(1);
+
+        LocalDate reservedOn = spendingLimitService.reserve(account, new BigDecimal("100.00"));
+
+        assertEquals(today, reservedOn);
+        verify(spendingRepository).addToTotalWithinLimit("1234567890", "DAY", today, new BigDecimal("100.00"), new BigDecimal("5000.00"));
+        verify(spendingRepository).addToTotalWithinLimit("1234567890", "MONTH", today.withDayOfMonth(1), new BigDecimal("100.00"), new BigDecimal("50000.00"));
+    }
+
+    @Test
+    void reserve_DailyLimitExceededStopsBeforeTheMonth() {
+        when(spendingRepository.addToTotalWithinLimit(eq("1234567890"), eq("DAY"), any(), any(), any())).thenReturn(0);
+        when(spendingRepository.findTotal(eq("1234567890"), eq("DAY"), any())).thenReturn(Optional.of(new BigDecimal("4950.00")));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> spendingLimitService.reserve(account, new BigDecimal("100.00")));
+
+        assertTrue(exception.getMessage().startsWith("Daily limit"));
+        verify(spendingRepository, never()).addToTotalWithinLimit(any(), eq("MONTH"), any(), any(), any());
+    }
+
+    @Test
+    void reserve_MonthlyLimitExceeded() {
+        when(spendingRepository.addToTotalWithinLimit(eq("1234567890"), eq("DAY"), any(), any(), any())).thenReturn(1);
+        when(spendingRepository.addToTotalWithinLimit(eq("1234567890"), eq("MONTH"), any(), any(), any())).thenReturn(0);
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> spendingLimitService.reserve(account, new BigDecimal("100.00")));
+
+        assertTrue(exception.getMessage().startsWith("Monthly limit"));
+    }
+
+    @Test
+    void reserve_NoLimitStillTracksSpending() {
+        account.setDailyLimit(null);
+        account.setMonthlyLimit(null);
+        LocalDate today = LocalDate.now();
+
+        spendingLimitService.reserve(account, new BigDecimal("100.00"));
+
+        verify(spendingRepository).addToTotal("1234567890", "DAY", today, new BigDecimal("100.00"));
+        verify(spendingRepository).addToTotal("1234567890", "MONTH", today.withDayOfMonth(1), new BigDecimal("100.00"));
+        verify(spendingRepository, never()).addToTotalWithinLimit(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void release_SubtractsFromTheBucketsOfTheReservationDay() {
+        LocalDate reservedOn = LocalDate.of(2024, 3, 31);
+
+        spendingLimitService.release("1234567890", new BigDecimal("100.00"), reservedOn);
+
+        verify(spendingRepository).addToTotal("1234567890", "DAY", reservedOn, new BigDecimal("-100.00"));
+        verify(spendingRepository).addToTotal("1234567890", "MONTH", LocalDate.of(2024, 3, 1), new BigDecimal("-100.00"));
+    }
+}
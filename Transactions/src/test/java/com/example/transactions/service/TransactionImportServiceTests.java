@@ -0,0 +1,219 @@
+package com.example.transactions.service;
+
+import com.example.transactions.dto.response.AccountDto;
+import com.example.transactions.dto.response.BulkImportResultDto;
+import com.example.transactions.entity.Transaction;
+import com.example.transactions.repository.ITransactionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionImportServiceTests {
+
+    @Mock
+    private ITransactionRepository transactionRepository;
+
+    @Mock
+    private AccountCacheService accountCacheService;
+
+    @Mock
+    private SpendingLimitService spendingLimitService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private TransactionImportService transactionImportService;
+
+    private AccountDto fromAccount;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(transactionImportService, "chunkSize", 2);
+        ReflectionTestUtils.setField(transactionImportService, "maxRows", 100);
+
+        fromAccount = new AccountDto();
+        fromAccount.setAccountNumber("1234567890");
+    }
+
+    @Test
+    void importTransactions_JsonArraySavedInChunks() {
+        when(accountCacheService.fetchAccounts(anyCollection())).thenReturn(Map.of("1234567890", fromAccount));
+
+        BulkImportResultDto result = transactionImportService.importTransactions(body("["
+                + transfer("100.00") + "," + transfer("200.00") + "," + transfer("300.00") + "]"));
+
+        assertEquals(3, result.getReceived());
+        assertEquals(3, result.getImported());
+        assertEquals(0, result.getRejected());
+        assertNotNull(result.getRows().get(0).getTransactionId());
+        verify(transactionRepository, times(2)).saveAll(anyList());
+    }
+
+    @Test
+    void importTransactions_NdjsonKeepsAccountNumbers() {
+        when(accountCacheService.fetchAccounts(anyCollection())).thenReturn(Map.of("1234567890", fromAccount));
+
+        transactionImportService.importTransactions(body(transfer("100.00") + "\n" + transfer("200.00") + "\n"));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Transaction>> saved = ArgumentCaptor.forClass(List.class);
+        verify(transactionRepository).saveAll(saved.capture());
+        assertEquals(2, saved.getValue().size());
+        assertEquals("1234567890", saved.getValue().get(0).getFromAccountNumber());
+        assertEquals("0987654321", saved.getValue().get(0).getToAccountNumber());
+    }
+
+    @Test
+    void importTransactions_InvalidRowsAreReportedAndSkipped() {
+        when(accountCacheService.fetchAccounts(anyCollection())).thenReturn(Map.of("1234567890", fromAccount));
+
+        BulkImportResultDto result = transactionImportService.importTransactions(body("["
+                + transfer("100.00") + ","
+                + transfer("-5.00") + ","
+                + "{\"transactionType\":\"UNKNOWN\",\"amount\":10}" + ","
+                + "{\"transactionType\":\"WITHDRAWAL\",\"amount\":10}" + "]"));
+
+        assertEquals(4, result.getReceived());
+        assertEquals(1, result.getImported());
+        assertEquals(3, result.getRejected());
+        assertNull(result.getRows().get(0).getError());
+        assertEquals("amount must be greater than zero", result.getRows().get(1).getError());
+        assertTrue(result.getRows().get(2).getError().startsWith("Invalid row"));
+        assertEquals("fromAccountNumber is required for WITHDRAWAL", result.getRows().get(3).getError());
+    }
+
+    @Test
+    void importTransactions_LimitBreachRejectsOnlyThatRow() {
+        when(accountCacheService.fetchAccounts(anyCollection())).thenReturn(Map.of("1234567890", fromAccount));
+        doNothing().when(spendingLimitService).checkLimits(fromAccount, BigDecimal.ZERO, new BigDecimal("100.00"));
+        doThrow(new RuntimeException("Daily limit of 5000.00 exceeded"))
+                .when(spendingLimitService).checkLimits(fromAccount, new BigDecimal("100.00"), new BigDecimal("9000.00"));
+
+        BulkImportResultDto result = transactionImportService.importTransactions(body("["
+                + transfer("100.00") + "," + transfer("9000.00") + "]"));
+
+        assertEquals(1, result.getImported());
+        assertEquals("Daily limit of 5000.00 exceeded", result.getRows().get(1).getError());
+    }
+
+    @Test
+    void importTransactions_EarlierRowsOfTheFileCountAgainstTheLimit() {
+        when(accountCacheService.fetchAccounts(anyCollection())).thenReturn(Map.of("1234567890", fromAccount));
+
+        transactionImportService.importTransactions(body("["
+                + transfer("100.00") + "," + transfer("200.00") + "," + transfer("300.00") + "]"));
+
+        // the third row is in the second chunk and still sees the first two
+        verify(spendingLimitService).checkLimits(fromAccount, BigDecimal.ZERO, new BigDecimal("100.00"));
+        verify(spendingLimitService).checkLimits(fromAccount, new BigDecimal("100.00"), new BigDecimal("200.00"));
+        verify(spendingLimitService).checkLimits(fromAccount, new BigDecimal("300.00"), new BigDecimal("300.00"));
+    }
+
+    @Test
+    void importTransactions_DepositWithSourceAccountIsChecked() {
+        when(accountCacheService.fetchAccounts(anyCollection())).thenReturn(Map.of("1234567890", fromAccount));
+
+        BulkImportResultDto result = transactionImportService.importTransactions(body(
+                "{\"transactionType\":\"DEPOSIT\",\"fromAccountNumber\":\"1234567890\",\"toAccountNumber\":\"0987654321\",\"amount\":50}"));
+
+        assertEquals(1, result.getImported());
+        verify(spendingLimitService).checkLimits(fromAccount, BigDecimal.ZERO, new BigDecimal("50"));
+    }
+
+    @Test
+    void importTransactions_DepositsSkipAccountLookup() {
+        BulkImportResultDto result = transactionImportService.importTransactions(body(
+                "{\"transactionType\":\"DEPOSIT\",\"toAccountNumber\":\"0987654321\",\"amount\":50}"));
+
+        assertEquals(1, result.getImported());
+        verifyNoInteractions(accountCacheService, spendingLimitService);
+    }
+
+    @Test
+    void importTransactions_AccountLookupFailureRejectsOutgoingRows() {
+        when(accountCacheService.fetchAccounts(anyCollection())).thenThrow(new RuntimeException("Account lookup timed out"));
+
+        BulkImportResultDto result = transactionImportService.importTransactions(body("[" + transfer("100.00") + "]"));
+
+        assertEquals(0, result.getImported());
+        assertEquals("Account lookup failed: Account lookup timed out", result.getRows().get(0).getError());
+    }
+
+    @Test
+    void importTransactions_MalformedBodyStopsAfterSavedRows() {
+        when(accountCacheService.fetchAccounts(anyCollection())).thenReturn(Map.of("1234567890", fromAccount));
+
+        BulkImportResultDto result = transactionImportService.importTransactions(body("["
+                + transfer("100.00") + ", {\"amount\": ]"));
+
+        assertEquals(2, result.getReceived());
+        assertEquals(1, result.getImported());
+        assertEquals(2, result.getRows().get(1).getRow());
+        assertTrue(result.getRows().get(1).getError().startsWith("Malformed input"));
+        verify(transactionRepository).saveAll(anyList());
+    }
+
+    @Test
+    void importTransactions_FailedChunkRejectsItsRows() {
+        when(accountCacheService.fetchAccounts(anyCollection())).thenReturn(Map.of("1234567890", fromAccount));
+        when(transactionRepository.saveAll(any())).thenThrow(new RuntimeException("connection reset"));
+
+        BulkImportResultDto result = transactionImportService.importTransactions(body("[" + transfer("100.00") + "]"));
+
+        assertEquals(0, result.getImported());
+        assertEquals("Failed to save chunk: connection reset", result.getRows().get(0).getError());
+    }
+
+    @Test
+    void importTransactions_RowsPastTheLimitAreReportedOnceAndNotRead() {
+        ReflectionTestUtils.setField(transactionImportService, "maxRows", 2);
+        when(accountCacheService.fetchAccounts(anyCollection())).thenReturn(Map.of("1234567890", fromAccount));
+
+        // the tail is not even valid JSON, reading must stop before it
+        BulkImportResultDto result = transactionImportService.importTransactions(body(
+                transfer("100.00") + "\n" + transfer("200.00") + "\n" + transfer("300.00") + "\n" + transfer("400.00") + "\n{oops"));
+
+        assertEquals(3, result.getReceived());
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getRejected());
+        assertEquals(3, result.getRows().get(2).getRow());
+        assertTrue(result.getRows().get(2).getError().startsWith("Import is limited to 2 rows"));
+        verify(transactionRepository).saveAll(any());
+    }
+
+    private static String transfer(String amount) {
+        return "{\"transactionType\":\"TRANSFER\",\"fromAccountNumber\":\"1234567890\","
+                + "\"toAccountNumber\":\"0987654321\",\"amount\":" + amount + ",\"currency\":\"RON\"}";
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
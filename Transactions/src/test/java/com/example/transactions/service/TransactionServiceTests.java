@@ -1,33 +1,47 @@
 package com.example.transactions.service;
 
 import com.example.transactions.client.AccountClient;
-import com.example.transactions.client.NotificationClient;
+import com.example.transactions.dto.request.AccountTransferDto;
+import com.example.transactions.dto.request.NotificationCreateDto;
 import com.example.transactions.dto.request.PostTransactionDto;
 import com.example.transactions.dto.request.PutTransactionDto;
 import com.example.transactions.dto.response.AccountDto;
 import com.example.transactions.dto.response.ModifyTransactionCurrencyDto;
-import com.example.transactions.dto.response.NotificationDto;
 import com.example.transactions.dto.response.TransactionDto;
+import com.example.transactions.dto.response.TransactionPageDto;
 import com.example.transactions.entity.Transaction;
 import com.example.transactions.enums.Currency;
 import com.example.transactions.enums.TransactionStatus;
 import com.example.transactions.enums.TransactionType;
 import com.example.transactions.repository.ITransactionRepository;
+import feign.FeignException;
+import feign.RetryableException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,19 +51,31 @@ class TransactionServiceTests {
     private ITransactionRepository transactionRepository;
 
     @Mock
-    private NotificationClient notificationClient;
+    private NotificationOutboxService notificationOutboxService;
+
+    @Mock
+    private AccountCacheService accountCacheService;
 
     @Mock
     private AccountClient accountClient;
 
+    @Mock
+    private SpendingLimitService spendingLimitService;
+
     @InjectMocks
     private TransactionService transactionService;
 
     private Transaction transaction;
     private Transaction transaction2;
+    private AccountDto sourceAccount;
 
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(transactionService, "internalToken", "internal-secret");
+
+        sourceAccount = new AccountDto();
+        sourceAccount.setAccountNumber("1234567890");
+
         transaction = new Transaction();
         transaction.setId(1L);
         transaction.setTransactionId("TRX123");
@@ -91,15 +117,143 @@ class TransactionServiceTests {
                 "Test transaction"
         );
 
+        AccountDto fromAccount = new AccountDto();
+        fromAccount.setAccountNumber("1234567890");
+        fromAccount.setDailyLimit(new BigDecimal("5000.00"));
+        when(accountCacheService.fetchAccounts(List.of("1234567890"))).thenReturn(Map.of("1234567890", fromAccount));
         when(transactionRepository.save(any(Transaction.class))).thenReturn(transaction);
 
         TransactionDto result = transactionService.postTransaction(dto);
 
         assertNotNull(result);
         assertNotNull(result.getTransactionId());
+        verify(spendingLimitService).checkLimits(fromAccount, new BigDecimal("100.00"));
         verify(transactionRepository).save(any(Transaction.class));
     }
 
+    @Test
+    void postTransaction_CreatedPaymentCanBeExecuted() {
+        PostTransactionDto dto = new PostTransactionDto(
+                "0987654321",
+                "acc-001",
+                "acc-002",
+                "1234567890",
+                TransactionType.TRANSFER,
+                new BigDecimal("100.00"),
+                Currency.RON,
+                "Test transaction"
+        );
+        when(accountCacheService.fetchAccounts(List.of("1234567890"))).thenReturn(Map.of("1234567890", sourceAccount));
+
+        TransactionDto created = transactionService.postTransaction(dto);
+
+        ArgumentCaptor<Transaction> saved = ArgumentCaptor.forClass(Transaction.class);
+        verify(transactionRepository).save(saved.capture());
+        when(transactionRepository.findTransactionByTransactionId(created.getTransactionId())).thenReturn(Optional.of(saved.getValue()));
+        when(transactionRepository.claimForExecution(eq(created.getTransactionId()), any(), any())).thenReturn(1);
+        when(spendingLimitService.reserve(sourceAccount, new BigDecimal("100.00"))).thenReturn(LocalDate.now());
+
+        assertTrue(transactionService.executePaymentByTransactionId(created.getTransactionId()));
+
+        ArgumentCaptor<AccountTransferDto> transfer = ArgumentCaptor.forClass(AccountTransferDto.class);
+        verify(accountClient).transfer(eq("internal-secret"), transfer.capture());
+        assertEquals("1234567890", transfer.getValue().getFromAccountNumber());
+        assertEquals("0987654321", transfer.getValue().getToAccountNumber());
+        assertEquals(TransactionStatus.COMPLETED, saved.getValue().getStatus());
+    }
+
+    @Test
+    void postTransaction_LimitCheckAndReservationUseTheSameSourceAccount() {
+        PostTransactionDto dto = new PostTransactionDto(
+                "0987654321",
+                "acc-001",
+                "acc-002",
+                "1234567890",
+                TransactionType.PAYMENT,
+                new BigDecimal("100.00"),
+                Currency.RON,
+                "Test payment"
+        );
+        when(accountCacheService.fetchAccounts(List.of("1234567890"))).thenReturn(Map.of("1234567890", sourceAccount));
+
+        TransactionDto created = transactionService.postTransaction(dto);
+
+        ArgumentCaptor<Transaction> saved = ArgumentCaptor.forClass(Transaction.class);
+        verify(transactionRepository).save(saved.capture());
+        when(transactionRepository.findTransactionByTransactionId(created.getTransactionId())).thenReturn(Optional.of(saved.getValue()));
+        when(transactionRepository.claimForExecution(eq(created.getTransactionId()), any(), any())).thenReturn(1);
+        when(spendingLimitService.reserve(sourceAccount, new BigDecimal("100.00"))).thenReturn(LocalDate.now());
+
+        transactionService.executePaymentByTransactionId(created.getTransactionId());
+
+        InOrder inOrder = inOrder(spendingLimitService, transactionRepository, accountClient);
+        inOrder.verify(spendingLimitService).checkLimits(sourceAccount, new BigDecimal("100.00"));
+        inOrder.verify(spendingLimitService).reserve(sourceAccount, new BigDecimal("100.00"));
+        inOrder.verify(transactionRepository).markSpendingReserved(created.getTransactionId(), LocalDate.now());
+        inOrder.verify(accountClient).transfer(eq("internal-secret"), any(AccountTransferDto.class));
+        assertEquals(LocalDate.now(), saved.getValue().getSpendingReservedOn());
+    }
+
+    @Test
+    void postTransaction_OverLimitIsRejected() {
+        PostTransactionDto dto = new PostTransactionDto(
+                "0987654321",
+                "acc-001",
+                "acc-002",
+                "1234567890",
+                TransactionType.PAYMENT,
+                new BigDecimal("6000.00"),
+                Currency.RON,
+                "Too much"
+        );
+
+        AccountDto fromAccount = new AccountDto();
+        fromAccount.setAccountNumber("1234567890");
+        when(accountCacheService.fetchAccounts(List.of("1234567890"))).thenReturn(Map.of("1234567890", fromAccount));
+        doThrow(new RuntimeException("Daily limit of 5000.00 exceeded for account 1234567890"))
+                .when(spendingLimitService).checkLimits(fromAccount, new BigDecimal("6000.00"));
+
+        assertThrows(RuntimeException.class, () -> transactionService.postTransaction(dto));
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    void postTransaction_DepositWithoutSourceSkipsLimits() {
+        PostTransactionDto dto = new PostTransactionDto(
+                "0987654321",
+                null,
+                "acc-002",
+                null,
+                TransactionType.DEPOSIT,
+                new BigDecimal("100.00"),
+                Currency.RON,
+                "Deposit"
+        );
+
+        transactionService.postTransaction(dto);
+
+        verifyNoInteractions(accountCacheService, spendingLimitService);
+    }
+
+    @Test
+    void postTransaction_DepositFromAnAccountIsChecked() {
+        PostTransactionDto dto = new PostTransactionDto(
+                "0987654321",
+                "acc-001",
+                "acc-002",
+                "1234567890",
+                TransactionType.DEPOSIT,
+                new BigDecimal("100.00"),
+                Currency.RON,
+                "Deposit"
+        );
+        when(accountCacheService.fetchAccounts(List.of("1234567890"))).thenReturn(Map.of("1234567890", sourceAccount));
+
+        transactionService.postTransaction(dto);
+
+        verify(spendingLimitService).checkLimits(sourceAccount, new BigDecimal("100.00"));
+    }
+
     @Test
     void fetchTransactionById_Success() {
         when(transactionRepository.findTransactionByTransactionId("TRX123")).thenReturn(Optional.of(transaction));
@@ -131,12 +285,77 @@ class TransactionServiceTests {
         );
 
         when(transactionRepository.findTransactionByTransactionId("TRX123")).thenReturn(Optional.of(transaction));
-        when(transactionRepository.save(any(Transaction.class))).thenReturn(transaction);
+        when(transactionRepository.updatePending("TRX123", updateDto)).thenReturn(1);
 
         boolean result = transactionService.putTransaction(updateDto, "TRX123");
 
         assertTrue(result);
-        verify(transactionRepository).save(any(Transaction.class));
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
+    @Test
+    void putTransaction_StatusChangeIsRejected() {
+        transaction2.setRiskScore(new BigDecimal("0.4200"));
+        PutTransactionDto reopen = new PutTransactionDto(
+                TransactionType.PAYMENT,
+                "acc-003",
+                "acc-004",
+                "1111111111",
+                "2222222222",
+                new BigDecimal("200.00"),
+                Currency.EUR,
+                null,
+                TransactionStatus.PENDING
+        );
+        when(transactionRepository.findTransactionByTransactionId("TRX456")).thenReturn(Optional.of(transaction2));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> transactionService.putTransaction(reopen, "TRX456"));
+
+        assertEquals("Status of transaction TRX456 can only change by executing or cancelling it", exception.getMessage());
+        verify(transactionRepository, never()).updatePending(any(), any());
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
+    @Test
+    void putTransaction_TransactionPastPendingCannotBeChanged() {
+        PutTransactionDto edit = new PutTransactionDto(
+                TransactionType.PAYMENT,
+                "acc-003",
+                "acc-004",
+                "1111111111",
+                "2222222222",
+                new BigDecimal("900.00"),
+                Currency.EUR,
+                null,
+                null
+        );
+        when(transactionRepository.findTransactionByTransactionId("TRX456")).thenReturn(Optional.of(transaction2));
+        when(transactionRepository.updatePending("TRX456", edit)).thenReturn(0);
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> transactionService.putTransaction(edit, "TRX456"));
+
+        assertEquals("Transaction with ID TRX456 is COMPLETED and cannot be changed", exception.getMessage());
+    }
+
+    @Test
+    void putTransaction_ClaimedByAnExecuteInBetweenCannotBeChanged() {
+        PutTransactionDto edit = new PutTransactionDto(
+                TransactionType.TRANSFER,
+                "acc-001",
+                "acc-002",
+                "1234567890",
+                "0987654321",
+                new BigDecimal("900.00"),
+                Currency.RON,
+                null,
+                TransactionStatus.PENDING
+        );
+        when(transactionRepository.findTransactionByTransactionId("TRX123")).thenReturn(Optional.of(transaction));
+        when(transactionRepository.updatePending("TRX123", edit)).thenReturn(0);
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> transactionService.putTransaction(edit, "TRX123"));
+
+        assertEquals("Transaction with ID TRX123 is already being executed and cannot be changed", exception.getMessage());
     }
 
     @Test
@@ -153,12 +372,160 @@ class TransactionServiceTests {
     @Test
     void executePaymentByTransactionId_Success() {
         when(transactionRepository.findTransactionByTransactionId("TRX123")).thenReturn(Optional.of(transaction));
+        when(transactionRepository.claimForExecution(eq("TRX123"), any(), any())).thenReturn(1);
+        reservesSpending();
+        when(accountClient.transfer(anyString(), any(AccountTransferDto.class))).thenReturn(ResponseEntity.ok("Transfer completed"));
 
         boolean result = transactionService.executePaymentByTransactionId("TRX123");
 
         assertTrue(result);
         assertEquals(TransactionStatus.COMPLETED, transaction.getStatus());
+        assertNotNull(transaction.getCompletedAt());
         verify(transactionRepository).save(transaction);
+
+        ArgumentCaptor<AccountTransferDto> transfer = ArgumentCaptor.forClass(AccountTransferDto.class);
+        verify(accountClient).transfer(eq("internal-secret"), transfer.capture());
+        assertEquals("TRX123", transfer.getValue().getTransferId());
+        assertEquals("1234567890", transfer.getValue().getFromAccountNumber());
+        assertEquals("0987654321", transfer.getValue().getToAccountNumber());
+        assertEquals(new BigDecimal("100.00"), transfer.getValue().getAmount());
+        verify(spendingLimitService).reserve(sourceAccount, new BigDecimal("100.00"));
+        verify(transactionRepository).markSpendingReserved("TRX123", LocalDate.now());
+        verify(spendingLimitService, never()).release(any(), any(), any());
+    }
+
+    @Test
+    void executePaymentByTransactionId_RejectedTransferMarksFailed() {
+        when(transactionRepository.findTransactionByTransactionId("TRX123")).thenReturn(Optional.of(transaction));
+        when(transactionRepository.claimForExecution(eq("TRX123"), any(), any())).thenReturn(1);
+        reservesSpending();
+        FeignException rejected = mock(FeignException.UnprocessableEntity.class);
+        when(rejected.status()).thenReturn(422);
+        when(accountClient.transfer(anyString(), any(AccountTransferDto.class))).thenThrow(rejected);
+
+        assertThrows(RuntimeException.class, () -> transactionService.executePaymentByTransactionId("TRX123"));
+
+        assertEquals(TransactionStatus.FAILED, transaction.getStatus());
+        assertNotNull(transaction.getFailedAt());
+        verify(transactionRepository).save(transaction);
+        verify(transactionRepository, never()).releaseClaim(any());
+        verify(spendingLimitService).release("1234567890", new BigDecimal("100.00"), LocalDate.now());
+        assertNull(transaction.getSpendingReservedOn());
+    }
+
+    @Test
+    void executePaymentByTransactionId_ServerErrorKeepsPending() {
+        when(transactionRepository.findTransactionByTransactionId("TRX123")).thenReturn(Optional.of(transaction));
+        when(transactionRepository.claimForExecution(eq("TRX123"), any(), any())).thenReturn(1);
+        reservesSpending();
+        FeignException serverError = mock(FeignException.InternalServerError.class);
+        when(serverError.status()).thenReturn(500);
+        when(accountClient.transfer(anyString(), any(AccountTransferDto.class))).thenThrow(serverError);
+
+        assertThrows(RuntimeException.class, () -> transactionService.executePaymentByTransactionId("TRX123"));
+
+        assertEquals(TransactionStatus.PENDING, transaction.getStatus());
+        verify(transactionRepository).releaseClaim("TRX123");
+        verify(transactionRepository, never()).save(any());
+        // the transfer may have gone through, the reservation stays until the outcome is known
+        verify(spendingLimitService, never()).release(any(), any(), any());
+    }
+
+    @Test
+    void executePaymentByTransactionId_UnreachableAccountServiceKeepsPending() {
+        when(transactionRepository.findTransactionByTransactionId("TRX123")).thenReturn(Optional.of(transaction));
+        when(transactionRepository.claimForExecution(eq("TRX123"), any(), any())).thenReturn(1);
+        reservesSpending();
+        when(accountClient.transfer(anyString(), any(AccountTransferDto.class))).thenThrow(mock(RetryableException.class));
+
+        assertThrows(RuntimeException.class, () -> transactionService.executePaymentByTransactionId("TRX123"));
+
+        assertEquals(TransactionStatus.PENDING, transaction.getStatus());
+        verify(transactionRepository).releaseClaim("TRX123");
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    void executePaymentByTransactionId_OverLimitIsRejectedBeforeTheTransfer() {
+        when(transactionRepository.findTransactionByTransactionId("TRX123")).thenReturn(Optional.of(transaction));
+        when(transactionRepository.claimForExecution(eq("TRX123"), any(), any())).thenReturn(1);
+        when(accountCacheService.fetchAccounts(List.of("1234567890"))).thenReturn(Map.of("1234567890", sourceAccount));
+        when(spendingLimitService.reserve(sourceAccount, new BigDecimal("100.00")))
+                .thenThrow(new RuntimeException("Daily limit of 50.00 exceeded for account 1234567890"));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> transactionService.executePaymentByTransactionId("TRX123"));
+
+        assertTrue(exception.getMessage().startsWith("Daily limit"));
+        verify(transactionRepository).releaseClaim("TRX123");
+        verifyNoInteractions(accountClient);
+        verify(transactionRepository, never()).markSpendingReserved(any(), any());
+    }
+
+    @Test
+    void executePaymentByTransactionId_RetryDoesNotReserveTwice() {
+        transaction.setSpendingReservedOn(LocalDate.now().minusDays(1));
+        when(transactionRepository.findTransactionByTransactionId("TRX123")).thenReturn(Optional.of(transaction));
+        when(transactionRepository.claimForExecution(eq("TRX123"), any(), any())).thenReturn(1);
+        when(accountClient.transfer(anyString(), any(AccountTransferDto.class))).thenReturn(ResponseEntity.ok("Transfer completed"));
+
+        transactionService.executePaymentByTransactionId("TRX123");
+
+        assertEquals(TransactionStatus.COMPLETED, transaction.getStatus());
+        verifyNoInteractions(accountCacheService, spendingLimitService);
+    }
+
+    @Test
+    void executePaymentByTransactionId_DepositFromAnAccountIsLimited() {
+        transaction.setTransactionType(TransactionType.DEPOSIT);
+        when(transactionRepository.findTransactionByTransactionId("TRX123")).thenReturn(Optional.of(transaction));
+        when(transactionRepository.claimForExecution(eq("TRX123"), any(), any())).thenReturn(1);
+        reservesSpending();
+        when(accountClient.transfer(anyString(), any(AccountTransferDto.class))).thenReturn(ResponseEntity.ok("Transfer completed"));
+
+        transactionService.executePaymentByTransactionId("TRX123");
+
+        verify(spendingLimitService).reserve(sourceAccount, new BigDecimal("100.00"));
+    }
+
+    @Test
+    void executePaymentByTransactionId_ConcurrentExecuteDoesNotTransferTwice() {
+        when(transactionRepository.findTransactionByTransactionId("TRX123")).thenReturn(Optional.of(transaction));
+        when(transactionRepository.claimForExecution(eq("TRX123"), any(), any())).thenReturn(0);
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> transactionService.executePaymentByTransactionId("TRX123"));
+
+        assertTrue(exception.getMessage().contains("already being executed"));
+        verifyNoInteractions(accountClient, spendingLimitService);
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    void executePaymentByTransactionId_StaleClaimCanBeTakenOver() {
+        ReflectionTestUtils.setField(transactionService, "claimLeaseMs", 60000L);
+        when(transactionRepository.findTransactionByTransactionId("TRX123")).thenReturn(Optional.of(transaction));
+        when(transactionRepository.claimForExecution(eq("TRX123"), any(), any())).thenReturn(1);
+        reservesSpending();
+        when(accountClient.transfer(anyString(), any(AccountTransferDto.class))).thenReturn(ResponseEntity.ok("Transfer completed"));
+
+        transactionService.executePaymentByTransactionId("TRX123");
+
+        ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> staleBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(transactionRepository).claimForExecution(eq("TRX123"), now.capture(), staleBefore.capture());
+        assertEquals(now.getValue().minusSeconds(60), staleBefore.getValue());
+    }
+
+    @Test
+    void executePaymentByTransactionId_NotPending() {
+        when(transactionRepository.findTransactionByTransactionId("TRX456")).thenReturn(Optional.of(transaction2));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> transactionService.executePaymentByTransactionId("TRX456"));
+
+        assertTrue(exception.getMessage().contains("COMPLETED"));
+        verifyNoInteractions(accountClient);
     }
 
     @Test
@@ -241,6 +608,46 @@ class TransactionServiceTests {
         assertNotNull(result);
     }
 
+    @Test
+    void antiFraudCheck_ReturnsStoredRiskScore() {
+        transaction.setStatus(TransactionStatus.COMPLETED);
+        transaction.setRiskScore(new BigDecimal("0.8500"));
+        when(transactionRepository.findTransactionByTransactionId("TRX123")).thenReturn(Optional.of(transaction));
+
+        assertEquals("0.8500", transactionService.antiFraudCheck("TRX123"));
+    }
+
+    @Test
+    void calculateTransactionAmounts_Batch() {
+        when(transactionRepository.findByTransactionIdIn(List.of("TRX123", "TRX456", "MISSING")))
+                .thenReturn(List.of(transaction, transaction2));
+
+        Map<String, BigDecimal> fees = transactionService.calculateTransactionAmounts(List.of("TRX123", "TRX456", "MISSING"));
+
+        assertEquals(2, fees.size());
+        assertEquals(0, new BigDecimal("1.00").compareTo(fees.get("TRX123")));
+        assertEquals(0, new BigDecimal("3.00").compareTo(fees.get("TRX456")));
+    }
+
+    @Test
+    void antiFraudCheck_BatchSkipsUncompleted() {
+        transaction2.setRiskScore(new BigDecimal("0.4200"));
+        when(transactionRepository.findByTransactionIdIn(List.of("TRX123", "TRX456")))
+                .thenReturn(List.of(transaction, transaction2));
+
+        Map<String, BigDecimal> scores = transactionService.antiFraudCheck(List.of("TRX123", "TRX456"));
+
+        assertEquals(Map.of("TRX456", new BigDecimal("0.4200")), scores);
+    }
+
+    @Test
+    void calculateTransactionAmounts_TooManyIds() {
+        List<String> ids = Collections.nCopies(1001, "TRX123");
+
+        assertThrows(RuntimeException.class, () -> transactionService.calculateTransactionAmounts(ids));
+        verifyNoInteractions(transactionRepository);
+    }
+
     @Test
     void antiFraudCheck_NotCompleted() {
         transaction.setStatus(TransactionStatus.PENDING);
@@ -263,12 +670,14 @@ class TransactionServiceTests {
         );
 
         AccountDto fromAccount = new AccountDto();
+        fromAccount.setAccountNumber("1234567890");
         fromAccount.setCustomerName("John Doe");
         AccountDto toAccount = new AccountDto();
+        toAccount.setAccountNumber("0987654321");
         toAccount.setCustomerName("Jane Smith");
 
-        when(accountClient.fetchAccount("1234567890")).thenReturn(ResponseEntity.ok(fromAccount));
-        when(accountClient.fetchAccount("0987654321")).thenReturn(ResponseEntity.ok(toAccount));
+        when(accountCacheService.fetchAccounts(List.of("1234567890", "0987654321")))
+                .thenReturn(Map.of("1234567890", fromAccount, "0987654321", toAccount));
         when(transactionRepository.save(any(Transaction.class))).thenReturn(transaction);
 
         String result = transactionService.postTransactionWithAccountDetails(dto);
@@ -276,8 +685,14 @@ class TransactionServiceTests {
         assertNotNull(result);
         assertTrue(result.contains("John Doe"));
         assertTrue(result.contains("Jane Smith"));
-        verify(accountClient).fetchAccount("1234567890");
-        verify(accountClient).fetchAccount("0987654321");
+        verify(accountCacheService).fetchAccounts(List.of("1234567890", "0987654321"));
+    }
+
+    @Test
+    void evictCachedAccount_DelegatesToCache() {
+        transactionService.evictCachedAccount("1234567890");
+
+        verify(accountCacheService).evict("1234567890");
     }
 
     @Test
@@ -293,7 +708,7 @@ class TransactionServiceTests {
                 "Test"
         );
 
-        when(accountClient.fetchAccount(anyString())).thenThrow(new RuntimeException("Account not found"));
+        when(accountCacheService.fetchAccounts(anyList())).thenThrow(new RuntimeException("Account not found"));
 
         assertThrows(RuntimeException.class, () -> transactionService.postTransactionWithAccountDetails(dto));
     }
@@ -301,13 +716,15 @@ class TransactionServiceTests {
     @Test
     void fetchTransactionWithAccountDetailsById_Success() {
         AccountDto fromAccount = new AccountDto();
+        fromAccount.setAccountNumber("1234567890");
         fromAccount.setCustomerName("John Doe");
         AccountDto toAccount = new AccountDto();
+        toAccount.setAccountNumber("0987654321");
         toAccount.setCustomerName("Jane Smith");
 
         when(transactionRepository.findTransactionByTransactionId("TRX123")).thenReturn(Optional.of(transaction));
-        when(accountClient.fetchAccount("1234567890")).thenReturn(ResponseEntity.ok(fromAccount));
-        when(accountClient.fetchAccount("0987654321")).thenReturn(ResponseEntity.ok(toAccount));
+        when(accountCacheService.fetchAccounts(List.of("1234567890", "0987654321")))
+                .thenReturn(Map.of("1234567890", fromAccount, "0987654321", toAccount));
 
         String result = transactionService.fetchTransactionWithAccountDetailsById("TRX123");
 
@@ -337,30 +754,31 @@ class TransactionServiceTests {
         );
 
         AccountDto fromAccount = new AccountDto();
+        fromAccount.setAccountNumber("1234567890");
         fromAccount.setCustomerName("John Doe");
         fromAccount.setCustomerId(1L);
         fromAccount.setCustomerEmail("john@test.com");
         fromAccount.setCustomerPhone("0712345678");
 
         AccountDto toAccount = new AccountDto();
+        toAccount.setAccountNumber("0987654321");
         toAccount.setCustomerName("Jane Smith");
         toAccount.setCustomerId(2L);
         toAccount.setCustomerEmail("jane@test.com");
         toAccount.setCustomerPhone("0787654321");
 
-        NotificationDto notification = new NotificationDto();
-        notification.setMessage("Transaction Created");
-
-        when(accountClient.fetchAccount("1234567890")).thenReturn(ResponseEntity.ok(fromAccount));
-        when(accountClient.fetchAccount("0987654321")).thenReturn(ResponseEntity.ok(toAccount));
-        when(notificationClient.createNotification(any())).thenReturn(ResponseEntity.ok(notification));
-        when(transactionRepository.save(any(Transaction.class))).thenReturn(transaction);
+        when(accountCacheService.fetchAccounts(List.of("1234567890", "0987654321")))
+                .thenReturn(Map.of("1234567890", fromAccount, "0987654321", toAccount));
 
         String result = transactionService.postTransactionWithNotification(dto);
 
+        ArgumentCaptor<NotificationCreateDto> notification = ArgumentCaptor.forClass(NotificationCreateDto.class);
+        verify(notificationOutboxService).saveWithNotification(any(Transaction.class), notification.capture());
+        assertEquals(2L, notification.getValue().getRecipientId());
+        assertEquals("0787654321", notification.getValue().getRecipientPhone());
         assertNotNull(result);
-        assertTrue(result.contains("Transaction Created"));
-        verify(notificationClient).createNotification(any());
+        assertTrue(result.contains("Transaction from John Doe to Jane Smith"));
+        verify(transactionRepository, never()).save(any(Transaction.class));
     }
 
     @Test
@@ -376,8 +794,92 @@ class TransactionServiceTests {
                 "Test"
         );
 
-        when(accountClient.fetchAccount(anyString())).thenThrow(new RuntimeException("Account not found"));
+        when(accountCacheService.fetchAccounts(anyList())).thenThrow(new RuntimeException("Account not found"));
 
         assertThrows(RuntimeException.class, () -> transactionService.postTransactionWithNotification(dto));
     }
+
+    @Test
+    void postTransactionWithAccountDetails_MissingAccount() {
+        PostTransactionDto dto = new PostTransactionDto(
+                "0987654321",
+                "acc-001",
+                "acc-002",
+                "1234567890",
+                TransactionType.TRANSFER,
+                new BigDecimal("100.00"),
+                Currency.RON,
+                "Test"
+        );
+
+        AccountDto fromAccount = new AccountDto();
+        fromAccount.setAccountNumber("1234567890");
+        fromAccount.setCustomerName("John Doe");
+
+        when(accountCacheService.fetchAccounts(List.of("1234567890", "0987654321")))
+                .thenReturn(Map.of("1234567890", fromAccount));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> transactionService.postTransactionWithAccountDetails(dto));
+        assertTrue(exception.getMessage().contains("0987654321"));
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
+    @Test
+    void fetchTransactionHistory_ReturnsCursorWhenMoreRowsExist() {
+        ReflectionTestUtils.setField(transactionService, "historyMaxPageSize", 200);
+        when(transactionRepository.findAccountHistory(eq("1234567890"), any(), eq(Long.MAX_VALUE), any(),
+                isNull(), isNull(), eq(2)))
+                .thenReturn(List.of(transaction, transaction2));
+
+        TransactionPageDto page = transactionService.fetchTransactionHistory("1234567890", null, 1, null, null, null, null);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals("TRX123", page.getItems().get(0).getTransactionId());
+        assertNotNull(page.getNextCursor());
+    }
+
+    @Test
+    void fetchTransactionHistory_CursorContinuesAfterLastRow() {
+        ReflectionTestUtils.setField(transactionService, "historyMaxPageSize", 200);
+        when(transactionRepository.findAccountHistory(eq("1234567890"), any(), anyLong(), any(), any(), any(), eq(2)))
+                .thenReturn(List.of(transaction, transaction2));
+        String cursor = transactionService.fetchTransactionHistory("1234567890", null, 1, null, null, null, null).getNextCursor();
+
+        when(transactionRepository.findAccountHistory("1234567890", transaction.getInitiatedAt(), 1L,
+                LocalDateTime.of(1970, 1, 1, 0, 0), "COMPLETED", "PAYMENT", 2))
+                .thenReturn(List.of(transaction2));
+
+        TransactionPageDto page = transactionService.fetchTransactionHistory(
+                "1234567890", cursor, 1, TransactionStatus.COMPLETED, TransactionType.PAYMENT, null, null);
+
+        assertEquals("TRX456", page.getItems().get(0).getTransactionId());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void fetchTransactionHistory_DateRangeBoundsTheQuery() {
+        ReflectionTestUtils.setField(transactionService, "historyMaxPageSize", 200);
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 12, 31, 23, 59);
+        when(transactionRepository.findAccountHistory("1234567890", to, Long.MAX_VALUE, from, null, null, 201))
+                .thenReturn(List.of());
+
+        TransactionPageDto page = transactionService.fetchTransactionHistory("1234567890", null, 500, null, null, from, to);
+
+        assertTrue(page.getItems().isEmpty());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void fetchTransactionHistory_InvalidCursor() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> transactionService.fetchTransactionHistory("1234567890", "not-a-cursor", 10, null, null, null, null));
+        assertEquals("Invalid history cursor", exception.getMessage());
+    }
+
+    private void reservesSpending() {
+        when(accountCacheService.fetchAccounts(List.of("1234567890"))).thenReturn(Map.of("1234567890", sourceAccount));
+        when(spendingLimitService.reserve(sourceAccount, new BigDecimal("100.00"))).thenReturn(LocalDate.now());
+    }
 }
@@ -8,6 +8,7 @@ import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -336,5 +337,52 @@ class TransactionHelperTests {
         // Assert - Should return 0 (lowest risk)
         assertThat(riskScore).isEqualByComparingTo(BigDecimal.ZERO);
     }
-}
 
+    @Test
+    void testCalculateFee_PerType() {
+        // Arrange
+        BigDecimal amount = new BigDecimal("100.00");
+
+        // Act & Assert
+        assertThat(TransactionHelper.calculateFee(TransactionType.TRANSFER, Currency.RON, amount)).isEqualByComparingTo("1.00");
+        assertThat(TransactionHelper.calculateFee(TransactionType.PAYMENT, Currency.EUR, amount)).isEqualByComparingTo("1.50");
+        assertThat(TransactionHelper.calculateFee(TransactionType.WITHDRAWAL, Currency.USD, amount)).isEqualTo(new BigDecimal("2.50"));
+        assertThat(TransactionHelper.calculateFee(TransactionType.DEPOSIT, null, amount)).isEqualTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    void testCalculateFees_Batch() {
+        // Arrange
+        Transaction transfer = Transaction.builder()
+                .amount(new BigDecimal("200.00"))
+                .currency(Currency.RON)
+                .transactionType(TransactionType.TRANSFER)
+                .build();
+        Transaction withdrawal = Transaction.builder()
+                .amount(new BigDecimal("50.00"))
+                .currency(Currency.EUR)
+                .transactionType(TransactionType.WITHDRAWAL)
+                .build();
+
+        // Act
+        List<BigDecimal> fees = TransactionHelper.calculateFees(List.of(transfer, withdrawal));
+
+        // Assert
+        assertThat(fees).hasSize(2);
+        assertThat(fees.get(0)).isEqualByComparingTo("2.00");
+        assertThat(fees.get(1)).isEqualByComparingTo("2.50");
+    }
+
+    @Test
+    void testCheckAmountAntiFraud_Batch() {
+        // Arrange
+        Transaction low = Transaction.builder().amount(new BigDecimal("100.00")).build();
+        Transaction high = Transaction.builder().amount(new BigDecimal("12000.00")).build();
+
+        // Act
+        List<BigDecimal> scores = TransactionHelper.checkAmountAntiFraud(List.of(low, high));
+
+        // Assert
+        assertThat(scores).containsExactly(BigDecimal.ZERO, BigDecimal.ONE);
+    }
+}
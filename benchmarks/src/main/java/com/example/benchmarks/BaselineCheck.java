@@ -0,0 +1,65 @@
+package com.example.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Compares a JMH json result file with baseline.json and exits with 1 when a benchmark got slower than the tolerance.
+// All suites report average time, so a higher score is a regression.
+//   java -jar benchmarks/target/benchmarks.jar -rf json -rff benchmarks/target/results.json
+//   java -cp benchmarks/target/benchmarks.jar com.example.benchmarks.BaselineCheck \
+//       benchmarks/baseline.json benchmarks/target/results.json 0.15
+public class BaselineCheck {
+    private static final double DEFAULT_TOLERANCE = 0.15;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineCheck <baseline.json> <results.json> [tolerance]");
+            System.exit(2);
+        }
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_TOLERANCE;
+
+        Map<String, Double> baseline = readScores(new File(args[0]));
+        Map<String, Double> results = readScores(new File(args[1]));
+
+        int regressions = 0;
+        for (Map.Entry<String, Double> result : results.entrySet()) {
+            Double expected = baseline.get(result.getKey());
+            if (expected == null) {
+                System.out.printf("NEW      %-90s %12.3f%n", result.getKey(), result.getValue());
+                continue;
+            }
+            double change = (result.getValue() - expected) / expected;
+            boolean regressed = change > tolerance;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-8s %-90s %12.3f -> %12.3f (%+.1f%%)%n",
+                    regressed ? "SLOWER" : "OK", result.getKey(), expected, result.getValue(), change * 100);
+        }
+
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) slower than the baseline by more than %.0f%%%n", regressions, tolerance * 100);
+            System.exit(1);
+        }
+    }
+
+    // benchmark name plus its @Param values, mapped to the primary score
+    private static Map<String, Double> readScores(File file) throws IOException {
+        Map<String, Double> scores = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(run.get("benchmark").asText());
+            JsonNode params = run.get("params");
+            if (params != null) {
+                params.fields().forEachRemaining(param ->
+                        key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+            }
+            scores.put(key.toString(), run.get("primaryMetric").get("score").asDouble());
+        }
+        return scores;
+    }
+}
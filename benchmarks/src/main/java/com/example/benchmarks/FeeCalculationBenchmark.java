@@ -0,0 +1,131 @@
+package com.example.benchmarks;
+
+import com.example.transactions.entity.Transaction;
+import com.example.transactions.enums.Currency;
+import com.example.transactions.enums.TransactionType;
+import com.example.transactions.utils.TransactionHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Per-call cost of fee, fraud and currency computation: the old code, which parsed its rates and thresholds
+// on every call, against the precomputed tables in TransactionHelper.
+// Run with the gc profiler to see gc.alloc.rate.norm, the bytes allocated per call:
+//   java -jar benchmarks/target/benchmarks.jar FeeCalculationBenchmark -prof gc
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeeCalculationBenchmark {
+    private static final int BATCH_SIZE = 1000;
+
+    private List<Transaction> transactions;
+    private Transaction transaction;
+
+    @Setup
+    public void setUp() {
+        TransactionType[] types = TransactionType.values();
+        Currency[] currencies = Currency.values();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        transactions = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            transactions.add(Transaction.builder()
+                    .transactionType(types[i % types.length])
+                    .currency(currencies[i % currencies.length])
+                    .amount(BigDecimal.valueOf(random.nextLong(1, 2_000_000), 2))
+                    .build());
+        }
+        transaction = transactions.get(0);
+    }
+
+    @Benchmark
+    public BigDecimal feeLegacy() {
+        return legacyFee(transaction);
+    }
+
+    @Benchmark
+    public BigDecimal feeTable() {
+        return TransactionHelper.calculateFee(transaction.getTransactionType(), transaction.getCurrency(), transaction.getAmount());
+    }
+
+    @Benchmark
+    public BigDecimal antiFraudLegacy() {
+        return legacyAntiFraud(transaction);
+    }
+
+    @Benchmark
+    public BigDecimal antiFraudTable() {
+        return TransactionHelper.checkAmountAntiFraud(transaction);
+    }
+
+    @Benchmark
+    public BigDecimal convertCurrencyLegacy() {
+        return legacyConvertCurrency(Currency.EUR, Currency.USD, transaction.getAmount());
+    }
+
+    @Benchmark
+    public BigDecimal convertCurrencyTable() {
+        return TransactionHelper.ConvertCurrency(Currency.EUR, Currency.USD, transaction.getAmount());
+    }
+
+    @Benchmark
+    public void feesLegacyOneByOne(Blackhole blackhole) {
+        for (Transaction each : transactions) {
+            blackhole.consume(legacyFee(each));
+        }
+    }
+
+    @Benchmark
+    public List<BigDecimal> feesTableBatch() {
+        return TransactionHelper.calculateFees(transactions);
+    }
+
+    // the code TransactionHelper and calculateTransactionAmount ran before the tables
+    private static BigDecimal legacyFee(Transaction transaction) {
+        return switch (transaction.getTransactionType()) {
+            case TRANSFER -> transaction.getAmount().multiply(new BigDecimal("0.01"));
+            case WITHDRAWAL -> new BigDecimal("2.50");
+            case DEPOSIT -> BigDecimal.ZERO;
+            case PAYMENT -> transaction.getAmount().multiply(new BigDecimal("0.015"));
+        };
+    }
+
+    private static BigDecimal legacyAntiFraud(Transaction transaction) {
+        BigDecimal amount = transaction.getAmount();
+        if (amount.compareTo(new BigDecimal("10000")) > 0) {
+            return BigDecimal.ONE;
+        } else if (amount.compareTo(new BigDecimal("5000")) > 0) {
+            return new BigDecimal("0.7");
+        } else if (amount.compareTo(new BigDecimal("2000")) > 0) {
+            return new BigDecimal("0.4");
+        }
+        return BigDecimal.ZERO;
+    }
+
+    private static BigDecimal legacyConvertCurrency(Currency previousCurrency, Currency newCurrency, BigDecimal amount) {
+        if (previousCurrency == newCurrency) {
+            return amount;
+        }
+        BigDecimal prevVal = BigDecimal.valueOf(previousCurrency.getValue());
+        BigDecimal newVal = BigDecimal.valueOf(newCurrency.getValue());
+        return amount.multiply(prevVal).divide(newVal, 8, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Time to finish a burst of concurrent transfers on the default Tomcat pool (200 platform threads)
+// against one virtual thread per request, as with spring.threads.virtual.enabled.
+// A transfer is modelled by its blocking calls: the account lookups over Feign, which run in parallel so they cost
+// one round trip, then the database write through a pool of dbPoolSize connections (10 is Hikari's default).
+// Only the waiting is simulated, so this shows how far the thread model lets in-flight transfers scale,
+// not the cost of the real calls.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InFlightTransferBenchmark {
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final long ACCOUNT_LOOKUP_MS = 20;
+    private static final long DB_WRITE_MS = 1;
+
+    @Param({"200", "1000", "5000"})
+    private int inFlight;
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    @Param({"10", "50"})
+    private int dbPoolSize;
+
+    private ExecutorService executor;
+    private Semaphore connectionPool;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        executor = threads.equals("virtual")
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        connectionPool = new Semaphore(dbPoolSize, true);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public void transfers() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(inFlight);
+        for (int i = 0; i < inFlight; i++) {
+            executor.execute(() -> {
+                try {
+                    transfer();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+    }
+
+    private void transfer() throws InterruptedException {
+        Thread.sleep(ACCOUNT_LOOKUP_MS);
+
+        connectionPool.acquire();
+        try {
+            Thread.sleep(DB_WRITE_MS);
+        } finally {
+            connectionPool.release();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.benchmarks;
+
+import com.example.transactions.dto.request.PostTransactionDto;
+import com.example.transactions.dto.response.TransactionDto;
+import com.example.transactions.enums.Currency;
+import com.example.transactions.enums.TransactionStatus;
+import com.example.transactions.enums.TransactionType;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// Request and response bodies of the transaction endpoints, with the mapper configured the way Spring Boot
+// configures it for the controllers (parameter names module for the constructor-only DTOs, ISO dates).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+    private ObjectReader postTransactionReader;
+    private ObjectWriter postTransactionWriter;
+    private ObjectReader transactionReader;
+    private ObjectWriter transactionWriter;
+
+    private PostTransactionDto postTransactionDto;
+    private TransactionDto transactionDto;
+    private byte[] postTransactionJson;
+    private byte[] transactionJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        postTransactionReader = objectMapper.readerFor(PostTransactionDto.class);
+        postTransactionWriter = objectMapper.writerFor(PostTransactionDto.class);
+        transactionReader = objectMapper.readerFor(TransactionDto.class);
+        transactionWriter = objectMapper.writerFor(TransactionDto.class);
+
+        postTransactionDto = new PostTransactionDto(
+                "RO49AAAA1B31007593840000",
+                "1",
+                "2",
+                "RO49AAAA1B31007593840001",
+                TransactionType.TRANSFER,
+                new BigDecimal("1250.75"),
+                Currency.RON,
+                "Rent for October"
+        );
+        transactionDto = new TransactionDto(
+                "2",
+                "3f1c9a52-6d0e-4b8e-9f57-0d7f1f0c2a11",
+                "1",
+                "RO49AAAA1B31007593840001",
+                "RO49AAAA1B31007593840000",
+                TransactionType.TRANSFER,
+                new BigDecimal("1250.75"),
+                Currency.RON,
+                "Rent for October",
+                TransactionStatus.COMPLETED,
+                null
+        );
+        transactionDto.setInitiatedAt(LocalDateTime.of(2025, 10, 1, 12, 30));
+
+        postTransactionJson = postTransactionWriter.writeValueAsBytes(postTransactionDto);
+        transactionJson = transactionWriter.writeValueAsBytes(transactionDto);
+    }
+
+    @Benchmark
+    public byte[] serializePostTransaction() throws Exception {
+        return postTransactionWriter.writeValueAsBytes(postTransactionDto);
+    }
+
+    @Benchmark
+    public PostTransactionDto deserializePostTransaction() throws Exception {
+        return postTransactionReader.readValue(postTransactionJson);
+    }
+
+    @Benchmark
+    public byte[] serializeTransaction() throws Exception {
+        return transactionWriter.writeValueAsBytes(transactionDto);
+    }
+
+    @Benchmark
+    public TransactionDto deserializeTransaction() throws Exception {
+        return transactionReader.readValue(transactionJson);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.benchmarks;
+
+import com.example.transactions.entity.Transaction;
+import com.example.transactions.enums.Currency;
+import com.example.transactions.enums.TransactionType;
+import com.example.transactions.utils.TransactionHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Currency conversion and the amount based fraud score, per call and for a batch as the batch endpoints use them.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionHelperBenchmark {
+    private static final int BATCH_SIZE = 1000;
+
+    // one amount under each fraud threshold and one above the last
+    @Param({"1500.00", "3000.00", "7500.00", "15000.00"})
+    private String amount;
+
+    private BigDecimal value;
+    private Transaction transaction;
+    private List<Transaction> transactions;
+
+    @Setup
+    public void setUp() {
+        value = new BigDecimal(amount);
+        transaction = Transaction.builder()
+                .transactionType(TransactionType.TRANSFER)
+                .currency(Currency.EUR)
+                .amount(value)
+                .build();
+
+        transactions = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            transactions.add(transaction);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal convertCurrency() {
+        return TransactionHelper.ConvertCurrency(Currency.EUR, Currency.USD, value);
+    }
+
+    @Benchmark
+    public BigDecimal convertCurrencySame() {
+        return TransactionHelper.ConvertCurrency(Currency.EUR, Currency.EUR, value);
+    }
+
+    @Benchmark
+    public BigDecimal checkAmountAntiFraud() {
+        return TransactionHelper.checkAmountAntiFraud(transaction);
+    }
+
+    @Benchmark
+    public List<BigDecimal> checkAmountAntiFraudBatch() {
+        return TransactionHelper.checkAmountAntiFraud(transactions);
+    }
+}
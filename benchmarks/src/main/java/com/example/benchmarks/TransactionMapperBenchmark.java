@@ -0,0 +1,73 @@
+package com.example.benchmarks;
+
+import com.example.transactions.dto.request.PostTransactionDto;
+import com.example.transactions.dto.response.TransactionDto;
+import com.example.transactions.entity.Transaction;
+import com.example.transactions.enums.Currency;
+import com.example.transactions.enums.TransactionStatus;
+import com.example.transactions.enums.TransactionType;
+import com.example.transactions.mapper.TransactionMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// Mapping done on every create and every read of a transaction.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionMapperBenchmark {
+    private PostTransactionDto postTransactionDto;
+    private Transaction transaction;
+
+    @Setup
+    public void setUp() {
+        postTransactionDto = new PostTransactionDto(
+                "RO49AAAA1B31007593840000",
+                "1",
+                "2",
+                "RO49AAAA1B31007593840001",
+                TransactionType.TRANSFER,
+                new BigDecimal("1250.75"),
+                Currency.RON,
+                "Rent for October"
+        );
+        transaction = Transaction.builder()
+                .id(42L)
+                .transactionId("3f1c9a52-6d0e-4b8e-9f57-0d7f1f0c2a11")
+                .fromAccountId("1")
+                .toAccountId("2")
+                .fromAccountNumber("RO49AAAA1B31007593840001")
+                .toAccountNumber("RO49AAAA1B31007593840000")
+                .transactionType(TransactionType.TRANSFER)
+                .amount(new BigDecimal("1250.75"))
+                .currency(Currency.RON)
+                .description("Rent for October")
+                .status(TransactionStatus.COMPLETED)
+                .initiatedAt(LocalDateTime.of(2025, 10, 1, 12, 30))
+                .build();
+    }
+
+    @Benchmark
+    public Transaction toEntity() {
+        return TransactionMapper.ToEntity(postTransactionDto);
+    }
+
+    @Benchmark
+    public TransactionDto toDto() {
+        return TransactionMapper.ToDto(transaction);
+    }
+}
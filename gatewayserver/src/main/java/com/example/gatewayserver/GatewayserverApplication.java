@@ -1,9 +1,12 @@
 package com.example.gatewayserver;
 
+import com.example.gatewayserver.config.LatencyAwareLoadBalancerConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
 
 @SpringBootApplication
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
 public class GatewayserverApplication {
 
 	public static void main(String[] args) {
@@ -60,11 +60,13 @@ public class AccountSecurityConfig {
                         // Rute Account Management
                         .pathMatchers(HttpMethod.POST, "/banking/accounts/create_account").hasAnyRole("ADMIN", "CUSTOMER")
                         .pathMatchers(HttpMethod.POST, "/banking/accounts/create_with_notification").hasAnyRole("ADMIN", "CUSTOMER")
-                        .pathMatchers(HttpMethod.POST, "/banking/accounts/transfer").hasAnyRole("ADMIN", "CUSTOMER")
+                        // money only moves through the transactions service, which checks limits and fraud first
+                        .pathMatchers("/banking/accounts/transfer").denyAll()
                         .pathMatchers(HttpMethod.GET, "/banking/accounts/notifications/**").hasAnyRole("ADMIN", "CUSTOMER")
                         .pathMatchers(HttpMethod.GET, "/banking/accounts/check_balance").hasAnyRole("ADMIN", "CUSTOMER")
                         .pathMatchers(HttpMethod.PUT, "/banking/accounts/update_account_details").hasAnyRole("ADMIN", "CUSTOMER")
                         .pathMatchers(HttpMethod.GET, "/banking/accounts/fetch_general_data").hasAnyRole("ADMIN", "CUSTOMER")
+                        .pathMatchers(HttpMethod.GET, "/banking/accounts/fetch_general_data_batch").hasAnyRole("ADMIN", "CUSTOMER")
                         .pathMatchers(HttpMethod.GET, "/banking/accounts/history").hasAnyRole("ADMIN", "CUSTOMER")
 
                         .pathMatchers(HttpMethod.DELETE, "/banking/accounts/close_account").hasRole("ADMIN")
@@ -73,6 +75,7 @@ public class AccountSecurityConfig {
                         .pathMatchers(HttpMethod.PATCH, "/banking/accounts/verify").hasRole("ADMIN")
                         .pathMatchers(HttpMethod.GET, "/banking/accounts/filter_by_status").hasRole("ADMIN")
                         .pathMatchers(HttpMethod.GET, "/banking/accounts/sort_by").hasRole("ADMIN")
+                        .pathMatchers(HttpMethod.GET, "/banking/accounts/export_by_status").hasRole("ADMIN")
                         .pathMatchers(HttpMethod.PATCH, "/banking/accounts/freeze_with_notification").hasRole("ADMIN")
 
                         // Rute Transactions
@@ -82,11 +85,14 @@ public class AccountSecurityConfig {
                         .pathMatchers(HttpMethod.GET, "/banking/transactions/history").hasAnyRole("ADMIN", "CUSTOMER")
                         .pathMatchers(HttpMethod.PATCH, "/banking/transactions/complete-payment/**").hasAnyRole("ADMIN", "CUSTOMER")
                         .pathMatchers(HttpMethod.GET, "/banking/transactions/calculate-fees/**").hasAnyRole("ADMIN", "CUSTOMER")
+                        .pathMatchers(HttpMethod.POST, "/banking/transactions/calculate-fees").hasAnyRole("ADMIN", "CUSTOMER")
 
                         .pathMatchers(HttpMethod.GET, "/banking/transactions/get/**").hasAnyRole("CUSTOMER", "ADMIN")
                         .pathMatchers(HttpMethod.PATCH, "/banking/transactions/modify-currency/**").hasRole("ADMIN")
                         .pathMatchers(HttpMethod.GET, "/banking/transactions/anti-fraud-check/**").hasRole("ADMIN")
+                        .pathMatchers(HttpMethod.POST, "/banking/transactions/anti-fraud-check").hasRole("ADMIN")
                         .pathMatchers(HttpMethod.PATCH, "/banking/transactions/modify-transaction-type/**").hasRole("ADMIN")
+                        .pathMatchers(HttpMethod.POST, "/banking/transactions/bulk").hasRole("ADMIN")
 
                         // vize 3
                         .pathMatchers(HttpMethod.GET, "/banking/transactions/get_with_account_details/**").hasAnyRole("ADMIN","CUSTOMER")
@@ -104,6 +110,7 @@ public class AccountSecurityConfig {
                         .pathMatchers(HttpMethod.GET, "/banking/notifications/status/**").hasAnyRole("ADMIN", "CUSTOMER")
                         .pathMatchers(HttpMethod.GET, "/banking/notifications/history/**").hasAnyRole("ADMIN", "CUSTOMER")
 
+                        .pathMatchers(HttpMethod.POST, "/banking/notifications/create-bulk").hasRole("ADMIN")
                         .pathMatchers(HttpMethod.DELETE, "/banking/notifications/delete-expired").hasRole("ADMIN")
                         .pathMatchers(HttpMethod.POST, "/banking/notifications/resend-failed/**").hasRole("ADMIN")
 
@@ -0,0 +1,27 @@
+package com.example.gatewayserver.config;
+
+import com.example.gatewayserver.loadbalancer.InstanceLatencyTracker;
+import com.example.gatewayserver.loadbalancer.LatencyAwareLoadBalancer;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+// Default load balancer configuration of the lb:// routes, see @LoadBalancerClients. It is not a
+// @Configuration: Spring Cloud loads it once per service, and it replaces the round robin balancer there.
+// The instance list still comes from the default suppliers (Eureka discovery and caching).
+public class LatencyAwareLoadBalancerConfiguration {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> latencyAwareLoadBalancer(Environment environment,
+                                                                         LoadBalancerClientFactory loadBalancerClientFactory,
+                                                                         InstanceLatencyTracker latencyTracker) {
+        String serviceId = LoadBalancerClientFactory.getName(environment);
+        return new LatencyAwareLoadBalancer(
+                loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                serviceId,
+                latencyTracker);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.gatewayserver.filters.customizable;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+// Tells the services behind the gateway who is calling. A value sent by the client is always dropped,
+// so the header only ever carries the subject of the login the gateway checked.
+@Component
+public class AuthenticatedUserFilter implements GlobalFilter, Ordered {
+
+    public static final String AUTHENTICATED_USER_HEADER = "X-Authenticated-User";
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange,
+                             GatewayFilterChain chain) {
+
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .filter(authentication -> authentication.isAuthenticated()
+                        && !(authentication instanceof AnonymousAuthenticationToken))
+                .map(Authentication::getName)
+                .defaultIfEmpty("")
+                .flatMap(user -> chain.filter(exchange.mutate()
+                        .request(request -> request.headers(headers -> {
+                            headers.remove(AUTHENTICATED_USER_HEADER);
+                            if (!user.isEmpty()) {
+                                headers.set(AUTHENTICATED_USER_HEADER, user);
+                            }
+                        }))
+                        .build()));
+    }
+
+    @Override
+    public int getOrder() {
+        return 1;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.gatewayserver.filters.customizable;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthenticatedUserFilterTests {
+
+    private final AuthenticatedUserFilter filter = new AuthenticatedUserFilter();
+
+    @Test
+    void filter_RelaysTheLoggedInSubject() {
+        HttpHeaders forwarded = forward(new TestingAuthenticationToken("108239", null, "ROLE_CUSTOMER"), null);
+
+        assertEquals("108239", forwarded.getFirst(AuthenticatedUserFilter.AUTHENTICATED_USER_HEADER));
+    }
+
+    @Test
+    void filter_ReplacesAValueSentByTheClient() {
+        HttpHeaders forwarded = forward(new TestingAuthenticationToken("108239", null, "ROLE_CUSTOMER"), "someone-else");
+
+        assertEquals(1, forwarded.get(AuthenticatedUserFilter.AUTHENTICATED_USER_HEADER).size());
+        assertEquals("108239", forwarded.getFirst(AuthenticatedUserFilter.AUTHENTICATED_USER_HEADER));
+    }
+
+    @Test
+    void filter_AnonymousCallerGetsNoHeader() {
+        AnonymousAuthenticationToken anonymous = new AnonymousAuthenticationToken("key", "anonymousUser",
+                AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+
+        assertNull(forward(anonymous, "someone-else").get(AuthenticatedUserFilter.AUTHENTICATED_USER_HEADER));
+        assertNull(forward(null, "someone-else").get(AuthenticatedUserFilter.AUTHENTICATED_USER_HEADER));
+    }
+
+    private HttpHeaders forward(Authentication authentication, String spoofed) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.post("/banking/transactions/post");
+        if (spoofed != null) {
+            request.header(AuthenticatedUserFilter.AUTHENTICATED_USER_HEADER, spoofed);
+        }
+        AtomicReference<HttpHeaders> forwarded = new AtomicReference<>();
+        GatewayFilterChain chain = exchange -> {
+            forwarded.set(exchange.getRequest().getHeaders());
+            return Mono.empty();
+        };
+
+        Mono<Void> result = filter.filter(MockServerWebExchange.from(request), chain);
+        if (authentication != null) {
+            result = result.contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+        }
+        result.block();
+        return forwarded.get();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.gatewayserver.loadbalancer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerProperties;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.gateway.config.GatewayLoadBalancerProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+
+// drives the tracker through the gateway's own ReactiveLoadBalancerClientFilter, the way the lb:// routes call it
+class InstanceLatencyTrackerTests {
+
+    private final ServiceInstance replica = new DefaultServiceInstance("account-1", "accountmanagement", "10.0.0.1", 8090, false);
+
+    private InstanceLatencyTracker latencyTracker;
+    private ReactiveLoadBalancerClientFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        latencyTracker = new InstanceLatencyTracker();
+        ReflectionTestUtils.setField(latencyTracker, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(latencyTracker, "decayMs", 10000L);
+        ReflectionTestUtils.setField(latencyTracker, "failurePenaltyMs", 1000L);
+
+        ReactorServiceInstanceLoadBalancer loadBalancer = request -> Mono.just(new DefaultResponse(replica));
+        LoadBalancerClientFactory clientFactory = mock(LoadBalancerClientFactory.class);
+        when(clientFactory.getInstance("accountmanagement", ReactorServiceInstanceLoadBalancer.class)).thenReturn(loadBalancer);
+        when(clientFactory.getInstances("accountmanagement", LoadBalancerLifecycle.class))
+                .thenReturn(Map.of("instanceLatencyTracker", latencyTracker));
+        when(clientFactory.getProperties("accountmanagement")).thenReturn(new LoadBalancerProperties());
+        filter = new ReactiveLoadBalancerClientFilter(clientFactory, new GatewayLoadBalancerProperties());
+    }
+
+    @Test
+    void supports_TheGatewayRequestAndResponseTypes() {
+        assertTrue(latencyTracker.supports(RequestDataContext.class, ResponseData.class, ServiceInstance.class));
+    }
+
+    @Test
+    void filter_CountsTheCallInFlightAndRecordsItsResponseTime() {
+        AtomicInteger inFlightDuringCall = new AtomicInteger(-1);
+        MockServerWebExchange exchange = exchange();
+
+        filter.filter(exchange, answering(HttpStatus.OK, 30, inFlightDuringCall)).block();
+
+        assertEquals(1, inFlightDuringCall.get());
+        assertEquals(0, latencyTracker.inFlight(replica));
+        double latency = latencyTracker.latencyNanos(replica);
+        assertTrue(latency >= TimeUnit.MILLISECONDS.toNanos(25));
+        assertTrue(latency < TimeUnit.MILLISECONDS.toNanos(1000));
+    }
+
+    @Test
+    void filter_ServerErrorCountsAsASlowCall() {
+        filter.filter(exchange(), answering(HttpStatus.SERVICE_UNAVAILABLE, 0, new AtomicInteger())).block();
+
+        assertEquals(0, latencyTracker.inFlight(replica));
+        assertTrue(latencyTracker.latencyNanos(replica) >= TimeUnit.MILLISECONDS.toNanos(900));
+    }
+
+    @Test
+    void filter_FailedCallCountsAsASlowCall() {
+        GatewayFilterChain refused = exchange -> Mono.error(new RuntimeException("Connection refused"));
+
+        assertThrows(RuntimeException.class, () -> filter.filter(exchange(), refused).block());
+
+        assertEquals(0, latencyTracker.inFlight(replica));
+        assertTrue(latencyTracker.latencyNanos(replica) >= TimeUnit.MILLISECONDS.toNanos(900));
+    }
+
+    private static MockServerWebExchange exchange() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("http://localhost/api/accounts/1"));
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, URI.create("lb://accountmanagement/api/accounts/1"));
+        return exchange;
+    }
+
+    private GatewayFilterChain answering(HttpStatus status, long delayMs, AtomicInteger inFlightDuringCall) {
+        return exchange -> Mono.delay(Duration.ofMillis(delayMs))
+                .doOnNext(ignored -> {
+                    inFlightDuringCall.set(latencyTracker.inFlight(replica));
+                    exchange.getResponse().setStatusCode(status);
+                })
+                .then();
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.gatewayserver.loadbalancer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SuppressWarnings({"unchecked", "rawtypes"})
+class LatencyAwareLoadBalancerTests {
+
+    private final ServiceInstance replica1 = new DefaultServiceInstance("account-1", "accountmanagement", "10.0.0.1", 8090, false);
+    private final ServiceInstance replica2 = new DefaultServiceInstance("account-2", "accountmanagement", "10.0.0.2", 8090, false);
+
+    private final ObjectProvider<ServiceInstanceListSupplier> suppliers = mock(ObjectProvider.class);
+
+    private InstanceLatencyTracker latencyTracker;
+    private LatencyAwareLoadBalancer loadBalancer;
+
+    @BeforeEach
+    void setUp() {
+        latencyTracker = new InstanceLatencyTracker();
+        ReflectionTestUtils.setField(latencyTracker, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(latencyTracker, "decayMs", 10000L);
+        ReflectionTestUtils.setField(latencyTracker, "failurePenaltyMs", 1000L);
+
+        loadBalancer = new LatencyAwareLoadBalancer(suppliers, "accountmanagement", latencyTracker);
+    }
+
+    @Test
+    void choose_PrefersTheFasterReplica() {
+        record(replica1, 5);
+        record(replica2, 800);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(replica1, loadBalancer.choose(List.of(replica1, replica2)).getServer());
+        }
+    }
+
+    @Test
+    void choose_AvoidsTheReplicaWithCallsStuckInFlight() {
+        record(replica1, 10);
+        record(replica2, 10);
+        for (int i = 0; i < 5; i++) {
+            start(replica2);
+        }
+
+        assertEquals(replica1, loadBalancer.choose(List.of(replica1, replica2)).getServer());
+    }
+
+    @Test
+    void choose_UnmeasuredReplicasAreComparedByCallsInFlight() {
+        start(replica1);
+
+        assertEquals(replica2, loadBalancer.choose(List.of(replica1, replica2)).getServer());
+    }
+
+    @Test
+    void choose_SingleOrNoInstance() {
+        assertEquals(replica2, loadBalancer.choose(List.of(replica2)).getServer());
+        assertFalse(loadBalancer.choose(List.<ServiceInstance>of()).hasServer());
+    }
+
+    @Test
+    void choose_TakesTheInstancesFromTheServiceSupplier() {
+        ServiceInstanceListSupplier supplier = mock(ServiceInstanceListSupplier.class);
+        when(supplier.get(any(Request.class))).thenReturn(Flux.just(List.of(replica1, replica2)));
+        when(suppliers.getIfAvailable(any())).thenReturn(supplier);
+        record(replica1, 800);
+        record(replica2, 5);
+
+        Response<ServiceInstance> response = loadBalancer.choose(new DefaultRequest<>(new RequestDataContext())).block();
+
+        assertNotNull(response);
+        assertEquals(replica2, response.getServer());
+    }
+
+    private Request<RequestDataContext> start(ServiceInstance instance) {
+        Request<RequestDataContext> request = new DefaultRequest<>(new RequestDataContext());
+        latencyTracker.onStartRequest((Request) request, new DefaultResponse(instance));
+        return request;
+    }
+
+    private void record(ServiceInstance instance, long elapsedMs) {
+        Request<RequestDataContext> request = start(instance);
+        request.getContext().setRequestStartTime(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(elapsedMs));
+        latencyTracker.onComplete(new CompletionContext(CompletionContext.Status.SUCCESS, request, new DefaultResponse(instance)));
+    }
+}